@@ -0,0 +1,64 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Provides the {@link ExecutorService} calling the handlers when none has been 
+ * defined - Each task is run by a new virtual thread, so that handlers blocking 
+ * in their callbacks do not hold the threads of the {@link 
+ * LysonParserHandlerThreadExecutor#shared() shared} pool, which is still used 
+ * when the {@value #VIRTUAL_THREADS_PROPERTY} system property is false
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+final class LysonParserDefaultExecutor {
+
+	/**
+	 * System property defining whether the handlers are called by virtual 
+	 * threads when they are available - true by default
+	 */
+	static final String VIRTUAL_THREADS_PROPERTY = "cmssi.lyson.executor.virtual";
+	
+	private static final class Virtual {
+		
+		private static final ExecutorService INSTANCE = Executors.newVirtualThreadPerTaskExecutor();
+	}
+
+	private LysonParserDefaultExecutor() {}
+	
+	/**
+	 * Returns the default {@link ExecutorService} calling the handlers
+	 * 
+	 * @return the default {@link ExecutorService}
+	 */
+	static ExecutorService get() {
+		if(!Boolean.parseBoolean(System.getProperty(VIRTUAL_THREADS_PROPERTY, "true")))
+			return LysonParserHandlerThreadExecutor.shared();
+		return Virtual.INSTANCE;
+	}
+}
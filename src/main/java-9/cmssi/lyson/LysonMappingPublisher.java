@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link Flow.Publisher} of the elements of the root JSON Array read by a {@link LysonParser}, 
+ * each of them being mapped to an instance of a type by a {@link 
+ * cmssi.lyson.handler.mapping.MappingHandler} of its own - A root JSON Object is mapped as a 
+ * whole. Elements are only read as fast as they are requested by its {@link Flow.Subscriber}, 
+ * and by the thread calling {@link Flow.Subscription#request(long)}, or by the {@link Executor} 
+ * of the publisher if any: at most one element is held in memory at a time
+ * <p>
+ * As a LysonParser reads its input once, a LysonMappingPublisher accepts a single subscriber
+ * 
+ * @param <T> the mapped type
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+public class LysonMappingPublisher<T> implements Flow.Publisher<T> {
+	
+	private final LysonParser parser;
+	private final Class<T> type;
+	private final Executor executor;
+	private final AtomicBoolean subscribed;
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param parser the {@link LysonParser} whose elements are mapped and published 
+	 * by the LysonMappingPublisher to be instantiated - The parser must not be used 
+	 * by anything else
+	 * @param type the type the elements are mapped to
+	 */
+	public LysonMappingPublisher(LysonParser parser, Class<T> type) {
+		this(parser, type, null);
+	}
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param parser the {@link LysonParser} whose elements are mapped and published 
+	 * by the LysonMappingPublisher to be instantiated - The parser must not be used 
+	 * by anything else
+	 * @param type the type the elements are mapped to
+	 * @param executor the {@link Executor} reading and delivering the elements, or 
+	 * null if they are delivered by the requesting thread
+	 */
+	public LysonMappingPublisher(LysonParser parser, Class<T> type, Executor executor) {
+		this.parser = Objects.requireNonNull(parser, "Null LysonParser");
+		this.type = Objects.requireNonNull(type, "Null type");
+		this.executor = executor;
+		this.subscribed = new AtomicBoolean();
+	}
+
+	@Override
+	public void subscribe(Flow.Subscriber<? super T> subscriber) {
+		Objects.requireNonNull(subscriber, "Null Subscriber");
+		if(!this.subscribed.compareAndSet(false, true)) {
+			LysonPublisher.reject(subscriber);
+			return;
+		}
+		LysonSubscription subscription = new LysonSubscription(this.parser, 
+			new LysonParserMappingEmitter<T>(this.parser, this.type) {
+			
+			@Override
+			void next(T mapped) {
+				subscriber.onNext(mapped);
+			}
+
+			@Override
+			public void complete() {
+				subscriber.onComplete();
+			}
+
+			@Override
+			public void fail(RuntimeException exception) {
+				subscriber.onError(exception);
+			}
+		}, this.executor);
+		subscriber.onSubscribe(new LysonPublisher.Subscription(subscription));
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import cmssi.lyson.event.ParsingEvent;
+
+/**
+ * {@link Flow.Publisher} of the {@link ParsingEvent}s of a {@link LysonParser}, which 
+ * reads them only as fast as they are requested by its {@link Flow.Subscriber} - Events 
+ * are read and delivered by the thread calling {@link Flow.Subscription#request(long)}, 
+ * or by the {@link Executor} of the publisher if any, without being buffered. An invalid 
+ * input is signaled by a {@link cmssi.lyson.exception.LysonParsingException}
+ * <p>
+ * As a LysonParser reads its input once, a LysonPublisher accepts a single subscriber. 
+ * The parser must not use reusable events nor string views, which would not remain 
+ * valid once delivered
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+public class LysonPublisher implements Flow.Publisher<ParsingEvent> {
+	
+	/**
+	 * {@link Flow.Subscription} delegating to a {@link LysonSubscription}
+	 */
+	static final class Subscription implements Flow.Subscription {
+		
+		private final LysonSubscription subscription;
+		
+		Subscription(LysonSubscription subscription) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void request(long n) {
+			this.subscription.request(n);
+		}
+
+		@Override
+		public void cancel() {
+			this.subscription.cancel();
+		}
+	}
+	
+	private final LysonParser parser;
+	private final Executor executor;
+	private final AtomicBoolean subscribed;
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param parser the {@link LysonParser} whose events are published by the 
+	 * LysonPublisher to be instantiated - The parser must not be used by anything 
+	 * else
+	 */
+	public LysonPublisher(LysonParser parser) {
+		this(parser, null);
+	}
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param parser the {@link LysonParser} whose events are published by the 
+	 * LysonPublisher to be instantiated - The parser must not be used by anything 
+	 * else
+	 * @param executor the {@link Executor} reading and delivering the events, or 
+	 * null if they are delivered by the requesting thread
+	 */
+	public LysonPublisher(LysonParser parser, Executor executor) {
+		this.parser = Objects.requireNonNull(parser, "Null LysonParser");
+		this.executor = executor;
+		this.subscribed = new AtomicBoolean();
+	}
+
+	@Override
+	public void subscribe(Flow.Subscriber<? super ParsingEvent> subscriber) {
+		Objects.requireNonNull(subscriber, "Null Subscriber");
+		if(!this.subscribed.compareAndSet(false, true)) {
+			reject(subscriber);
+			return;
+		}
+		LysonSubscription subscription = new LysonSubscription(this.parser, new LysonSubscription.Emitter() {
+			
+			@Override
+			public boolean emit(LysonSubscription subscription) {
+				ParsingEvent event = parser.read();
+				if(event == null)
+					return false;
+				subscriber.onNext(event);
+				return true;
+			}
+
+			@Override
+			public void complete() {
+				subscriber.onComplete();
+			}
+
+			@Override
+			public void fail(RuntimeException exception) {
+				subscriber.onError(exception);
+			}
+		}, this.executor);
+		subscriber.onSubscribe(new Subscription(subscription));
+	}
+	
+	/**
+	 * Signals to the {@link Flow.Subscriber} passed as parameter that it cannot 
+	 * subscribe, the single subscription of the publisher having been made
+	 * 
+	 * @param subscriber the rejected {@link Flow.Subscriber}
+	 */
+	static void reject(Flow.Subscriber<?> subscriber) {
+		subscriber.onSubscribe(new Flow.Subscription() {
+			
+			@Override
+			public void request(long n) {
+				//nothing to deliver
+			}
+
+			@Override
+			public void cancel() {
+				//nothing to cancel
+			}
+		});
+		subscriber.onError(new IllegalStateException("Already subscribed"));
+	}
+}
@@ -0,0 +1,611 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import cmssi.lyson.event.ParsingEvent;
+import cmssi.lyson.exception.LysonException;
+import cmssi.lyson.exception.LysonParsingException;
+import cmssi.lyson.handler.LysonRecordHandler;
+import cmssi.lyson.handler.mapping.MappingHandler;
+
+/**
+ * Parser of newline-delimited JSON (JSON Lines) content, each line holding an independent 
+ * record. The content is read by blocks of whole lines, whose records are parsed by the 
+ * workers of a work-stealing pool - the common {@link ForkJoinPool} by default - each block 
+ * being split in halves whose pending ones are stolen by the idle workers, while the calling 
+ * thread delivers them, in order or as soon as they have been parsed, along with their record 
+ * number - which is the index of their line starting from 0. Blank lines are ignored
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+public final class LysonLinesParser {
+
+	private static final Logger LOG = Logger.getLogger(LysonLinesParser.class.getName());
+	
+	public static final int BLOCK_SIZE = 1 << 18;
+	
+	private static final long NEWLINES = LysonParserWords.repeat('\n');
+	
+	//size of the lines of a block under which they are not split anymore
+	private static final int SPLIT_SIZE = 1 << 14;
+	
+	/**
+	 * A record read from a block, holding either its events or its mapped 
+	 * instance, and the {@link LysonParsingException} it raised if any 
+	 */
+	private static final class Record {
+		
+		final long number;
+		List<ParsingEvent> events;
+		Object mapped;
+		LysonParsingException exception;
+		
+		Record(long number) {
+			this.number = number;
+		}
+	}
+	
+	private final InputStream input;
+	private int parallelism;
+	private ExecutorService executor;
+	private boolean unorderedRecords;
+	private boolean exactNumbers;
+	private boolean lazyNumbers;
+	
+	//the block being read, and its number of bytes
+	private byte[] block;
+	private int length;
+	//number of bytes of the last block read
+	private int size;
+	//number of the first line of the next block
+	private long line;
+	private boolean eof;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param input the UTF-8 encoded {@link InputStream} to be 
+	 * parsed by the LysonLinesParser to be instantiated
+	 */
+	public LysonLinesParser(InputStream input) {
+		this.input = input;
+		this.parallelism = Runtime.getRuntime().availableProcessors();
+		this.block = new byte[BLOCK_SIZE];
+	}
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param path the {@link Path} of the UTF-8 encoded file to be 
+	 * parsed by the LysonLinesParser to be instantiated
+	 * 
+	 * @throws LysonException if the file cannot be opened
+	 */
+	public LysonLinesParser(Path path) {
+		this(open(path));
+	}
+	
+	private static InputStream open(Path path) {
+		try {
+			return Files.newInputStream(path);
+		} catch (IOException e) {
+			throw new LysonException(e);
+		}
+	}
+	
+	/**
+	 * Defines the number of workers expected to parse the records, twice as many 
+	 * blocks being read ahead of their delivery - By default, the number of 
+	 * available processors
+	 * 
+	 * @param parallelism the number of workers to be used
+	 * 
+	 * @return this LysonLinesParser
+	 */
+	public LysonLinesParser withParallelism(int parallelism) {
+		this.parallelism = Math.max(1, parallelism);
+		return this;
+	}
+	
+	/**
+	 * Defines the long-lived {@link ExecutorService} parsing the records, which is never 
+	 * shut down by this LysonLinesParser - At most twice the parallelism blocks are handed 
+	 * to it at once, and the lines of a block are only split between its workers if it is 
+	 * a {@link ForkJoinPool}. When not defined, the common {@link ForkJoinPool} is used
+	 * 
+	 * @param executor the {@link ExecutorService} to be used
+	 * 
+	 * @return this LysonLinesParser
+	 */
+	public LysonLinesParser withExecutor(ExecutorService executor) {
+		this.executor = executor;
+		return this;
+	}
+	
+	/**
+	 * Defines whether records may be delivered as soon as they have been parsed, 
+	 * rather than in the order of the lines - The events of a record always remain 
+	 * contiguous and ordered
+	 * 
+	 * @param unorderedRecords true if records can be delivered out of order; 
+	 * false otherwise
+	 * 
+	 * @return this LysonLinesParser
+	 */
+	public LysonLinesParser withUnorderedRecords(boolean unorderedRecords) {
+		this.unorderedRecords = unorderedRecords;
+		return this;
+	}
+	
+	/**
+	 * Defines whether decimal values are converted into BigDecimals 
+	 * 
+	 * @param exactNumbers true if decimal values are to be converted into 
+	 * BigDecimals; false otherwise
+	 * 
+	 * @return this LysonLinesParser
+	 * 
+	 * @see LysonParser#withExactNumbers(boolean)
+	 */
+	public LysonLinesParser withExactNumbers(boolean exactNumbers) {
+		this.exactNumbers = exactNumbers;
+		return this;
+	}
+	
+	/**
+	 * Defines whether the conversion of numeric values is deferred
+	 * 
+	 * @param lazyNumbers true if the conversion of numeric values is to be 
+	 * deferred; false otherwise
+	 * 
+	 * @return this LysonLinesParser
+	 * 
+	 * @see LysonParser#withLazyNumbers(boolean)
+	 */
+	public LysonLinesParser withLazyNumbers(boolean lazyNumbers) {
+		this.lazyNumbers = lazyNumbers;
+		return this;
+	}
+	
+	/**
+	 * Parses the records and propagates their events, followed by a null one, or 
+	 * the {@link LysonParsingException} they raise, to the {@link LysonRecordHandler} 
+	 * passed as parameter - Returns when all the records have been delivered, or 
+	 * as soon as the handler asks to stop
+	 * 
+	 * @param handler the {@link LysonRecordHandler} to deliver the records to
+	 */
+	public void parse(LysonRecordHandler handler) {
+		run(null, record -> {
+			for(ParsingEvent event : record.events) {
+				if(!handler.handle(record.number, event))
+					return false;
+			}
+			if(record.exception == null)
+				return handler.handle(record.number, (ParsingEvent) null);
+			handler.handle(record.number, record.exception);
+			return true;
+		});
+	}
+	
+	/**
+	 * Parses the records and maps each of them to a new instance of the type passed 
+	 * as parameter, using a {@link MappingHandler} in the worker that parses it - The 
+	 * mapped instances are passed to the specified consumer along with their record 
+	 * number. Invalid records are logged and skipped
+	 * 
+	 * @param <T> the mapped type
+	 * 
+	 * @param type the Java Type to map the records to
+	 * @param consumer the consumer of the mapped instances
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> void map(Class<T> type, ObjLongConsumer<? super T> consumer) {
+		run(type, record -> {
+			if(record.exception == null) 
+				consumer.accept((T) record.mapped, record.number);
+			else if(LOG.isLoggable(Level.SEVERE)) 
+				LOG.log(Level.SEVERE, "Invalid record " + record.number, record.exception);
+			return true;
+		});
+	}
+	
+	/**
+	 * Returns a sequential {@link Stream} of the events of the records, which are read and 
+	 * parsed as the stream is consumed - The events of each record start with the opening of 
+	 * its root JSON Object or Array, and invalid records are logged and skipped. The input is 
+	 * closed when its end is reached, or when the stream is closed
+	 * <p>
+	 * When the stream is parallel, the thread splitting it reads blocks of whole lines which 
+	 * are handed over to the threads of the stream's pool, each of them parsing the records 
+	 * of its blocks - The parallelism and order of delivery defined for this LysonLinesParser 
+	 * do not apply
+	 * 
+	 * @return the {@link Stream} of the records' events
+	 */
+	public Stream<ParsingEvent> events() {
+		return StreamSupport.stream(new Blocks(), false).onClose(this::close);
+	}
+	
+	/**
+	 * {@link Spliterator} over the events of the records of the blocks read from the 
+	 * input, which splits by handing over the rest of its current block, or the next 
+	 * block read
+	 */
+	private final class Blocks implements Spliterator<ParsingEvent> {
+		
+		private Lines current;
+
+		@Override
+		public boolean tryAdvance(Consumer<? super ParsingEvent> action) {
+			for(;;) {
+				if(this.current != null && this.current.tryAdvance(action))
+					return true;
+				if((this.current = block()) == null)
+					return false;
+			}
+		}
+
+		@Override
+		public Spliterator<ParsingEvent> trySplit() {
+			Lines prefix = this.current;
+			this.current = null;
+			return prefix != null ? prefix : block();
+		}
+		
+		//reads the next block of whole lines, or closes the input and 
+		//returns null if its end has been reached
+		private Lines block() {
+			while(!eof) {
+				byte[] bytes = next();
+				if(size == 0) 
+					continue;
+				long first = line;
+				line += lines(bytes, 0, size);
+				return new Lines(bytes, 0, size, first);
+			}
+			close();
+			return null;
+		}
+
+		@Override
+		public long estimateSize() {
+			return Long.MAX_VALUE;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.NONNULL;
+		}
+	}
+	
+	/**
+	 * {@link Spliterator} over the events of the records of the lines held by a block 
+	 * between two positions, each record being parsed when its first event is requested - 
+	 * It splits its lines in two halves, the record being read remaining in the first one
+	 */
+	private final class Lines implements Spliterator<ParsingEvent> {
+		
+		private final byte[] bytes;
+		private final LysonParserArrayInput in;
+		private int from;
+		private final int to;
+		private long number;
+		private Iterator<ParsingEvent> record;
+		
+		Lines(byte[] bytes, int from, int to, long number) {
+			this.bytes = bytes;
+			this.in = new LysonParserArrayInput(bytes);
+			this.from = from;
+			this.to = to;
+			this.number = number;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super ParsingEvent> action) {
+			while(this.record == null || !this.record.hasNext()) {
+				this.record = null;
+				if(this.from >= this.to)
+					return false;
+				int end = end(this.in, this.from, this.to);
+				if(!blank(this.bytes, this.from, end)) {
+					Record parsed = parse(this.in, this.from, end, this.number, null);
+					if(parsed.exception == null)
+						this.record = parsed.events.iterator();
+					else if(LOG.isLoggable(Level.SEVERE)) 
+						LOG.log(Level.SEVERE, "Invalid record " + parsed.number, parsed.exception);
+				}
+				this.from = end + 1;
+				this.number++;
+			}
+			action.accept(this.record.next());
+			return true;
+		}
+
+		@Override
+		public Spliterator<ParsingEvent> trySplit() {
+			int middle = this.from + (this.to - this.from) / 2;
+			while(middle < this.to && this.bytes[middle] != '\n')
+				middle++;
+			if(middle + 1 >= this.to)
+				return null;
+			Lines prefix = new Lines(this.bytes, this.from, middle + 1, this.number);
+			prefix.record = this.record;
+			this.record = null;
+			this.number += lines(this.bytes, this.from, middle + 1);
+			this.from = middle + 1;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return this.to - this.from;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.NONNULL;
+		}
+	}
+	
+	/**
+	 * Delivery of the parsed records on the calling thread
+	 */
+	private interface Delivery {
+		
+		boolean deliver(Record record);
+	}
+	
+	//reads the blocks, keeping a bounded number of them ahead of the 
+	//delivery of their records
+	private void run(Class<?> type, Delivery delivery) {
+		ExecutorService pool = this.executor == null?ForkJoinPool.commonPool():this.executor;
+		CompletionService<List<Record>> completion = new ExecutorCompletionService<>(pool);
+		Deque<Future<List<Record>>> pending = new ArrayDeque<>();
+		int ahead = 2 * this.parallelism;
+		try {
+			for(;;) {
+				while(pending.size() < ahead && !this.eof) {
+					byte[] bytes = next();
+					if(this.size == 0) 
+						continue;
+					long first = this.line;
+					this.line += lines(bytes, 0, this.size);
+					Records records = new Records(bytes, 0, this.size, first, type);
+					pending.add(completion.submit(records::invoke));
+				}
+				if(pending.isEmpty())
+					return;
+				Future<List<Record>> future = this.unorderedRecords ? completion.take() : pending.poll();
+				if(this.unorderedRecords)
+					pending.remove(future);
+				for(Record record : get(future)) {
+					if(!delivery.deliver(record))
+						return;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			//the pool outlives the parsing : its threads are not interrupted
+			pending.forEach(f -> f.cancel(false));
+			close();
+		}
+	}
+	
+	private static List<Record> get(Future<List<Record>> future) throws InterruptedException {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			if(e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new LysonException(e.getCause());
+		}
+	}
+	
+	//reads and returns the next block of whole lines, the bytes following 
+	//its last line being moved into a new block
+	private byte[] next() {
+		int last = -1;
+		for(;;) {
+			if(this.length == this.block.length)
+				this.block = Arrays.copyOf(this.block, this.block.length << 1);
+			int read = read(this.length);
+			if(read < 0) {
+				this.eof = true;
+				break;
+			}
+			for(int i = this.length + read - 1; i >= this.length && last < 0; i--) {
+				if(this.block[i] == '\n')
+					last = i;
+			}
+			this.length += read;
+			if(last >= 0 && this.length == this.block.length)
+				break;
+		}
+		byte[] full = this.block;
+		this.size = last < 0 || this.eof ? this.length : last + 1;
+		this.block = new byte[Math.max(BLOCK_SIZE, this.length - this.size)];
+		System.arraycopy(full, this.size, this.block, 0, this.length - this.size);
+		this.length -= this.size;
+		return full;
+	}
+	
+	private int read(int offset) {
+		try {
+			int read = 0;
+			while(read == 0) 
+				read = this.input.read(this.block, offset, this.block.length - offset);
+			return read;
+		} catch (IOException e) {
+			throw new LysonException(e);
+		}
+	}
+	
+	//counts the line feeds of the block from the position from to the position to, 
+	//a word at a time
+	private static int lines(byte[] bytes, int from, int to) {
+		ByteBuffer words = ByteBuffer.wrap(bytes);
+		int newlines = 0;
+		int i = from;
+		for(; i + LysonParserWords.WORD <= to; i+=LysonParserWords.WORD)
+			newlines += LysonParserWords.count(words.getLong(i), NEWLINES);
+		for(; i < to; i++) {
+			if(bytes[i] == '\n')
+				newlines+=1;
+		}
+		return newlines;
+	}
+	
+	/**
+	 * Parses the records of the lines of a block between two positions, starting with the line 
+	 * number passed as parameter, into their events or into instances of the mapped type - When 
+	 * run by a {@link ForkJoinPool}, lines are split in two halves as long as they are large 
+	 * enough, the second half being left to the idle workers
+	 */
+	private final class Records extends RecursiveTask<List<Record>> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final byte[] bytes;
+		private final int from;
+		private final int to;
+		private final long first;
+		private final Class<?> type;
+		
+		Records(byte[] bytes, int from, int to, long first, Class<?> type) {
+			this.bytes = bytes;
+			this.from = from;
+			this.to = to;
+			this.first = first;
+			this.type = type;
+		}
+
+		@Override
+		protected List<Record> compute() {
+			if(this.to - this.from > SPLIT_SIZE && inForkJoinPool()) {
+				int middle = this.from + (this.to - this.from) / 2;
+				while(middle < this.to && this.bytes[middle] != '\n')
+					middle++;
+				if(middle + 1 < this.to) {
+					Records suffix = new Records(this.bytes, middle + 1, this.to, this.first 
+						+ lines(this.bytes, this.from, middle + 1), this.type);
+					suffix.fork();
+					List<Record> records = new Records(this.bytes, this.from, middle + 1, 
+						this.first, this.type).compute();
+					records.addAll(suffix.join());
+					return records;
+				}
+			}
+			List<Record> records = new ArrayList<>();
+			LysonParserArrayInput in = new LysonParserArrayInput(this.bytes);
+			long number = this.first;
+			for(int start = this.from; start < this.to; number++) {
+				int end = end(in, start, this.to);
+				if(!blank(this.bytes, start, end))
+					records.add(parse(in, start, end, number, this.type));
+				start = end + 1;
+			}
+			return records;
+		}
+	}
+	
+	//returns the position of the line feed ending the line starting at the 
+	//position from, or size if there is none
+	private static int end(LysonParserArrayInput in, int from, int size) {
+		int to = from;
+		while(to + LysonParserWords.WORD <= size 
+			&& !LysonParserWords.contains(in.window.getLong(to), NEWLINES)) 
+			to+=LysonParserWords.WORD;
+		while(to < size && in.window.get(to) != '\n')
+			to+=1;
+		return to;
+	}
+	
+	private static boolean blank(byte[] bytes, int from, int to) {
+		for(int i = from; i < to; i++) {
+			if(bytes[i] < 0 || bytes[i] > ' ')
+				return false;
+		}
+		return true;
+	}
+	
+	private Record parse(LysonParserArrayInput in, int from, int to, long number, Class<?> type) {
+		Record record = new Record(number);
+		in.range(from, to);
+		LysonParser parser = new LysonParser(in).withExactNumbers(this.exactNumbers
+			).withLazyNumbers(this.lazyNumbers);
+		try {
+			if(type == null) {
+				record.events = new ArrayList<>();
+				for(ParsingEvent event = parser.read(); event != null; event = parser.read())
+					record.events.add(event);
+			} else {
+				MappingHandler mapping = new MappingHandler(type);
+				ParsingEvent event = parser.read();
+				while(event != null && mapping.handle(event))
+					event = parser.read();
+				record.mapped = mapping.getMapped();
+			}
+		} catch(LysonParsingException e) {
+			record.exception = e;
+		}
+		return record;
+	}
+	
+	private void close() {
+		try {
+			this.input.close();
+		} catch (IOException e) {
+			LOG.log(Level.FINE, e.getMessage(), e);
+		}
+	}
+}
@@ -0,0 +1,202 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.math.BigDecimal;
+
+/**
+ * Numeric value of a {@link cmssi.lyson.event.ParsingEvent} whose conversion is deferred 
+ * until it is requested : a LysonNumber only holds the literal as read and the flags 
+ * describing it, and is converted - once - into the Number that the {@link LysonParser} 
+ * would have produced, when one of its xxxValue methods is called. Its String 
+ * representation is the original literal
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+public final class LysonNumber extends Number {
+
+	private static final long serialVersionUID = 1L;
+	
+	//maximum number of digits of an exponent fitting in an int
+	private static final int MAX_EXPONENT_DIGITS = 9;
+	
+	/**
+	 * Returns a new LysonNumber wrapping the literal passed as parameter, or null 
+	 * if the literal is not a decimal one whose conversion is known to succeed - 
+	 * Octal, hexadecimal and invalid literals are left to the eager conversion
+	 * 
+	 * @param s the numeric literal
+	 * @param exact whether decimal literals have to be converted without any 
+	 * loss of precision
+	 * 
+	 * @return a new LysonNumber for the specified literal, or null
+	 */
+	static LysonNumber of(CharSequence s, boolean exact) {
+		int length = s.length();
+		int i = 0;
+		char c = s.charAt(0);
+		if(c == '-' || c == '+')
+			i++;
+		int digits = 0;
+		boolean fraction = false;
+		for(; i < length; i++) {
+			c = s.charAt(i);
+			if(c >= '0' && c <= '9')
+				digits++;
+			else if(c == '.' && !fraction)
+				fraction = true;
+			else 
+				break;
+		}
+		if(digits == 0 || (!fraction && s.charAt(0) == '0'))
+			return null;
+		boolean exponent = i < length;
+		if(exponent) {
+			//integer literals with an exponent are not converted
+			if(!fraction || (c != 'e' && c != 'E'))
+				return null;
+			if(++i < length && ((c = s.charAt(i)) == '-' || c == '+'))
+				i++;
+			if(i == length || length - i > MAX_EXPONENT_DIGITS)
+				return null;
+			for(; i < length; i++) {
+				c = s.charAt(i);
+				if(c < '0' || c > '9')
+					return null;
+			}
+		}
+		return new LysonNumber(s.toString(), s.charAt(0) == '-', fraction, exponent, exact);
+	}
+	
+	private final String literal;
+	private final boolean negative;
+	private final boolean fraction;
+	private final boolean exponent;
+	private final boolean exact;
+	private transient Number value;
+	
+	private LysonNumber(String literal, boolean negative, boolean fraction, 
+		boolean exponent, boolean exact) {
+		this.literal = literal;
+		this.negative = negative;
+		this.fraction = fraction;
+		this.exponent = exponent;
+		this.exact = exact;
+	}
+	
+	/**
+	 * Returns true if this LysonNumber's literal starts with a minus sign
+	 * 
+	 * @return whether this LysonNumber is negative
+	 */
+	public boolean isNegative() {
+		return this.negative;
+	}
+
+	/**
+	 * Returns true if this LysonNumber's literal holds a decimal point
+	 * 
+	 * @return whether this LysonNumber has a fractional part
+	 */
+	public boolean hasFraction() {
+		return this.fraction;
+	}
+
+	/**
+	 * Returns true if this LysonNumber's literal holds an exponent
+	 * 
+	 * @return whether this LysonNumber has an exponent
+	 */
+	public boolean hasExponent() {
+		return this.exponent;
+	}
+	
+	/**
+	 * Returns the Number converted from this LysonNumber's literal, as the 
+	 * {@link LysonParser} would have produced it : an Integer, a Long, a 
+	 * BigInteger, a Double or a BigDecimal
+	 * 
+	 * @return the converted Number
+	 */
+	public Number numberValue() {
+		Number value = this.value;
+		if(value == null) {
+			value = LysonParserNumbers.parse(this.literal, this.exact);
+			this.value = value;
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the exact BigDecimal value of this LysonNumber's literal
+	 * 
+	 * @return the BigDecimal value
+	 */
+	public BigDecimal bigDecimalValue() {
+		Number value = this.value;
+		if(value instanceof BigDecimal)
+			return (BigDecimal) value;
+		return new BigDecimal(this.literal);
+	}
+	
+	@Override
+	public int intValue() {
+		return numberValue().intValue();
+	}
+
+	@Override
+	public long longValue() {
+		return numberValue().longValue();
+	}
+
+	@Override
+	public float floatValue() {
+		return numberValue().floatValue();
+	}
+
+	@Override
+	public double doubleValue() {
+		return numberValue().doubleValue();
+	}
+	
+	@Override
+	public int hashCode() {
+		return numberValue().hashCode();
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if(obj == this)
+			return true;
+		if(!(obj instanceof LysonNumber))
+			return false;
+		return numberValue().equals(((LysonNumber)obj).numberValue());
+	}
+	
+	@Override
+	public String toString() {
+		return this.literal;
+	}
+}
@@ -25,19 +25,25 @@ package cmssi.lyson;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringReader;
-import java.math.BigDecimal;
-import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Deque;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import cmssi.lyson.event.ArrayOpeningEvent;
 import cmssi.lyson.event.ArrayOpeningEventWrapper;
@@ -45,10 +51,12 @@ import cmssi.lyson.event.IndexedEventWrapper;
 import cmssi.lyson.event.KeyValueEventWrapper;
 import cmssi.lyson.event.LysonParsingEvent;
 import cmssi.lyson.event.ParsingEvent;
+import cmssi.lyson.event.ParsingPath;
 import cmssi.lyson.event.ValuableEventWrapper;
 import cmssi.lyson.exception.LysonException;
 import cmssi.lyson.exception.LysonParsingException;
 import cmssi.lyson.handler.LysonParserHandler;
+import cmssi.lyson.handler.LysonParserOverflowPolicy;
 import cmssi.lyson.handler.validation.ValidationHandler;
 
 /**
@@ -71,54 +79,195 @@ public class LysonParser {
      * represented as a String 
      */
 	public static Number numberFromString(String s) {
-    	Number num = null;
-    	if(s.indexOf('.') < 0) {
-        	if (s.charAt(0) == '0') {
-            	try {
-                    if (s.length() > 2 && (s.charAt(1) == 'x' || s.charAt(1) == 'X'))                             
-                        num = Integer.parseInt(s.substring(2), 16);
-                    else 
-                        num = Integer.parseInt(s, 8);                    
-                    num = Integer.valueOf((int)num);
-            	} catch(Exception ex ){
-         			LOG.log(Level.FINEST, ex.getMessage(), ex);
-         		}
-            } else {
-            	num = new BigInteger(s);
-            	if(((BigInteger)num).compareTo(BigInteger.valueOf(Long.MAX_VALUE)) <= 0) {                    	
-            		Long myLong = Long.valueOf(s);
-                    if (myLong.longValue() == myLong.intValue()) {
-                        num = Integer.valueOf(myLong.intValue());
-                    } else {
-                        num = myLong;
-                    }
-            	}
-            }
-        } else {
-            num = new BigDecimal(s);
-            if(((BigDecimal)num).compareTo(BigDecimal.valueOf(Double.MAX_VALUE)) <= 0
-            	&& ((BigDecimal)num).compareTo(BigDecimal.valueOf(Double.MIN_VALUE)) >= 0) {
-                num = ((BigDecimal)num).doubleValue();
-            }
-        }
-        return num;
+		return numberFromString(s, false);
+	}
+
+	/**
+     * Assumes that the String passed as parameter represents a numeric
+     * value. Try to convert it to a Number instance and returns it. In
+     * exact mode, decimal values are always converted into BigDecimals
+     * 
+     * @param s the String to convert into a Number instance
+     * @param exact whether decimal values have to be converted without
+     * any loss of precision
+     * 
+     * @return a new Number instance based on the specified numeric value
+     * represented as a String 
+     */
+	public static Number numberFromString(String s, boolean exact) {
+		return LysonParserNumbers.parse(s, exact);
     }
+
+	/**
+	 * Parses concurrently the Collection of inputs passed as parameter - {@link Path}s of
+	 * files, or {@link java.util.function.Supplier}s of {@link Reader}s or of UTF-8 encoded
+	 * {@link InputStream}s - using the common {@link ForkJoinPool}, and propagates the events
+	 * of each input to the {@link LysonParserHandler} the handlerFactory creates for it
+	 *
+	 * @param <T> the type of the inputs
+	 * @param <H> the type of the {@link LysonParserHandler}s
+	 * @param inputs the Collection of inputs to be parsed
+	 * @param handlerFactory the Function creating the {@link LysonParserHandler} of each input
+	 *
+	 * @return the List of the {@link LysonParsingResult}s, in the order of the inputs
+	 */
+	public static <T, H extends LysonParserHandler> List<LysonParsingResult<T, H>> parseAll(
+		Collection<? extends T> inputs, Function<? super T, ? extends H> handlerFactory) {
+		return parseAll(inputs, handlerFactory, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Parses concurrently the Collection of inputs passed as parameter - {@link Path}s of
+	 * files, or {@link java.util.function.Supplier}s of {@link Reader}s or of UTF-8 encoded
+	 * {@link InputStream}s - using the {@link ForkJoinPool} passed as parameter, whose idle
+	 * threads steal the inputs pending on the busy ones. Each thread reuses its own LysonParser,
+	 * and the failure of an input is reported by its {@link LysonParsingResult} without
+	 * interrupting the parsing of the other ones
+	 *
+	 * @param <T> the type of the inputs
+	 * @param <H> the type of the {@link LysonParserHandler}s
+	 * @param inputs the Collection of inputs to be parsed
+	 * @param handlerFactory the Function creating the {@link LysonParserHandler} of each input
+	 * @param pool the {@link ForkJoinPool} to be used
+	 *
+	 * @return the List of the {@link LysonParsingResult}s, in the order of the inputs
+	 */
+	public static <T, H extends LysonParserHandler> List<LysonParsingResult<T, H>> parseAll(
+		Collection<? extends T> inputs, Function<? super T, ? extends H> handlerFactory, ForkJoinPool pool) {
+		if(inputs == null || handlerFactory == null || pool == null)
+			throw new NullPointerException("Null inputs, handler factory or pool");
+		return new LysonParserBatch<T, H>(inputs, handlerFactory).parse(pool);
+	}
+
+	private static LysonParserInput open(Path path) {
+		try {
+			return map(FileChannel.open(path, StandardOpenOption.READ));
+		} catch (IOException e) {
+			throw new LysonException(e);
+		}
+	}
+	
+	private static LysonParserInput map(FileChannel channel) {
+		try {
+			return new LysonParserMappedInput(channel, LysonParserMappedInput.WINDOW_SIZE);
+		} catch (IOException e) {
+			throw new LysonException(e);
+		}
+	}
+	
+	/**
+	 * Returns a new {@link LysonParserHandlerDispatcher} propagating the parsing events 
+	 * to the {@link LysonParserHandler}s passed as parameter according to the specified
+	 * {@link LysonParserDispatchMode} - When the mode is null, handlers are called inline 
+	 * if only one of them is registered, and pipelined through a ring buffer otherwise
+	 * 
+	 * @param dispatchMode the {@link LysonParserDispatchMode} to be used
+	 * @param executor the {@link ExecutorService} calling the handlers, or null 
+	 * if the {@link LysonParserHandlerThreadExecutor#defaultExecutor() default} one is used
+	 * @param overflowPolicy the {@link LysonParserOverflowPolicy} applying to the queued 
+	 * handlers which do not define their own
+	 * @param handlers the {@link LysonParserHandler}s to dispatch the events to
+	 * 
+	 * @return a new {@link LysonParserHandlerDispatcher}
+	 */
+	static LysonParserHandlerDispatcher dispatcher(LysonParserDispatchMode dispatchMode, 
+		ExecutorService executor, LysonParserOverflowPolicy overflowPolicy, LysonParserHandler... handlers) {
+    	LysonParserDispatchMode mode = dispatchMode;
+    	if(mode == null) 
+    		mode = handlers.length == 1?LysonParserDispatchMode.INLINE:LysonParserDispatchMode.PIPELINED;
+    	//each pipelined or queued handler needs its own thread
+    	if((mode == LysonParserDispatchMode.PIPELINED || mode == LysonParserDispatchMode.QUEUED) 
+    		&& handlers.length > MAX_THREAD)
+    		mode = LysonParserDispatchMode.THREADED;
+    	
+    	if(mode == LysonParserDispatchMode.INLINE) 
+    		return new LysonParserHandlerInlineDispatcher(handlers);
+    	ExecutorService service = executor == null?LysonParserHandlerThreadExecutor.defaultExecutor():executor;
+    	switch(mode) {
+    		case PIPELINED:
+    			LysonParserHandlerRingDispatcher ring = new LysonParserHandlerRingDispatcher(
+    				RING_SIZE, service, handlers);
+    			if(ring.started())
+    				return ring;
+    			break;
+    		case QUEUED:
+    			LysonParserHandlerQueueDispatcher queue = new LysonParserHandlerQueueDispatcher(
+    				RING_SIZE, overflowPolicy, service, handlers);
+    			if(queue.started())
+    				return queue;
+    			break;
+    		case ADAPTIVE:
+    			return new LysonParserHandlerAdaptiveDispatcher(service, handlers);
+    		case THREADED:
+    		default:
+    			break;
+    	}
+    	//including pipelined or queued handlers the executor cannot give a thread each
+    	return new LysonParserHandlerThreadDispatcher(service, handlers);
+	}
+	
+	/**
+	 * Propagates the {@link LysonParsingException} passed as parameter to all the 
+	 * specified {@link LysonParserHandler}s, once they are done with the events 
+	 * already dispatched by the {@link LysonParserHandlerDispatcher}
+	 * 
+	 * @param dispatcher the {@link LysonParserHandlerDispatcher} in use
+	 * @param e the {@link LysonParsingException} to propagate
+	 * @param handlers the {@link LysonParserHandler}s to propagate the exception to
+	 */
+	static void fail(LysonParserHandlerDispatcher dispatcher, LysonParsingException e, 
+		LysonParserHandler... handlers) {
+    	dispatcher.close();
+    	Arrays.stream(handlers).forEach(h -> {
+			h.handle(e);
+		});
+		if(LOG.isLoggable(Level.SEVERE)) 
+			LOG.log(Level.SEVERE,e.getMessage(),e);  
+	}
 	
 	public static final int MAX_THREAD = 100;
 	public static final int BUFFER_SIZE = 1024*60;
+	public static final int RING_SIZE = 1024;
 	
 	public static final char EOF  = '\0';
 
-    private Reader reader;
-    
-	private char[] buffer = new char[BUFFER_SIZE];
-	private int pos = 0;
-	private int line = 0;
-	private int column = 0;
-	private int length = 0;	
+    private LysonParserInput input;
 	
     private Deque<ParsingEvent> queue;
     
+    private LysonParserDispatchMode dispatchMode;
+    private ExecutorService executor;
+    private LysonParserOverflowPolicy overflowPolicy;
+    private volatile LysonParserHandlerDispatcher dispatcher;
+    
+    private boolean exactNumbers;
+    private boolean lazyNumbers;
+    private boolean reusableEvents;
+    private boolean stringViews;
+    private boolean multipleDocuments;
+    private boolean readAhead;
+    private boolean decompression;
+    //number of root JSON Objects or Arrays opened, and whether the 
+    //boundary preceding the next one has been read
+    private int documents;
+    private boolean boundary;
+    private int parallelism = 1;
+    private boolean unorderedElements;
+    //opening of the JSON Array whose elements are read, when only 
+    //reading a segment of them
+    private ParsingEvent segment;
+    private LysonParsingEvent objectItem;
+    private KeyValueEventWrapper objectItemWrapper;
+    private LysonParsingEvent arrayItem;
+    private IndexedEventWrapper arrayItemIndex;
+    private ValuableEventWrapper arrayItemWrapper;
+    private LysonParsingEvent objectClosing;
+    private LysonParsingEvent arrayClosing;
+    
+    private int markedDepth;
+    private ParsingEvent markedTop;
+    private int markedIndex;
+    
     /**
      * Constructor
      *
@@ -132,11 +281,11 @@ public class LysonParser {
    /**
     * Constructor
     *
-    * @param input the {@link InputStream} to be parsed by 
-    * the LysonParser to be instantiated
+    * @param input the UTF-8 encoded {@link InputStream} to be 
+    * parsed by the LysonParser to be instantiated
     */
    public LysonParser (InputStream input) {
-       this(new InputStreamReader(input));
+       this(new LysonParserStreamInput(input));
    }
     
     /**
@@ -146,8 +295,381 @@ public class LysonParser {
      * or InputStream by the LysonParser to be instantiated
      */
     public LysonParser (Reader reader) {
-        this.reader = reader;
-        this.queue = new LinkedList<>();
+        this(new LysonParserReaderInput(reader));
+    }
+    
+    /**
+     * Constructor
+     *
+     * @param path the {@link Path} of the UTF-8 encoded file to be 
+     * parsed, using memory mapping, by the LysonParser to be instantiated
+     * 
+     * @throws LysonException if the file cannot be opened
+     */
+    public LysonParser (Path path) {
+        this(open(path));
+    }
+    
+    /**
+     * Constructor
+     *
+     * @param channel the {@link FileChannel} of the UTF-8 encoded file to be 
+     * parsed from its current position, using memory mapping, by the LysonParser 
+     * to be instantiated - The channel is closed at the end of the parsing
+     * 
+     * @throws LysonException if the file cannot be mapped
+     */
+    public LysonParser (FileChannel channel) {
+        this(map(channel));
+    }
+    
+    /**
+     * Constructor
+     *
+     * @param input the {@link LysonParserInput} providing the 
+     * characters to the LysonParser to be instantiated
+     */
+    LysonParser (LysonParserInput input) {
+        this.input = input;
+        this.queue = new ArrayDeque<>();
+    }
+    
+    /**
+     * Constructor
+     * 
+     * Instantiates a LysonParser reading a segment of the elements of a root 
+     * JSON Array, whose opening has already been read - The end of the input 
+     * is the end of the segment
+     *
+     * @param input the {@link LysonParserInput} providing the characters 
+     * of the segment to the LysonParser to be instantiated
+     * @param firstIndex the index of the first element of the segment
+     */
+    LysonParser (LysonParserInput input, int firstIndex) {
+        this(input);
+        this.segment = new ArrayOpeningEventWrapper(new LysonParsingEvent(ParsingEvent.JSON_ARRAY_OPENING
+        	).withPath(ParsingPath.ROOT)).withInnerIndex(firstIndex - 1);
+        this.queue.push(this.segment);
+    }
+    
+    /**
+     * Defines the {@link LysonParserDispatchMode} used to propagate the parsing 
+     * events to the {@link LysonParserHandler}s - When not defined, handlers are 
+     * called inline if only one of them is registered, and pipelined through a 
+     * ring buffer otherwise
+     * 
+     * @param dispatchMode the {@link LysonParserDispatchMode} to be used
+     * 
+     * @return this LysonParser
+     */
+    public LysonParser withDispatchMode(LysonParserDispatchMode dispatchMode) {
+    	this.dispatchMode = dispatchMode;
+    	return this;
+    }
+    
+    /**
+     * Defines the long-lived {@link ExecutorService} calling the {@link LysonParserHandler}s 
+     * when they are not called inline, and parsing the segments of a file in parallel - It 
+     * is never shut down by this LysonParser. When not defined, handlers are called by the 
+     * {@link LysonParserHandlerThreadExecutor#defaultExecutor() default} executor, and segments by 
+     * threads started for the parsing. Pipelined and queued handlers hold a thread each for the 
+     * whole parsing : if the executor does not start all of them in time, they are called as 
+     * {@link LysonParserDispatchMode#THREADED threaded} ones instead
+     * 
+     * @param executor the {@link ExecutorService} to be used
+     * 
+     * @return this LysonParser
+     * 
+     * @see #withDispatchMode(LysonParserDispatchMode)
+     * @see #withParallelism(int)
+     */
+    public LysonParser withExecutor(ExecutorService executor) {
+    	this.executor = executor;
+    	return this;
+    }
+    
+    /**
+     * Defines the {@link LysonParserOverflowPolicy} applying to the {@link LysonParserHandler}s 
+     * which do not define their own, when their queue of pending events is full - Only used in 
+     * {@link LysonParserDispatchMode#QUEUED} mode. When not defined, the parser waits for the 
+     * handler to catch up
+     * 
+     * @param overflowPolicy the {@link LysonParserOverflowPolicy} to be used
+     * 
+     * @return this LysonParser
+     * 
+     * @see LysonParserHandler#overflowPolicy()
+     */
+    public LysonParser withOverflowPolicy(LysonParserOverflowPolicy overflowPolicy) {
+    	this.overflowPolicy = overflowPolicy;
+    	return this;
+    }
+    
+    /**
+     * Returns the {@link LysonParserHandlerMetrics} of the {@link LysonParserHandler}s of the 
+     * current, or last, parsing - It can be called by another thread while parsing, and returns 
+     * an empty list unless the {@link LysonParserDispatchMode#QUEUED} mode is used
+     * 
+     * @return the List of {@link LysonParserHandlerMetrics} of the handlers
+     */
+    public List<LysonParserHandlerMetrics> metrics() {
+    	LysonParserHandlerDispatcher current = this.dispatcher;
+    	return current == null?Collections.emptyList():current.metrics();
+    }
+    
+    /**
+     * Defines whether this LysonParser converts decimal values into BigDecimals 
+     * without any loss of precision, rather than into Doubles when they are in 
+     * the [Double.MIN_VALUE, Double.MAX_VALUE] range
+     * 
+     * @param exactNumbers true if decimal values are to be converted into 
+     * BigDecimals; false otherwise
+     * 
+     * @return this LysonParser
+     */
+    public LysonParser withExactNumbers(boolean exactNumbers) {
+    	this.exactNumbers = exactNumbers;
+    	return this;
+    }
+    
+    /**
+     * Defines whether this LysonParser defers the conversion of decimal numeric 
+     * values until they are requested - When set, those values are provided as 
+     * {@link LysonNumber}s holding the literal as read, and converted into the 
+     * Number that would have been produced otherwise when one of their xxxValue 
+     * methods is called. Octal and hexadecimal values are still converted eagerly
+     * 
+     * @param lazyNumbers true if the conversion of numeric values is to be 
+     * deferred; false otherwise
+     * 
+     * @return this LysonParser
+     */
+    public LysonParser withLazyNumbers(boolean lazyNumbers) {
+    	this.lazyNumbers = lazyNumbers;
+    	return this;
+    }
+    
+    /**
+     * Defines whether this LysonParser provides string values as {@link LysonString} 
+     * views over its buffer, rather than as Strings - Keys remain Strings
+     * <p>
+     * A {@link LysonString} is reused and only valid during the call to the {@link 
+     * LysonParserHandler#handle(ParsingEvent)} method it is passed to: handlers must 
+     * call its toString() method to keep it. For this reason string views are always 
+     * propagated inline, whatever the {@link LysonParserDispatchMode} defined
+     * 
+     * @param stringViews true if string values are to be provided as {@link 
+     * LysonString} views; false otherwise
+     * 
+     * @return this LysonParser
+     */
+    public LysonParser withStringViews(boolean stringViews) {
+    	this.stringViews = stringViews;
+    	return this;
+    }
+    
+    /**
+     * Defines whether this LysonParser reuses a single mutable instance per 
+     * kind of item and closing {@link ParsingEvent}, rather than allocating 
+     * new ones for each token - Opening events, which are retained by the 
+     * parser to follow the nesting, are still allocated once per JSON Object 
+     * or Array
+     * <p>
+     * A reused {@link ParsingEvent} is only valid during the call to the 
+     * {@link LysonParserHandler#handle(ParsingEvent)} method it is passed to: 
+     * handlers must copy any path, key or value they want to keep, and must 
+     * not keep the event itself. For this reason reusable events are always 
+     * propagated inline, whatever the {@link LysonParserDispatchMode} defined
+     * 
+     * @param reusableEvents true if {@link ParsingEvent}s are to be reused; 
+     * false otherwise
+     * 
+     * @return this LysonParser
+     */
+    public LysonParser withReusableEvents(boolean reusableEvents) {
+    	this.reusableEvents = reusableEvents;
+    	if(reusableEvents && this.objectItem == null) {
+    		this.objectItem = new LysonParsingEvent(ParsingEvent.JSON_OBJECT_ITEM);
+    		this.objectItemWrapper = new KeyValueEventWrapper(this.objectItem);
+    		this.arrayItem = new LysonParsingEvent(ParsingEvent.JSON_ARRAY_ITEM);
+    		this.arrayItemIndex = new IndexedEventWrapper(this.arrayItem);
+    		this.arrayItemWrapper = new ValuableEventWrapper(this.arrayItemIndex);
+    		this.objectClosing = new LysonParsingEvent(ParsingEvent.JSON_OBJECT_CLOSING);
+    		this.arrayClosing = new LysonParsingEvent(ParsingEvent.JSON_ARRAY_CLOSING);
+    	}
+    	return this;
+    }
+    
+    /**
+     * Defines whether this LysonParser reads an input made of several concatenated 
+     * or white spaces separated JSON documents - When set, a {@link ParsingEvent} 
+     * of the {@link ParsingEvent#JSON_DOCUMENT_BOUNDARY} type, whose path is the 
+     * root one, is read between the closing of a document and the opening of the 
+     * next one
+     * 
+     * @param multipleDocuments true if document boundary events are to be read; 
+     * false otherwise
+     * 
+     * @return this LysonParser
+     */
+    public LysonParser withMultipleDocuments(boolean multipleDocuments) {
+    	this.multipleDocuments = multipleDocuments;
+    	return this;
+    }
+    
+    /**
+     * Defines whether this LysonParser, created from an {@link InputStream}, reads 
+     * it ahead using a dedicated I/O thread, which fills a buffer while the parser 
+     * tokenizes the other one - This hides the latency of slow or decompressing 
+     * streams behind the parsing. Must be defined before the parsing starts, and 
+     * is ignored for other inputs. A LysonParser reading ahead whose input is not 
+     * read until its end has to be closed to end its I/O thread
+     * 
+     * @param readAhead true if the input is to be read ahead; false otherwise
+     * 
+     * @return this LysonParser
+     * 
+     * @see #close()
+     */
+    public LysonParser withReadAhead(boolean readAhead) {
+    	if(readAhead && this.input instanceof LysonParserStreamInput) {
+    		InputStream stream = ((LysonParserStreamInput) this.input).detach();
+    		if(stream != null) {
+    			this.input = new LysonParserReadAheadInput(stream);
+    			this.readAhead = true;
+    		}
+    	} else if(!readAhead)
+    		this.readAhead = false;
+    	return this;
+    }
+    
+    /**
+     * Defines whether this LysonParser, created from an {@link InputStream}, a {@link 
+     * Path} or a {@link FileChannel}, reads GZIP or ZLIB (deflate) compressed content - 
+     * The format is detected from its first bytes. The content is inflated by a dedicated 
+     * thread, ahead of the parsing, into a bounded queue of buffers. When reading a file 
+     * with a parallelism greater than one, the concatenated members of a GZIP file are 
+     * inflated concurrently, using as many threads - the JSON Array it may hold being 
+     * parsed sequentially. Must be defined before the parsing starts, and is ignored for 
+     * other inputs. A LysonParser inflating its input whose end is not reached has to be 
+     * closed to end its threads
+     * 
+     * @param decompression true if the input is to be inflated; false otherwise
+     * 
+     * @return this LysonParser
+     * 
+     * @see #withParallelism(int)
+     * @see #close()
+     */
+    public LysonParser withDecompression(boolean decompression) {
+    	if(decompression && this.input instanceof LysonParserStreamInput) {
+    		InputStream stream = ((LysonParserStreamInput) this.input).detach();
+    		if(stream != null) {
+    			this.input = new LysonParserInflatingInput(stream);
+    			this.decompression = true;
+    		}
+    	} else if(decompression && this.input instanceof LysonParserMappedInput) {
+    		FileChannel channel = ((LysonParserMappedInput) this.input).detach();
+    		if(channel != null) {
+    			long position = ((LysonParserMappedInput) this.input).position();
+    			this.input = new LysonParserInflatingInput(channel, position);
+    			((LysonParserInflatingInput) this.input).parallelism(this.parallelism);
+    			this.decompression = true;
+    		}
+    	} else if(!decompression)
+    		this.decompression = false;
+    	return this;
+    }
+    
+    /**
+     * Makes this LysonParser read the characters provided by the {@link Reader} 
+     * passed as parameter, as if it was a new one, reusing its buffers - The 
+     * previous input is closed. The options defined remain unchanged
+     * 
+     * @param reader the {@link Reader} to be parsed
+     * 
+     * @return this LysonParser
+     */
+    public LysonParser reset(Reader reader) {
+    	if(this.input instanceof LysonParserReaderInput)
+    		((LysonParserReaderInput) this.input).reset(reader);
+    	else {
+    		this.input.close();
+    		this.input = new LysonParserReaderInput(reader);
+    	}
+    	return restart();
+    }
+    
+    /**
+     * Makes this LysonParser read the UTF-8 encoded bytes provided by the {@link 
+     * InputStream} passed as parameter, as if it was a new one, reusing its buffers - 
+     * The previous input is closed. The options defined remain unchanged
+     * 
+     * @param input the UTF-8 encoded {@link InputStream} to be parsed
+     * 
+     * @return this LysonParser
+     */
+    public LysonParser reset(InputStream input) {
+    	if(this.decompression) {
+    		this.input.close();
+    		this.input = new LysonParserInflatingInput(input);
+    	} else if(this.readAhead) {
+    		this.input.close();
+    		this.input = new LysonParserReadAheadInput(input);
+    	} else if(this.input instanceof LysonParserStreamInput)
+    		((LysonParserStreamInput) this.input).reset(input);
+    	else {
+    		this.input.close();
+    		this.input = new LysonParserStreamInput(input);
+    	}
+    	return restart();
+    }
+    
+    private LysonParser restart() {
+    	this.queue.clear();
+    	this.segment = null;
+    	this.documents = 0;
+    	this.boundary = false;
+    	return this;
+    }
+    
+    /**
+     * Defines the number of threads this LysonParser uses to parse a file holding 
+     * a JSON Array - The file is split into segments of consecutive elements which 
+     * are parsed concurrently, their events being dispatched by the calling thread. 
+     * Applies only to a LysonParser created from a {@link Path} or a {@link 
+     * FileChannel}: other inputs, and files holding a JSON Object, are parsed 
+     * sequentially. For a compressed file, it is the number of threads inflating 
+     * its members. The events of the parsed elements are never reused nor provided 
+     * with {@link LysonString} views, as they have to be kept until dispatched
+     * 
+     * @param parallelism the number of threads to be used
+     * 
+     * @return this LysonParser
+     */
+    public LysonParser withParallelism(int parallelism) {
+    	this.parallelism = Math.max(1, parallelism);
+    	if(this.input instanceof LysonParserInflatingInput)
+    		((LysonParserInflatingInput) this.input).parallelism(this.parallelism);
+    	return this;
+    }
+    
+    /**
+     * Defines whether the events of the elements of a JSON Array parsed in parallel 
+     * may be dispatched as soon as they have been read, rather than in document order - 
+     * The events of each element remain contiguous and ordered, and the opening and 
+     * closing events of the JSON Array remain the first and last ones
+     * 
+     * @param unorderedElements true if the elements can be dispatched out of order; 
+     * false otherwise
+     * 
+     * @return this LysonParser
+     * 
+     * @see #withParallelism(int)
+     */
+    public LysonParser withUnorderedElements(boolean unorderedElements) {
+    	this.unorderedElements = unorderedElements;
+    	return this;
     }
     
     /**
@@ -164,46 +686,85 @@ public class LysonParser {
     	int length = handlers==null?0:handlers.length;
     	if(length == 0) 
     		return;
-    	if(length > MAX_THREAD) 
-    		length = MAX_THREAD;
-    	
-    	LysonParserHandlerThreadExecutor executor = new LysonParserHandlerThreadExecutor(length);
     	
+    	LysonParserHandlerDispatcher dispatcher = dispatcher(this.reusableEvents || this.stringViews
+    		?LysonParserDispatchMode.INLINE:this.dispatchMode, this.executor, this.overflowPolicy, handlers);
+    	this.dispatcher = dispatcher;
     	try { 
-    		LinkedList<LysonParserHandlerCallable> callables = new LinkedList<>();
-    		Arrays.stream(handlers).forEach(h -> {
-    			callables.add(new LysonParserHandlerCallable(h));
-    		});
-    		while(true) {
-	            List<Future<Boolean>> futures = executor.invokeAll(callables, read());
-	            int offset = 0;
-	            for(int pos = 0; pos < futures.size(); pos++) {
-	            	try {
-						if(futures.get(pos).get().booleanValue()) 
-							continue;
-					} catch (ExecutionException e) {
-						if(LOG.isLoggable(Level.SEVERE)) 
-							LOG.log(Level.SEVERE,e.getMessage(),e);
-					}
-					callables.remove(pos-offset);
-					offset+=1;
-	            }
-	            if(callables.isEmpty())
-	            	break;
+    		if(this.parallelism > 1 && this.input instanceof LysonParserMappedInput 
+    			&& new LysonParserParallel((LysonParserMappedInput) this.input, this.parallelism, 
+    				this.executor, !this.unorderedElements, this.exactNumbers, this.lazyNumbers).parse(dispatcher))
+    			return;
+    		while(dispatcher.dispatch(read())) {
+    			if(dispatcher.skipping())
+    				skipChildren();
     		}
-        } catch (LysonParsingException e) {        	
-        	Arrays.stream(handlers).forEach(h -> {
-    			h.handle(e);
-    		});
-    		if(LOG.isLoggable(Level.SEVERE)) 
-    			LOG.log(Level.SEVERE,e.getMessage(),e);    		
+        } catch (LysonParsingException e) {
+        	fail(dispatcher, e, handlers);  		
         } catch (InterruptedException e) {
         	Thread.currentThread().interrupt();
 		} finally {
-			executor.shutdownNow();
+			dispatcher.close();
 		}
     }
     
+    /**
+     * Returns a {@link LysonSubscription} to the {@link ParsingEvent}s of this LysonParser, 
+     * which are only read as they are requested, and delivered to the {@link LysonParserHandler} 
+     * passed as parameter by the requesting thread - Nothing is read before the first request. 
+     * As with {@link #parse(LysonParserHandler...)}, the handler can skip the children of a 
+     * JSON Object or Array or stop the delivery, which cancels the subscription. The end of 
+     * the input is signaled by a null event, once requested
+     * 
+     * @param handler the {@link LysonParserHandler} the events are delivered to
+     * 
+     * @return the {@link LysonSubscription} to the events
+     */
+    public LysonSubscription subscribe(LysonParserHandler handler) {
+    	return subscribe(handler, null);
+    }
+    
+    /**
+     * Returns a {@link LysonSubscription} to the {@link ParsingEvent}s of this LysonParser, 
+     * which are only read as they are requested, and delivered to the {@link LysonParserHandler} 
+     * passed as parameter by the specified {@link Executor}, one task at a time - Nothing is 
+     * read before the first request
+     * 
+     * @param handler the {@link LysonParserHandler} the events are delivered to
+     * @param executor the {@link Executor} delivering the events, or null if they are 
+     * delivered by the requesting thread
+     * 
+     * @return the {@link LysonSubscription} to the events
+     * 
+     * @see #subscribe(LysonParserHandler)
+     */
+    public LysonSubscription subscribe(LysonParserHandler handler, Executor executor) {
+    	if(handler == null)
+    		throw new NullPointerException("Null LysonParserHandler");
+    	return new LysonSubscription(this, handler, executor);
+    }
+    
+    /**
+     * Returns a sequential {@link Stream} of the {@link ParsingEvent}s of this LysonParser, 
+     * which are read as the stream is consumed - so that short-circuiting operations stop 
+     * the parsing. An invalid input makes the terminal operation throw a {@link 
+     * LysonParsingException}. This LysonParser is closed when the end of its input is 
+     * reached, or when the stream is closed
+     * <p>
+     * When the stream is parallel, the thread splitting it reads batches of events ahead, 
+     * which are processed by other threads - a batch ending with a document when reading 
+     * multiple documents. The parsing itself remains sequential, and is not split when 
+     * events are reused or provide string views
+     * 
+     * @return the {@link Stream} of the parsing events
+     * 
+     * @see #withMultipleDocuments(boolean)
+     */
+    public Stream<ParsingEvent> events() {
+    	return StreamSupport.stream(new LysonParserSpliterator(this, !this.reusableEvents && !this.stringViews, 
+    		this.multipleDocuments), false).onClose(this::close);
+    }
+    
     /**
      * Returns true if the chars sequence read by this 
      * LysonParser describes a valid JSON Object or Array
@@ -221,28 +782,91 @@ public class LysonParser {
         return handler.valid();
     }
 
-    private ParsingEvent read() {
+    /**
+     * Marks the current nesting state of this LysonParser, so that it can be 
+     * restored if the reading of the next event has to be abandoned
+     */
+    void markState() {
+    	this.markedDepth = this.queue.size();
+    	this.markedTop = this.queue.peek();
+    	this.markedIndex = 0;
+    	if(this.markedTop instanceof ArrayOpeningEvent)
+    		this.markedIndex = ((ArrayOpeningEvent)this.markedTop).getInnerIndex();
+    }
+    
+    /**
+     * Restores the nesting state of this LysonParser as it was when last marked
+     */
+    void restoreState() {
+    	while(this.queue.size() > this.markedDepth)
+    		this.queue.pop();
+    	if(this.queue.size() < this.markedDepth)
+    		this.queue.push(this.markedTop);
+    	if(this.markedTop instanceof ArrayOpeningEvent)
+    		((ArrayOpeningEvent)this.markedTop).withInnerIndex(this.markedIndex);
+    }
+    
+    /**
+     * Moves to the closing of the JSON Object or Array last opened without reading 
+     * the nested events, which are not validated - The closing event is the next 
+     * one to be read
+     */
+    void skipChildren() {
+    	this.input.skip();
+    }
+    
+    /**
+     * Returns the number of JSON Objects and Arrays opened and not closed yet
+     * 
+     * @return the current nesting depth
+     */
+    int depth() {
+    	return this.segment == null ? this.queue.size() : this.queue.size() - 1;
+    }
+    
+    /**
+     * Closes the input of this LysonParser, whether its end has been reached 
+     * or not, and gives its buffers back to the pool they come from, so that 
+     * they can be reused by the next LysonParser created
+     */
+    public void close() {
+    	this.input.close();
+    }
+    
+    /**
+     * Reads and returns the next {@link ParsingEvent}, or null if the end of 
+     * the input has been reached
+     * 
+     * @return the next {@link ParsingEvent}
+     */
+    ParsingEvent read() {
         char c = nextChar();
         if(c == 0) {
-        	if(!this.queue.isEmpty()) {        		
+        	if(!this.queue.isEmpty() && this.queue.peek() != this.segment) {        		
         		ParsingEvent lastToken = this.queue.pop();        		
         		if (lastToken.getType() == ParsingEvent.JSON_ARRAY_OPENING ) 
-        			throw new LysonParsingException("Json array closing expected", line,column);
+        			throw new LysonParsingException("Json array closing expected", this.input.line, this.input.column);
         		
         		else if(lastToken.getType() == ParsingEvent.JSON_OBJECT_OPENING ) 
-        			throw new LysonParsingException("Json object closing expected", line,column);        	    
+        			throw new LysonParsingException("Json object closing expected", this.input.line, this.input.column);        	    
         	}
         	return null;
         }
         if (this.queue.isEmpty()) {
-            ParsingEvent co = checkOpening(c, "/", null);
-            if (co != null)
+        	if(this.multipleDocuments && this.documents > 0 && !this.boundary && (c == '{' || c == '[')) {
+        		this.boundary = true;
+        		return new LysonParsingEvent(ParsingEvent.JSON_DOCUMENT_BOUNDARY).withPath(ParsingPath.ROOT);
+        	}
+            ParsingEvent co = checkOpening(c, ParsingPath.ROOT, null, -1);
+            if (co != null) {
+            	this.documents+=1;
+            	this.boundary = false;
                 return co;
-            
+            }
             return null;
         }  
         ParsingEvent lastToken = this.queue.pop();        
-        String path = lastToken.getPath();
+        ParsingPath path = lastToken.getParsingPath();
         int index = 0;        
         
         if(lastToken instanceof ArrayOpeningEvent) 
@@ -277,7 +901,7 @@ public class LysonParser {
         return null;
     }
     
-    private ParsingEvent parseInJsonObject(char c, String path) {    	
+    private ParsingEvent parseInJsonObject(char c, ParsingPath path) {    	
         String key = null;
         Object value = null;
         switch (c) {
@@ -286,7 +910,7 @@ public class LysonParser {
                 key = readString(c);
                 break;
             default:
-                throw new LysonParsingException("Expected String delimiter", line, column);
+                throw new LysonParsingException("Expected String delimiter", this.input.line, this.input.column);
         }                
         c = nextChar();
         if (c == ':')
@@ -296,33 +920,27 @@ public class LysonParser {
             if (currentChar() == '>')
                 moveOn();                    	
             else 
-                throw new LysonParsingException("Expected a ':' or '=>' after a key", line, column);
+                throw new LysonParsingException("Expected a ':' or '=>' after a key", this.input.line, this.input.column);
         } else 
-            throw new LysonParsingException("Expected a ':' or '=>' after a key", line, column);
+            throw new LysonParsingException("Expected a ':' or '=>' after a key", this.input.line, this.input.column);
         
         c = nextChar();
         switch (c){
             case '"':
             case '\'':
-                value = readString(c);
+                value = this.stringViews?this.input.readStringView(c):readString(c);
                 break;
             default:
                 break;
         }
         if (value == null){
-            ParsingEvent co = checkOpening(c, path , key );
+            ParsingEvent co = checkOpening(c, path, key, -1);
             if (co != null) 
                 return co;
             
-            StringBuilder sb = new StringBuilder();
-            while (c >= ' ' && ",:]}/\\\"[{;=#".indexOf(c) < 0) {
-                sb.append(c);
-                moveOn();
-                c = currentChar();
-            }
-            String s = sb.toString().trim();
-            if (s.equals(""))
-                throw new LysonParsingException("Missing value", line, column);
+            CharSequence s = this.input.readValue();
+            if (s.length() == 0)
+                throw new LysonParsingException("Missing value", this.input.line, this.input.column);
             
             value = readObject(s);
         }
@@ -335,45 +953,32 @@ public class LysonParser {
             default:
                 break;
         }
-        ParsingEvent ev = new LysonParsingEvent(ParsingEvent.JSON_OBJECT_ITEM
-            ).withPath(new StringBuilder().append(path).append(path.endsWith("/")
-            	?"":"/").append(key).toString());    
-        return new KeyValueEventWrapper(ev).withValue(value).withKey(key);  
+        return objectItem(path, key, value);
     	
     }
     
-    private ParsingEvent parseInJsonArray(int index, char c, String path) {
+    private ParsingEvent parseInJsonArray(int index, char c, ParsingPath path) {
     	Object value = null;
         switch (c) {
             case ';':
             case ',':
             	moveOn();
-            	ParsingEvent ev = new LysonParsingEvent(ParsingEvent.JSON_ARRAY_ITEM
-	                ).withPath(new StringBuilder().append(path).append(path.endsWith("/")
-	                    ?"":"/").append("[").append(index).append("]").toString());
-            	return new ValuableEventWrapper(new IndexedEventWrapper(ev
-	                	).withIndex(index));
+            	return arrayItem(path, index, null);
             case '"':
             case '\'':
-                value = readString(c);
+                value = this.stringViews?this.input.readStringView(c):readString(c);
                 break;
             default:
                 break;
         }
     	if (value == null) {
-            ParsingEvent co = checkOpening(c, path, index);
+            ParsingEvent co = checkOpening(c, path, null, index);
             if (co != null) {
                 return co;
             }
-            StringBuilder sb = new StringBuilder();
-            while (c >= ' ' && ",:]}/\\\"[{;=#".indexOf(c) < 0) {
-                sb.append(c);
-                moveOn();
-                c = currentChar();
-            }
-            String s = sb.toString().trim();
-            if (s.equals("")) {
-                throw new LysonParsingException("Missing value", line, column);
+            CharSequence s = this.input.readValue();
+            if (s.length() == 0) {
+                throw new LysonParsingException("Missing value", this.input.line, this.input.column);
             }
             value = readObject(s);
         }
@@ -386,48 +991,44 @@ public class LysonParser {
             default:
             	break;
         }
-        ParsingEvent ev = new LysonParsingEvent(ParsingEvent.JSON_ARRAY_ITEM).withPath(
-        	new StringBuilder().append(path).append(path.endsWith("/")?"":"/").append("["
-        		).append(index).append("]").toString());                
-    	return new ValuableEventWrapper(new IndexedEventWrapper(ev
-            	).withIndex(index)).withValue(value);
+    	return arrayItem(path, index, value);
     }
 
     private void checkClosingArray() {
         if (this.queue.isEmpty()) {
-            throw new LysonParsingException("Unexpected array closing", line, column);
+            throw new LysonParsingException("Unexpected array closing", this.input.line, this.input.column);
         }
         ParsingEvent previousToken = this.queue.pop();
         if (previousToken.getType()!=ParsingEvent.JSON_ARRAY_OPENING) {
-            throw new LysonParsingException("Unexpected array closing", line, column);
+            throw new LysonParsingException("Unexpected array closing", this.input.line, this.input.column);
         }
     }
 
     private void checkClosingObject() {
         if (this.queue.isEmpty()) {
-            throw new LysonParsingException("Unexpected object closing", line,  column);
+            throw new LysonParsingException("Unexpected object closing", this.input.line, this.input.column);
         }
         ParsingEvent previousToken = this.queue.pop();
         if (previousToken.getType()!= ParsingEvent.JSON_OBJECT_OPENING) {
-            throw new LysonParsingException("Unexpected object closing", line, column);
+            throw new LysonParsingException("Unexpected object closing", this.input.line, this.input.column);
         }
     }
 
-    private ParsingEvent checkClosing(char c, String path) {
-        LysonParsingEvent cc = null;
+    private ParsingEvent checkClosing(char c, ParsingPath path) {
+        int tokenType = -1;
         switch (c) {
             case 0:
-                throw new LysonParsingException("Unexpected end of stream", line, column);
+                throw new LysonParsingException("Unexpected end of stream", this.input.line, this.input.column);
             case '}':
                 checkClosingObject();
-                cc = new LysonParsingEvent(ParsingEvent.JSON_OBJECT_CLOSING);
+                tokenType = ParsingEvent.JSON_OBJECT_CLOSING;
                 break;
             case ']':
                 checkClosingArray();
-                cc = new LysonParsingEvent(ParsingEvent.JSON_ARRAY_CLOSING);
+                tokenType = ParsingEvent.JSON_ARRAY_CLOSING;
                 break;
             default:
-                return cc;
+                return null;
         }
     	moveOn();
         c = nextChar();
@@ -439,10 +1040,36 @@ public class LysonParser {
             default:
                 break;
         }
-        return cc.withPath(path);
+        return closing(tokenType, path);
+    }
+    
+    private ParsingEvent objectItem(ParsingPath path, String key, Object value) {
+    	if(this.reusableEvents) {
+    		this.objectItem.withPath(path, key);
+    		return this.objectItemWrapper.withKey(key).withValue(value);
+    	}
+    	ParsingEvent ev = new LysonParsingEvent(ParsingEvent.JSON_OBJECT_ITEM).withPath(path, key);
+        return new KeyValueEventWrapper(ev).withValue(value).withKey(key);  
+    }
+    
+    private ParsingEvent arrayItem(ParsingPath path, int index, Object value) {
+    	if(this.reusableEvents) {
+    		this.arrayItem.withPath(path, index);
+    		this.arrayItemIndex.withIndex(index);
+    		return this.arrayItemWrapper.withValue(value);
+    	}
+    	ParsingEvent ev = new LysonParsingEvent(ParsingEvent.JSON_ARRAY_ITEM).withPath(path, index);
+    	return new ValuableEventWrapper(new IndexedEventWrapper(ev).withIndex(index)).withValue(value);
+    }
+    
+    private ParsingEvent closing(int tokenType, ParsingPath path) {
+    	if(this.reusableEvents) 
+    		return (tokenType == ParsingEvent.JSON_OBJECT_CLOSING
+    			?this.objectClosing:this.arrayClosing).withPath(path);
+    	return new LysonParsingEvent(tokenType).withPath(path);
     }
 
-    private ParsingEvent checkOpening(char c, String path, Object key) {
+    private ParsingEvent checkOpening(char c, ParsingPath path, String key, int index) {
         ParsingEvent o = null;
         int tokenType = -1;                      
         switch (c) {
@@ -456,19 +1083,11 @@ public class LysonParser {
             	return null;
         }
     	if(key != null) {
-	    	if(Number.class.isAssignableFrom(key.getClass())){
-	    		ParsingEvent ev = new LysonParsingEvent(tokenType
-	                ).withPath(new StringBuilder().append(path
-	                ).append(path.endsWith("/")?"":"/").append("["
-	                ).append((Number)key).append("]").toString());
-	    		o = new IndexedEventWrapper(ev).withIndex(((Number)key).intValue());
-	    	} else {	    		
-	    		ParsingEvent ev = new LysonParsingEvent(tokenType
-		            ).withPath(new StringBuilder().append(path
-		            ).append(path.endsWith("/")?"":"/").append(key
-		            ).toString());
-	    		o = new KeyValueEventWrapper(ev).withKey(String.valueOf(key));
-	    	}
+    		ParsingEvent ev = new LysonParsingEvent(tokenType).withPath(path.child(key));
+    		o = new KeyValueEventWrapper(ev).withKey(key);
+    	} else if(index >= 0) {
+    		ParsingEvent ev = new LysonParsingEvent(tokenType).withPath(path.child(index));
+    		o = new IndexedEventWrapper(ev).withIndex(index);
 	    }  else {
 	    	o = new LysonParsingEvent(tokenType).withPath(path);
 	    }
@@ -481,126 +1100,62 @@ public class LysonParser {
     }
 
     private char currentChar() {
-    	if(pos >= length) {
-    		length = -1;
-            try {
-                length = this.reader.read(buffer, 0, BUFFER_SIZE);
-                pos = 0;
-                if(length == -1) {
-                	this.reader.close();
-                	return EOF;
-                }
-            } catch (IOException exc) {
-            	LOG.log(Level.FINE, exc.getMessage(), exc);
-            	return 0;
-            }
-    	}
-        char c = buffer[pos];
-        return c;
+    	return this.input.current();
     }
 
     private char nextChar() {
-        for ( ; ; ) {
-            char c = currentChar();
-            if (c == 0 || c > ' ') {
-                return c;
-            }
-            if(c == '\n' || c == '\r') {
-            	line+=1;
-            	column = 0;
-            }
-            moveOn();
-        }
+    	return this.input.nextChar();
     }
 
     private void moveOn(){
-        pos+=1;
-        column+=1;
+    	this.input.moveOn();
     }
 
     private String readString(char q) throws LysonException {
-        char c;
-        StringBuilder sb = new StringBuilder();
-        for (; ; ) {
-            moveOn();
-            c = currentChar(); 
-            switch (c) {
-            	case EOF:
-                case '\n':
-                case '\r':
-                throw new LysonParsingException("Unterminated string", line, column);                	
-                case '\\':
-                    moveOn();
-                    c = currentChar();
-                    switch (c) {
-                        case 'b':
-                            sb.append('\b');
-                            break;
-                        case 't':
-                            sb.append('\t');
-                            break;
-                        case 'n':
-                            sb.append('\n');
-                            break;
-                        case 'f':
-                            sb.append('\f');
-                            break;
-                        case 'r':
-                            sb.append('\r');
-                            break;
-                        case 'u':
-                        	char[] unicode = new char[4];
-                            int offset = 0;
-                            while (offset < 4){
-                               moveOn();
-                               if((unicode[offset] = currentChar())== EOF) {
-                            	   break;
-                               }
-                               offset+=1;
-                            }
-                            if (offset < 4) {
-                              throw new LysonParsingException("Substring bounds error", line, column);
-                            }
-                            sb.append((char) Integer.parseInt(new String(unicode), 16));
-                            break;
-                        case '"':
-                        case '\'':
-                        case '\\':
-                        case '/':
-                            sb.append(c);
-                            break;
-                        default:
-                            throw new LysonParsingException("Illegal escape", line, column);
-                    }
-                    break;
-                default:
-                    if (c == q) {
-                    	moveOn();
-                        return sb.toString();
-                    }
-                    sb.append(c);
-            }
-        }
+    	return this.input.readString(q);
     }
 
-    private Object readObject(String s) {    	
-        if (s.equalsIgnoreCase("true")) {
+    //the CharSequence passed as parameter is a view over the input buffer, 
+    //converted without any intermediate String when it is a number
+    private Object readObject(CharSequence s) {    	
+        if (literal(s, "true")) {
             return Boolean.TRUE;
         }
-        if (s.equalsIgnoreCase("false")) {
+        if (literal(s, "false")) {
             return Boolean.FALSE;
         }
-        if (s.equalsIgnoreCase("null")) {
+        if (literal(s, "null")) {
             return null;
         }
         try {  	
      		char b = s.charAt(0);                
      		if ((b >= '0' && b <= '9') || b == '.' || b == '-' || b == '+') {                
-                return numberFromString(s);
+            	if(this.lazyNumbers) {
+            		LysonNumber number = LysonNumber.of(s, this.exactNumbers);
+            		if(number != null)
+            			return number;
+            	}
+                return LysonParserNumbers.parse(s, this.exactNumbers);
             }
  		} catch(Exception ex) {
  			LOG.log(Level.FINEST, ex.getMessage(), ex);
  		}
-        return s;
+        return s.toString();
     }  
+    
+    //returns true if the CharSequence passed as parameter holds the specified 
+    //lower case literal, whatever the case of its characters - as equalsIgnoreCase
+    private static boolean literal(CharSequence s, String literal) {
+    	int length = literal.length();
+    	if(s.length() != length)
+    		return false;
+    	for(int i = 0; i < length; i++) {
+    		char c = s.charAt(i);
+    		char l = literal.charAt(i);
+    		if(c != l && Character.toLowerCase(c) != l 
+    			&& Character.toUpperCase(c) != Character.toUpperCase(l))
+    			return false;
+    	}
+    	return true;
+    }
 }
\ No newline at end of file
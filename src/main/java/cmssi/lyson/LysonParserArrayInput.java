@@ -0,0 +1,66 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link LysonParserByteInput} reading a range of a bytes array, which can be moved 
+ * over successive ranges of the same array
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+final class LysonParserArrayInput extends LysonParserByteInput {
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param bytes the bytes array to be read
+	 */
+	LysonParserArrayInput(byte[] bytes) {
+		this.window = ByteBuffer.wrap(bytes);
+	}
+	
+	/**
+	 * Moves this LysonParserArrayInput over the range of bytes passed as parameter, 
+	 * starting again from line and column 0
+	 * 
+	 * @param from the index of the first byte of the range
+	 * @param to the index following the last byte of the range
+	 */
+	void range(int from, int to) {
+		restart(from, to);
+	}
+
+	@Override
+	boolean fill() {
+		return false;
+	}
+
+	@Override
+	void close() {
+		//nothing to release
+	}
+}
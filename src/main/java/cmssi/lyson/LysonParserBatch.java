@@ -0,0 +1,235 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import cmssi.lyson.event.ParsingEvent;
+import cmssi.lyson.exception.LysonException;
+import cmssi.lyson.exception.LysonParsingException;
+import cmssi.lyson.handler.LysonParserHandler;
+import cmssi.lyson.handler.LysonParserHandlerResult;
+import cmssi.lyson.handler.LysonParserOverflowPolicy;
+
+/**
+ * Parses a batch of inputs concurrently using a {@link ForkJoinPool}: the inputs are split in 
+ * halves until each task is left with a single one, so that idle threads steal the pending 
+ * halves of the busy ones. Each thread reuses its own {@link LysonParser}, reset over each 
+ * new input, and the events of each input are propagated to the {@link LysonParserHandler} 
+ * created for it, inline. Each input is closed once parsed, whether it succeeded or not
+ * 
+ * @param <T> the type of the parsed inputs
+ * @param <H> the type of the {@link LysonParserHandler}s
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+final class LysonParserBatch<T, H extends LysonParserHandler> {
+
+	private static final Logger LOG = Logger.getLogger(LysonParserBatch.class.getName());
+
+	/**
+	 * Handles the inputs of a range, splitting it as long as 
+	 * it holds more than one of them
+	 */
+	private final class Range extends RecursiveAction {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final int from;
+		private final int to;
+		
+		Range(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if(this.to - this.from == 1) {
+				parse(this.from);
+				return;
+			}
+			int middle = (this.from + this.to) >>> 1;
+			invokeAll(new Range(this.from, middle), new Range(middle, this.to));
+		}
+	}
+	
+	/**
+	 * Delegates to the {@link LysonParserHandler} of an input, 
+	 * recording the {@link LysonParsingException} if any
+	 */
+	private static final class Recorder implements LysonParserHandler {
+		
+		private final LysonParserHandler handler;
+		private LysonParsingException failure;
+		
+		Recorder(LysonParserHandler handler) {
+			this.handler = handler;
+		}
+
+		@Override
+		public boolean handle(ParsingEvent event) {
+			return this.handler.handle(event);
+		}
+		
+		@Override
+		public LysonParserHandlerResult handleEvent(ParsingEvent event) {
+			return this.handler.handleEvent(event);
+		}
+		
+		@Override
+		public LysonParserOverflowPolicy overflowPolicy() {
+			return this.handler.overflowPolicy();
+		}
+
+		@Override
+		public void handle(LysonParsingException exception) {
+			this.failure = exception;
+			this.handler.handle(exception);
+		}
+	}
+	
+	private final List<T> inputs;
+	private final Function<? super T, ? extends H> handlerFactory;
+	private final List<LysonParsingResult<T, H>> results;
+	private final Map<Thread, LysonParser> parsers;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param inputs the Collection of inputs to be parsed - {@link Path}s of files, or 
+	 * {@link Supplier}s of {@link Reader}s or of UTF-8 encoded {@link InputStream}s
+	 * @param handlerFactory the Function creating the {@link LysonParserHandler} of 
+	 * each input
+	 */
+	LysonParserBatch(Collection<? extends T> inputs, Function<? super T, ? extends H> handlerFactory) {
+		this.inputs = new ArrayList<>(inputs);
+		this.handlerFactory = handlerFactory;
+		this.results = new ArrayList<>(Collections.nCopies(this.inputs.size(), null));
+		this.parsers = new ConcurrentHashMap<>();
+	}
+	
+	/**
+	 * Parses the inputs using the {@link ForkJoinPool} passed as parameter, and returns 
+	 * their {@link LysonParsingResult}s, in the order of the inputs
+	 * 
+	 * @param pool the {@link ForkJoinPool} to be used
+	 * 
+	 * @return the List of {@link LysonParsingResult}s
+	 */
+	List<LysonParsingResult<T, H>> parse(ForkJoinPool pool) {
+		if(this.inputs.isEmpty())
+			return this.results;
+		try {
+			pool.invoke(new Range(0, this.inputs.size()));
+		} finally {
+			this.parsers.values().forEach(LysonParser::close);
+			this.parsers.clear();
+		}
+		return this.results;
+	}
+	
+	private void parse(int index) {
+		T input = this.inputs.get(index);
+		H handler = null;
+		LysonException failure = null;
+		Object source = null;
+		try {
+			handler = this.handlerFactory.apply(input);
+			source = open(input);
+			Recorder recorder = new Recorder(handler);
+			parser(input, source).parse(recorder);
+			failure = recorder.failure;
+		} catch(LysonException e) {
+			failure = e;
+		} catch(RuntimeException e) {
+			failure = new LysonException(e);
+		} finally {
+			//the parser of the thread keeps its buffers, not its input
+			close(source);
+		}
+		this.results.set(index, new LysonParsingResult<>(input, handler, failure));
+	}
+	
+	//returns the source of the input passed as parameter - A file is read as a stream, as 
+	//only a stream lets the LysonParser of the thread be reset over it, reusing its buffers
+	private Object open(T input) {
+		if(input instanceof Path) {
+			try {
+				return Files.newInputStream((Path) input);
+			} catch (IOException e) {
+				throw new LysonException(e);
+			}
+		} else if(input instanceof Supplier) 
+			return ((Supplier<?>) input).get();
+		return input;
+	}
+	
+	private static void close(Object source) {
+		if(!(source instanceof AutoCloseable))
+			return;
+		try {
+			((AutoCloseable) source).close();
+		} catch (Exception e) {
+			if(LOG.isLoggable(Level.FINE)) 
+				LOG.log(Level.FINE, e.getMessage(), e);
+		}
+	}
+	
+	//returns the LysonParser of the current thread, reset over the source passed as parameter
+	private LysonParser parser(T input, Object source) {
+		LysonParser parser = this.parsers.get(Thread.currentThread());
+		if(source instanceof Reader) {
+			if(parser == null) 
+				parser = new LysonParser((Reader) source);
+			else
+				parser.reset((Reader) source);
+		} else if(source instanceof InputStream) {
+			if(parser == null) 
+				parser = new LysonParser((InputStream) source);
+			else
+				parser.reset((InputStream) source);
+		} else
+			throw new LysonException(String.format("Unsupported input : %s", input));
+		this.parsers.put(Thread.currentThread(), parser);
+		return parser;
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Small pool of the {@link LysonParser#BUFFER_SIZE} sized buffers used by the inputs 
+ * reading a Reader or an InputStream, so that parsers created one after the other, 
+ * once closed, do not allocate new ones. Buffers released while the pool is full are 
+ * left to the garbage collector
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+final class LysonParserBuffers {
+	
+	static final int POOL_SIZE = 16;
+	
+	private static final ArrayBlockingQueue<char[]> CHARS = new ArrayBlockingQueue<>(POOL_SIZE);
+	private static final ArrayBlockingQueue<byte[]> BYTES = new ArrayBlockingQueue<>(POOL_SIZE);
+	
+	private LysonParserBuffers() {}
+	
+	/**
+	 * Returns a chars buffer from the pool, or a new one if the pool is empty
+	 * 
+	 * @return a {@link LysonParser#BUFFER_SIZE} sized chars buffer
+	 */
+	static char[] chars() {
+		char[] chars = CHARS.poll();
+		return chars == null ? new char[LysonParser.BUFFER_SIZE] : chars;
+	}
+	
+	/**
+	 * Returns the chars buffer passed as parameter to the pool
+	 * 
+	 * @param chars the released chars buffer
+	 */
+	static void release(char[] chars) {
+		if(chars != null && chars.length == LysonParser.BUFFER_SIZE)
+			CHARS.offer(chars);
+	}
+
+	/**
+	 * Returns a bytes buffer from the pool, or a new one if the pool is empty
+	 * 
+	 * @return a {@link LysonParser#BUFFER_SIZE} sized bytes buffer
+	 */
+	static byte[] bytes() {
+		byte[] bytes = BYTES.poll();
+		return bytes == null ? new byte[LysonParser.BUFFER_SIZE] : bytes;
+	}
+	
+	/**
+	 * Returns the bytes buffer passed as parameter to the pool
+	 * 
+	 * @param bytes the released bytes buffer
+	 */
+	static void release(byte[] bytes) {
+		if(bytes != null && bytes.length == LysonParser.BUFFER_SIZE)
+			BYTES.offer(bytes);
+	}
+}
@@ -0,0 +1,440 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import cmssi.lyson.exception.LysonParsingException;
+
+/**
+ * {@link LysonParserInput} tokenizing UTF-8 encoded bytes held by a {@link ByteBuffer} window. 
+ * White spaces, structural characters, numbers and literals are scanned as ASCII bytes, multi-bytes
+ * sequences only being decoded when met
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+abstract class LysonParserByteInput extends LysonParserInput {
+	
+	private static final int REPLACEMENT = 0xFFFD;
+	
+	ByteBuffer window;
+	int pos = 0;
+	int limit = 0;
+	
+	//decoded multi-bytes sequence at cachedPos
+	private int cachedPos = -1;
+	private int cachedCodePoint;
+	private int cachedWidth;
+	//true when positioned on the low surrogate of a supplementary character
+	private boolean low = false;
+	
+	int markedPos = 0;
+	private int markedLine;
+	private int markedColumn;
+
+	/**
+	 * Makes new bytes available in the window, keeping the not consumed ones from 
+	 * pos to limit and updating both pos and limit accordingly 
+	 * 
+	 * @return true if new bytes have been made available; false if the end of the 
+	 * input has been reached
+	 */
+	abstract boolean fill();
+
+	/**
+	 * Marks the current position, so that it can be restored if the reading of 
+	 * the next event has to be abandoned
+	 */
+	void mark() {
+		this.markedPos = pos;
+		this.markedLine = line;
+		this.markedColumn = column;
+	}
+	
+	/**
+	 * Restores the position, line and column as they were when last marked
+	 */
+	void reset() {
+		this.cachedPos = -1;
+		this.low = false;
+		pos = this.markedPos;
+		line = this.markedLine;
+		column = this.markedColumn;
+	}
+	
+	/**
+	 * Makes this LysonParserByteInput start over at the position passed as parameter, 
+	 * with the specified limit, from line and column 0
+	 * 
+	 * @param from the position of the next byte to be read
+	 * @param to the position following the last available byte
+	 */
+	void restart(int from, int to) {
+		this.cachedPos = -1;
+		this.low = false;
+		pos = from;
+		limit = to;
+		this.markedPos = from;
+		line = 0;
+		column = 0;
+		skipDepth = 0;
+	}
+	
+	//forgets the decoded multi-bytes sequence whose position may have changed
+	final void invalidate() {
+		this.cachedPos = -1;
+	}
+	
+	//fills the window, forgetting the decoded multi-bytes sequence
+	//whose position may have changed
+	final boolean refill() {
+		this.cachedPos = -1;
+		return fill();
+	}
+	
+	//makes the window hold at least n not consumed bytes if possible
+	private boolean ensure(int n) {
+		while(limit - pos < n) {
+			if(!refill()) 
+				return false;
+		}
+		return true;
+	}
+	
+	//returns the code point of the multi-bytes sequence starting at pos
+	private int codePoint() {
+		if(cachedPos == pos) 
+			return cachedCodePoint;
+		int b0 = window.get(pos) & 0xFF;
+		int need;
+		int cp;
+		if(b0 >= 0xC2 && b0 <= 0xDF) {
+			need = 1;
+			cp = b0 & 0x1F;
+		} else if(b0 >= 0xE0 && b0 <= 0xEF) {
+			need = 2;
+			cp = b0 & 0x0F;
+		} else if(b0 >= 0xF0 && b0 <= 0xF4) {
+			need = 3;
+			cp = b0 & 0x07;
+		} else 
+			return cache(REPLACEMENT, 1);
+		
+		ensure(need + 1);
+		int k = 1;
+		for(; k <= need && pos + k < limit; k++) {
+			int b = window.get(pos + k) & 0xFF;
+			if((b & 0xC0) != 0x80) 
+				break;
+			cp = (cp << 6) | (b & 0x3F);
+		}
+		if(k <= need 
+			|| (need == 2 && (cp < 0x800 || (cp >= 0xD800 && cp <= 0xDFFF)))
+			|| (need == 3 && (cp < 0x10000 || cp > 0x10FFFF))) 
+			return cache(REPLACEMENT, k);
+		return cache(cp, k);
+	}
+	
+	private int cache(int codePoint, int width) {
+		this.cachedPos = pos;
+		this.cachedCodePoint = codePoint;
+		this.cachedWidth = width;
+		return codePoint;
+	}
+	
+	//returns the character, or the current surrogate, of the multi-bytes 
+	//sequence starting at pos
+	private char decoded() {
+		int cp = codePoint();
+		if(cp < Character.MIN_SUPPLEMENTARY_CODE_POINT) 
+			return (char) cp;
+		return low ? Character.lowSurrogate(cp) : Character.highSurrogate(cp);
+	}
+	
+	@Override
+	char current() {
+		if(pos >= limit && !refill()) 
+			return LysonParser.EOF;
+		byte b = window.get(pos);
+		if(b >= 0) 
+			return (char) b;
+		return decoded();
+	}
+
+	@Override
+	void moveOn() {
+		column+=1;
+		if(pos >= limit) 
+			return;
+		if(window.get(pos) >= 0) {
+			pos+=1;
+			return;
+		}
+		int cp = codePoint();
+		if(cp >= Character.MIN_SUPPLEMENTARY_CODE_POINT && !low) {
+			low = true;
+			return;
+		}
+		low = false;
+		pos += cachedWidth;
+	}
+
+	@Override
+	char nextChar() {
+		for ( ; ; ) {
+			if(pos >= limit && !refill()) 
+				return LysonParser.EOF;
+			byte b = window.get(pos);
+			if(b < 0) 
+				return decoded();
+			if(b == 0 || b > ' ') 
+				return (char) b;
+			if(b == '\n' || b == '\r') {
+				line+=1;
+				column = 0;
+			}
+			pos+=1;
+			column+=1;
+			//indentation crossed a word at a time
+			while(pos + LysonParserWords.WORD <= limit && LysonParserWords.spaces(window.getLong(pos))) {
+				pos+=LysonParserWords.WORD;
+				column+=LysonParserWords.WORD;
+			}
+		}
+	}
+	
+	@Override
+	String readString(char q) {
+		moveOn();
+		int start = pos;
+		run(q);
+		//ASCII run without escape, copied at once
+		while(pos < limit) {
+			byte b = window.get(pos);
+			if(b == q) {
+				int length = pos - start;
+				String s = null;
+				if(window.hasArray())
+					s = new String(window.array(), window.arrayOffset() + start, length, 
+						StandardCharsets.ISO_8859_1);
+				else {
+					copy(start, length);
+					s = new String(this.chars, 0, length);
+				}
+				pos+=1;
+				column+=1;
+				return s;
+			}
+			if(b < ' ' || b == '\\') 
+				break;
+			pos+=1;
+			column+=1;
+		}
+		int n = readRest(q, copy(start, pos - start));
+		return new String(this.chars, 0, n);
+	}
+
+	@Override
+	LysonString readStringView(char q) {
+		moveOn();
+		int start = pos;
+		run(q);
+		while(pos < limit) {
+			byte b = window.get(pos);
+			if(b == q || b < ' ' || b == '\\') 
+				break;
+			pos+=1;
+			column+=1;
+		}
+		int n = readRest(q, copy(start, pos - start));
+		return this.view.with(this.chars, 0, n);
+	}
+	
+	//moves over the words of ASCII string characters without 
+	//escape starting at the current position
+	private void run(char q) {
+		long quotes = LysonParserWords.repeat(q);
+		int p = pos;
+		for(; p + LysonParserWords.WORD <= limit; p+=LysonParserWords.WORD) {
+			long w = window.getLong(p);
+			if(!LysonParserWords.ascii(w) || LysonParserWords.stringEnd(w, quotes))
+				break;
+		}
+		column+=p - pos;
+		pos = p;
+	}
+	
+	//copies the length ASCII bytes from start into the chars buffer
+	private int copy(int start, int length) {
+		if(length > this.chars.length)
+			this.chars = new char[Math.max(length, this.chars.length << 1)];
+		for(int i = 0; i < length; i++)
+			this.chars[i] = (char) window.get(start + i);
+		return length;
+	}
+	
+	@Override
+	int readRest(char q, int n) {
+		for (; ; ) {
+			if(pos >= limit && !refill()) 
+				throw new LysonParsingException("Unterminated string", line, column);
+			byte b = window.get(pos);
+			if(b < 0) {
+				n = append(n, decoded());
+				moveOn();
+				continue;
+			}
+			char c = (char) b;
+			if(c == q) {
+				moveOn();
+				return n;
+			}
+			switch (c) {
+				case LysonParser.EOF:
+				case '\n':
+				case '\r':
+					throw new LysonParsingException("Unterminated string", line, column);
+				case '\\':
+					moveOn();
+					c = readEscape();
+					break;
+				default:
+					break;
+			}
+			n = append(n, c);
+			moveOn();
+		}
+	}
+	
+	@Override
+	void skip() {
+		if(skipDepth == 0) {
+			skipDepth = 1;
+			skipQuote = 0;
+			skipEscape = false;
+			skipStart = true;
+		}
+		int depth = skipDepth;
+		int quote = skipQuote;
+		boolean escape = skipEscape;
+		boolean start = skipStart;
+		for(;;) {
+			if(pos >= limit) {
+				//keep the state in case the skipping is interrupted
+				skipDepth = depth;
+				skipQuote = (char) quote;
+				skipEscape = escape;
+				skipStart = start;
+				if(!refill()) {
+					skipDepth = 0;
+					return;
+				}
+			}
+			if(quote != 0 && !escape) {
+				//string content crossed a word at a time
+				long quotes = LysonParserWords.repeat((char) quote);
+				int p = pos;
+				while(p + LysonParserWords.WORD <= limit 
+					&& !LysonParserWords.stringEnd(window.getLong(p), quotes))
+					p+=LysonParserWords.WORD;
+				column+=p - pos;
+				pos = p;
+				if(pos >= limit)
+					continue;
+			}
+			byte b = window.get(pos);
+			if(quote != 0) {
+				if(escape)
+					escape = false;
+				else if(b == '\\')
+					escape = true;
+				else if(b == quote) {
+					quote = 0;
+					start = false;
+				}
+			} else {
+				switch(b) {
+					case '{':
+					case '[':
+						depth+=1;
+						start = true;
+						break;
+					case '}':
+					case ']':
+						if(--depth == 0) {
+							skipDepth = 0;
+							return;
+						}
+						start = false;
+						break;
+					case '"':
+					case '\'':
+						if(start)
+							quote = b;
+						break;
+					case ',':
+					case ':':
+					case ';':
+					case '=':
+					case '>':
+						start = true;
+						break;
+					default:
+						//multi-bytes sequences are part of unquoted values
+						if(b > ' ' || b < 0)
+							start = false;
+				}
+			}
+			if(b == '\n' || b == '\r') {
+				line+=1;
+				column = 0;
+			}
+			pos+=1;
+			column+=1;
+		}
+	}
+	
+	@Override
+	CharSequence readValue() {
+		int n = 0;
+		for (; ; ) {
+			if(pos >= limit && !refill()) 
+				break;
+			byte b = window.get(pos);
+			if(b < 0) {
+				n = append(n, decoded());
+				moveOn();
+				continue;
+			}
+			if(b < ' ' || DELIMITERS[b]) 
+				break;
+			n = append(n, (char) b);
+			pos+=1;
+			column+=1;
+		}
+		return trimmed(n);
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link LysonParserByteInput} reading the chunks of bytes handed over by another thread - 
+ * The bytes not consumed from a chunk are copied in front of the next one, in the room 
+ * left at its head, so that switching chunks never shifts their content
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+abstract class LysonParserChunkInput extends LysonParserByteInput {
+	
+	//room left at the head of each chunk for the bytes not consumed 
+	//from the previous one - never more than a UTF-8 sequence
+	static final int HEAD = 8;
+	
+	/**
+	 * A bytes buffer filled from {@link #HEAD} to its limit
+	 */
+	static final class Chunk {
+		
+		final byte[] bytes;
+		final ByteBuffer buffer;
+		final boolean recycled;
+		int limit;
+		boolean eof;
+		
+		Chunk(byte[] bytes, boolean recycled) {
+			this.bytes = bytes;
+			this.buffer = ByteBuffer.wrap(bytes);
+			this.recycled = recycled;
+		}
+	}
+	
+	private Chunk current;
+	boolean eof;
+	
+	/**
+	 * Returns the next filled {@link Chunk}, waiting for it if necessary - 
+	 * Returns null if this input has been closed
+	 * 
+	 * @return the next filled {@link Chunk}, or null
+	 */
+	abstract Chunk next();
+	
+	/**
+	 * Gives the consumed {@link Chunk} passed as parameter back to the 
+	 * thread filling them
+	 * 
+	 * @param chunk the consumed {@link Chunk}
+	 */
+	abstract void give(Chunk chunk);
+
+	@Override
+	boolean fill() {
+		if(this.eof)
+			return false;
+		Chunk next = next();
+		if(next == null) {
+			this.eof = true;
+			return false;
+		}
+		int remaining = limit - pos;
+		Chunk previous = this.current;
+		if(remaining > HEAD) {
+			//more unconsumed bytes than expected: merged into a chunk of their own
+			Chunk merged = new Chunk(new byte[remaining + next.limit], false);
+			for(int i = 0; i < remaining; i++)
+				merged.bytes[i] = window.get(pos + i);
+			System.arraycopy(next.bytes, HEAD, merged.bytes, remaining, next.limit - HEAD);
+			merged.limit = remaining + next.limit - HEAD;
+			merged.eof = next.eof;
+			recycle(next);
+			next = merged;
+			pos = 0;
+		} else {
+			for(int i = 0; i < remaining; i++)
+				next.bytes[HEAD - remaining + i] = window.get(pos + i);
+			pos = HEAD - remaining;
+		}
+		invalidate();
+		this.current = next;
+		window = next.buffer;
+		limit = next.limit;
+		if(previous != null)
+			recycle(previous);
+		this.eof = next.eof;
+		return limit - pos > remaining;
+	}
+	
+	private void recycle(Chunk chunk) {
+		if(chunk.recycled)
+			give(chunk);
+	}
+}
@@ -0,0 +1,54 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Provides the {@link ExecutorService} calling the handlers when none has been 
+ * defined - the {@link LysonParserHandlerThreadExecutor#shared() shared} thread 
+ * pool. A Java 21 runtime uses virtual threads instead
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+final class LysonParserDefaultExecutor {
+
+	/**
+	 * System property defining whether the handlers are called by virtual 
+	 * threads when they are available - true by default
+	 */
+	static final String VIRTUAL_THREADS_PROPERTY = "cmssi.lyson.executor.virtual";
+
+	private LysonParserDefaultExecutor() {}
+	
+	/**
+	 * Returns the default {@link ExecutorService} calling the handlers
+	 * 
+	 * @return the default {@link ExecutorService}
+	 */
+	static ExecutorService get() {
+		return LysonParserHandlerThreadExecutor.shared();
+	}
+}
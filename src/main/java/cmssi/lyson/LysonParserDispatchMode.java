@@ -0,0 +1,76 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+/**
+ * Defines the way a {@link LysonParser} dispatches the {@link cmssi.lyson.event.ParsingEvent}s
+ * it produces to the set of {@link cmssi.lyson.handler.LysonParserHandler}s it has been given
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+public enum LysonParserDispatchMode {
+	
+	/**
+	 * Handlers are called one after the other, directly on the parsing thread - This is 
+	 * the default mode when only one handler is registered
+	 */
+	INLINE,
+	
+	/**
+	 * Handlers are called concurrently by a thread pool, the parsing thread waiting for all 
+	 * of them to be done before reading the next event
+	 */
+	THREADED,
+	
+	/**
+	 * Events are published into a ring buffer, each handler consuming them at its own pace 
+	 * using a dedicated thread - The parsing thread only waits when the slowest handler is
+	 * lagging a whole ring buffer behind. This is the default mode when several handlers are 
+	 * registered. If the executor does not start a thread for each handler in time, they are 
+	 * called as {@link #THREADED} ones. When all the handlers may ask to skip the children of 
+	 * a JSON Object or Array, the parsing thread waits for them on each opening event instead
+	 */
+	PIPELINED,
+	
+	/**
+	 * Each handler is given its own bounded queue of pending events, consumed by its own 
+	 * thread - When a queue is full, the {@link cmssi.lyson.handler.LysonParserOverflowPolicy} 
+	 * of its handler defines whether the parsing thread waits, drops the oldest event, or 
+	 * detaches the handler, so that a slow best-effort handler does not hold the others back. 
+	 * As with {@link #PIPELINED} handlers, the executor has to start their threads in time, 
+	 * and the parsing thread waits on opening events for handlers which may all skip
+	 */
+	QUEUED,
+	
+	/**
+	 * The time each handler takes to handle an event is measured: the cheap ones are called 
+	 * directly on the parsing thread, and only the expensive ones, taking longer than handing 
+	 * a task over to another thread (20 microseconds, unless defined otherwise in nanoseconds by 
+	 * the "cmssi.lyson.executor.offload" system property), are called concurrently by a thread 
+	 * pool - The handlers are re-balanced as their costs change, the parsing thread waiting 
+	 * for all of them to be done before reading the next event
+	 */
+	ADAPTIVE;
+}
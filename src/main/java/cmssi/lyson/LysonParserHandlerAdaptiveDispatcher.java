@@ -0,0 +1,219 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import cmssi.lyson.event.ParsingEvent;
+import cmssi.lyson.handler.LysonParserHandler;
+
+/**
+ * {@link LysonParserHandlerDispatcher} measuring the time each {@link LysonParserHandler} takes 
+ * to handle an event, calling the cheap ones directly on the parsing thread and handing only the 
+ * expensive ones to an {@link ExecutorService} - a handler being expensive when it takes longer 
+ * than handing a task over to another thread, i.e. {@value #OFFLOAD_NANOS_DEFAULT} nanoseconds 
+ * unless defined otherwise by the {@value #OFFLOAD_NANOS_PROPERTY} system property. The handlers 
+ * are re-balanced periodically, as their costs change, and as with the {@link 
+ * LysonParserHandlerThreadDispatcher} the parsing thread waits for all of them to be done before 
+ * returning
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+final class LysonParserHandlerAdaptiveDispatcher implements LysonParserHandlerDispatcher {
+
+	private static final Logger LOG = Logger.getLogger(LysonParserHandlerAdaptiveDispatcher.class.getName());
+
+	//the cost of handlers called inline is measured once every SAMPLING events
+	private static final int SAMPLING = 16;
+	//number of events between two re-balancing
+	private static final int PERIOD = 1024;
+	
+	static final String OFFLOAD_NANOS_PROPERTY = "cmssi.lyson.executor.offload";
+	static final long OFFLOAD_NANOS_DEFAULT = 20_000L;
+	//time needed to hand a task over to another thread and to get its result
+	private static final long OFFLOAD_NANOS = Long.getLong(OFFLOAD_NANOS_PROPERTY, 
+		OFFLOAD_NANOS_DEFAULT).longValue();
+	
+	//exponentially weighted moving average, giving 1/8 of the weight to the last sample
+	private static long average(long average, long sample) {
+		return average + ((sample - average) >> 3);
+	}
+
+	/**
+	 * Wraps a {@link LysonParserHandlerCallable} and measures the cost 
+	 * of its calls
+	 */
+	private static final class Handler implements Callable<Boolean> {
+		
+		final LysonParserHandlerCallable callable;
+		//average handling time, in nanoseconds
+		long cost;
+		boolean offloaded;
+		boolean carryOn;
+		
+		FutureTask<Boolean> future;
+		
+		Handler(LysonParserHandler handler) {
+			this.callable = new LysonParserHandlerCallable(handler);
+		}
+
+		@Override
+		public Boolean call() throws Exception {
+			long start = System.nanoTime();
+			try {
+				return this.callable.call();
+			} finally {
+				this.cost = average(this.cost, System.nanoTime() - start);
+			}
+		}
+	}
+	
+	private final ExecutorService executor;
+	private final List<Handler> handlers;
+	private long count;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param executor the {@link ExecutorService} calling the expensive handlers, 
+	 * which is not shut down by the dispatcher
+	 * @param handlers the {@link LysonParserHandler}s to which dispatching 
+	 * the {@link ParsingEvent}s
+	 */
+	LysonParserHandlerAdaptiveDispatcher(ExecutorService executor, LysonParserHandler... handlers) {
+		this.executor = executor;
+		this.handlers = new ArrayList<>(handlers.length);
+		for(LysonParserHandler h : handlers) 
+			this.handlers.add(new Handler(h));
+	}
+	
+	//offloads the handlers costing more than a hand over - keeping at least the 
+	//most expensive one inline, so that the parsing thread does not only wait 
+	private void rebalance() {
+		Handler heaviest = null;
+		boolean inline = false;
+		for(int pos = 0; pos < this.handlers.size(); pos++) {
+			Handler handler = this.handlers.get(pos);
+			//hysteresis : an offloaded handler gets back inline when twice cheaper
+			handler.offloaded = handler.cost > (handler.offloaded?OFFLOAD_NANOS >> 1:OFFLOAD_NANOS);
+			inline |= !handler.offloaded;
+			if(heaviest == null || handler.cost > heaviest.cost)
+				heaviest = handler;
+		}
+		if(!inline && heaviest != null)
+			heaviest.offloaded = false;
+		if(LOG.isLoggable(Level.FINE)) {
+			for(int pos = 0; pos < this.handlers.size(); pos++) 
+				LOG.log(Level.FINE, String.format("Handler %s : %sns per event, %s", pos, 
+					this.handlers.get(pos).cost, this.handlers.get(pos).offloaded?"offloaded":"inline"));
+		}
+	}
+	
+	//waits for the offloaded handler passed as parameter, running it if still queued
+	private boolean await(Handler handler) throws InterruptedException {
+		FutureTask<Boolean> future = handler.future;
+		handler.future = null;
+		if(!future.isDone() && this.executor instanceof ThreadPoolExecutor 
+			&& ((ThreadPoolExecutor) this.executor).remove(future))
+			future.run();
+		try {
+			return future.get().booleanValue();
+		} catch (ExecutionException | CancellationException e) {
+			if(LOG.isLoggable(Level.SEVERE)) 
+				LOG.log(Level.SEVERE,e.getMessage(),e);
+			return false;
+		}
+	}
+	
+	@Override
+	public boolean dispatch(ParsingEvent event) throws InterruptedException {
+		boolean sampling = this.count % SAMPLING == 0;
+		int size = this.handlers.size();
+		try {
+			for(int pos = 0; pos < size; pos++) {
+				Handler handler = this.handlers.get(pos);
+				handler.callable.setParsingEvent(event);
+				handler.carryOn = false;
+				if(handler.offloaded) {
+					handler.future = new FutureTask<>(handler);
+					this.executor.execute(handler.future);
+				}
+			}
+			for(int pos = 0; pos < size; pos++) {
+				Handler handler = this.handlers.get(pos);
+				if(handler.offloaded) 
+					continue;
+				try {
+					handler.carryOn = sampling?handler.call().booleanValue():handler.callable.call().booleanValue();
+				} catch(Exception e) {
+					if(LOG.isLoggable(Level.SEVERE)) 
+						LOG.log(Level.SEVERE,e.getMessage(),e);
+				}
+			}
+			for(int pos = 0; pos < size; pos++) {
+				Handler handler = this.handlers.get(pos);
+				if(handler.future != null) 
+					handler.carryOn = await(handler);
+			}
+		} catch(InterruptedException e) {
+			for(Handler handler : this.handlers) {
+				if(handler.future != null) 
+					handler.future.cancel(true);
+				handler.future = null;
+			}
+			throw e;
+		}
+		for(int pos = size - 1; pos >= 0; pos--) {
+			if(!this.handlers.get(pos).carryOn) 
+				this.handlers.remove(pos);
+		}
+		if(++this.count % PERIOD == 0) 
+			rebalance();
+		return !this.handlers.isEmpty();
+	}
+
+	@Override
+	public boolean skipping() {
+		for(Handler handler : this.handlers) {
+			if(!handler.callable.isSkipping())
+				return false;
+		}
+		return !this.handlers.isEmpty();
+	}
+
+	@Override
+	public void close() {
+		//the executor outlives the dispatcher
+	}
+}
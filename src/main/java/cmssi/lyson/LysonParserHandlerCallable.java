@@ -31,7 +31,9 @@ import cmssi.lyson.handler.LysonParserHandler;
 
 /**
  * Extended {@link Callable} wrapping a {@link LysonParserHandler} and a {@link ParsingEvent} to be set
- * before a call and parameterizing the resulting {@link LysonParserHandler}'s handle method invocation
+ * before a call and parameterizing the resulting {@link LysonParserHandler}'s handle method invocation.
+ * The events nested in a JSON Object or Array whose children the handler asked to skip are not 
+ * passed to it
  * 
  * @author cmunilla@cmssi.fr
  * @version 0.6
@@ -39,18 +41,45 @@ import cmssi.lyson.handler.LysonParserHandler;
 public final class LysonParserHandlerCallable implements Callable<Boolean> {
 	
 	private ParsingEvent parsingEvent;
-	private LysonParserHandler handler;
+	private final LysonParserHandlerState state;
+	private boolean stopped;
 
 	public LysonParserHandlerCallable(LysonParserHandler handler){
-		this.handler = handler;
+		this.state = new LysonParserHandlerState(handler);
 	}
 	
 	public void setParsingEvent(ParsingEvent parsingEvent) {
 		this.parsingEvent = parsingEvent;
 	}
 	
+	/**
+	 * Returns true if the wrapped {@link LysonParserHandler} asked to skip the 
+	 * children of a JSON Object or Array, whose nested events are not passed 
+	 * to it until the matching closing one
+	 * 
+	 * @return whether the wrapped handler is skipping events
+	 */
+	public boolean isSkipping() {
+		return this.state.skipping();
+	}
+	
+	/**
+	 * Returns true if the wrapped {@link LysonParserHandler} asked not to be 
+	 * notified of any other event
+	 * 
+	 * @return whether the wrapped handler is stopped
+	 */
+	public boolean isStopped() {
+		return this.stopped;
+	}
+	
 	@Override
 	public Boolean call() throws Exception {
-		return this.handler.handle(this.parsingEvent);
+		if(this.stopped)
+			return Boolean.FALSE;
+		if(!this.state.accept(this.parsingEvent))
+			return Boolean.TRUE;
+		this.stopped = !this.state.handle(this.parsingEvent);
+		return !this.stopped;
 	}
 }
\ No newline at end of file
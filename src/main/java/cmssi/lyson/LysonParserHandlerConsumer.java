@@ -0,0 +1,163 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Long-lived task following the events dispatched to a {@link cmssi.lyson.handler.LysonParserHandler} 
+ * until the end of the parsing - As it may wait for events for as long as the parsing lasts, the 
+ * parsing thread makes sure that the executor it is submitted to actually runs it: the consumers 
+ * of a dispatcher all have to be started in time, or they are abandoned and the handlers are 
+ * called {@link LysonParserDispatchMode#THREADED} instead. The {@link 
+ * LysonParserHandlerThreadExecutor#shared() shared} executor, which queues its tasks, is replaced 
+ * by a Lyson-wide pool that never does, and whose size is defined by the same {@value 
+ * LysonParserHandlerThreadExecutor#POOL_SIZE_PROPERTY} system property
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+abstract class LysonParserHandlerConsumer implements Runnable {
+
+	private static final Logger LOG = Logger.getLogger(LysonParserHandlerConsumer.class.getName());
+	
+	private static final long START_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final long KEEP_ALIVE_SECONDS = 60L;
+	
+	//consumer states
+	private static final int PENDING = 0;
+	private static final int STARTED = 1;
+	private static final int ABANDONED = 2;
+	
+	private static final class Consumers {
+		
+		private static final ExecutorService INSTANCE = consumers(Integer.getInteger(
+			LysonParserHandlerThreadExecutor.POOL_SIZE_PROPERTY, LysonParser.MAX_THREAD).intValue());
+	}
+	
+	//a consumer is never queued : it is rejected when all threads are busy
+	private static ExecutorService consumers(int poolSize) {
+		AtomicInteger count = new AtomicInteger();
+		return new ThreadPoolExecutor(0, Math.max(1, poolSize), KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, 
+			new SynchronousQueue<Runnable>(), r -> {
+				Thread thread = new Thread(r, "LysonParser-consumer-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+		});
+	}
+	
+	/**
+	 * Returns the {@link ExecutorService} running the consumers instead of the one passed as 
+	 * parameter - the Lyson-wide consumers pool if it is the {@link 
+	 * LysonParserHandlerThreadExecutor#shared() shared} one, the executor itself otherwise
+	 * 
+	 * @param executor the {@link ExecutorService} calling the handlers
+	 * 
+	 * @return the {@link ExecutorService} running the consumers
+	 */
+	static ExecutorService executor(ExecutorService executor) {
+		if(executor == LysonParserHandlerThreadExecutor.shared())
+			return Consumers.INSTANCE;
+		return executor;
+	}
+	
+	/**
+	 * Submits the consumers passed as parameter to the {@link #executor(ExecutorService) executor} 
+	 * running them, and waits for all of them to be started - Returns false if the executor has 
+	 * rejected one of them, has run one on the parsing thread, or has not started one in time, in 
+	 * which case the ones not started yet are abandoned and will never consume anything
+	 * 
+	 * @param consumers the LysonParserHandlerConsumers to be started
+	 * @param executor the {@link ExecutorService} calling the handlers
+	 * 
+	 * @return true if all the consumers have been started; false otherwise
+	 */
+	static boolean start(LysonParserHandlerConsumer[] consumers, ExecutorService executor) {
+		ExecutorService service = executor(executor);
+		boolean started = true;
+		for(int i = 0; started && i < consumers.length; i++) {
+			try {
+				service.execute(consumers[i]);
+			} catch(RejectedExecutionException e) {
+				started = false;
+			}
+		}
+		long deadline = System.nanoTime() + START_NANOS;
+		int attempt = 0;
+		for(int i = 0; started && i < consumers.length;) {
+			int state = consumers[i].state.get();
+			if(state == STARTED) 
+				i++;
+			else if(state == ABANDONED || System.nanoTime() - deadline > 0)
+				started = false;
+			else
+				attempt = LysonParserHandlerRingDispatcher.backOff(attempt);
+		}
+		if(started) 
+			return true;
+		for(int i = 0; i < consumers.length; i++) 
+			consumers[i].state.compareAndSet(PENDING, ABANDONED);
+		if(LOG.isLoggable(Level.FINE)) 
+			LOG.log(Level.FINE, "Parsing events consumers not hosted by their executor, handlers called threaded");
+		return false;
+	}
+	
+	private final AtomicInteger state;
+	private final Thread publisher;
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param publisher the parsing Thread, which cannot consume its own events
+	 */
+	LysonParserHandlerConsumer(Thread publisher) {
+		this.state = new AtomicInteger(PENDING);
+		this.publisher = publisher;
+	}
+	
+	@Override
+	public final void run() {
+		if(Thread.currentThread() == this.publisher) {
+			//run by a saturated executor on the parsing thread, 
+			//which cannot consume its own events
+			this.state.compareAndSet(PENDING, ABANDONED);
+			return;
+		}
+		if(this.state.compareAndSet(PENDING, STARTED)) 
+			consume();
+	}
+	
+	/**
+	 * Follows the dispatched events until the end of the parsing - It is called 
+	 * once, by the thread of the executor having started this consumer in time
+	 */
+	abstract void consume();
+}
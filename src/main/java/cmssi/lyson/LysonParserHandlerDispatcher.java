@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.util.Collections;
+import java.util.List;
+
+import cmssi.lyson.event.ParsingEvent;
+
+/**
+ * A LysonParserHandlerDispatcher is in charge of propagating the {@link ParsingEvent}s read 
+ * by a {@link LysonParser} to a set of {@link cmssi.lyson.handler.LysonParserHandler}s, and 
+ * of keeping track of the ones that still want to be notified
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+interface LysonParserHandlerDispatcher {
+
+	/**
+	 * Propagates the {@link ParsingEvent} passed as parameter to the still active 
+	 * handlers, and returns true if at least one of them asked to carry on the 
+	 * parsing
+	 * 
+	 * @param event the {@link ParsingEvent} to be dispatched
+	 * 
+	 * @return 
+	 * <ul>
+	 * 	<li>true if the parsing has to be carried on</li>
+	 * 	<li>false otherwise</li>
+	 * </ul>
+	 * 
+	 * @throws InterruptedException if interrupted while waiting for the handlers
+	 */
+	boolean dispatch(ParsingEvent event) throws InterruptedException;
+	
+	/**
+	 * Returns true if all the still active handlers asked to skip the children of 
+	 * the JSON Object or Array they are in, so that the parser can move to its 
+	 * closing without reading the nested events
+	 * 
+	 * @return whether the nested events can be skipped
+	 */
+	boolean skipping();
+	
+	/**
+	 * Returns the {@link LysonParserHandlerMetrics} of the handlers consuming their own 
+	 * queue of events, if any - By default, an empty list
+	 * 
+	 * @return the List of {@link LysonParserHandlerMetrics} of the handlers
+	 */
+	default List<LysonParserHandlerMetrics> metrics() {
+		return Collections.emptyList();
+	}
+	
+	/**
+	 * Waits for the already dispatched {@link ParsingEvent}s to be handled and 
+	 * releases the resources held by this LysonParserHandlerDispatcher - Calling
+	 * this method more than once has no additional effect
+	 */
+	void close();
+}
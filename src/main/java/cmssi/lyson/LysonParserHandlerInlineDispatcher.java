@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import cmssi.lyson.event.ParsingEvent;
+import cmssi.lyson.handler.LysonParserHandler;
+
+/**
+ * {@link LysonParserHandlerDispatcher} calling the {@link LysonParserHandler}s directly
+ * on the parsing thread, in their registration order
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+final class LysonParserHandlerInlineDispatcher implements LysonParserHandlerDispatcher {
+
+	private static final Logger LOG = Logger.getLogger(LysonParserHandlerInlineDispatcher.class.getName());
+	
+	private final List<LysonParserHandlerState> handlers;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param handlers the {@link LysonParserHandler}s to which dispatching 
+	 * the {@link ParsingEvent}s
+	 */
+	LysonParserHandlerInlineDispatcher(LysonParserHandler... handlers) {
+		this.handlers = new ArrayList<>(handlers.length);
+		for(LysonParserHandler h : handlers) 
+			this.handlers.add(new LysonParserHandlerState(h));
+	}
+	
+	@Override
+	public boolean dispatch(ParsingEvent event) {
+		int pos = 0;
+		while(pos < this.handlers.size()) {
+			LysonParserHandlerState state = this.handlers.get(pos);
+			if(!state.accept(event)) {
+				pos+=1;
+				continue;
+			}
+			try {
+				if(state.handle(event)) {
+					pos+=1;
+					continue;
+				}
+			} catch(RuntimeException e) {
+				if(LOG.isLoggable(Level.SEVERE)) 
+					LOG.log(Level.SEVERE,e.getMessage(),e);
+			}
+			this.handlers.remove(pos);
+		}
+		return !this.handlers.isEmpty();
+	}
+
+	@Override
+	public boolean skipping() {
+		for(int pos = 0; pos < this.handlers.size(); pos++) {
+			if(!this.handlers.get(pos).skipping())
+				return false;
+		}
+		return !this.handlers.isEmpty();
+	}
+
+	@Override
+	public void close() {
+		this.handlers.clear();
+	}
+}
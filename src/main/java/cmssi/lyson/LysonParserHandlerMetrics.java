@@ -0,0 +1,144 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import cmssi.lyson.handler.LysonParserHandler;
+import cmssi.lyson.handler.LysonParserOverflowPolicy;
+
+/**
+ * Snapshot of the progress of a {@link LysonParserHandler} consuming its queue of pending 
+ * {@link cmssi.lyson.event.ParsingEvent}s, when the events are dispatched using the {@link 
+ * LysonParserDispatchMode#QUEUED} mode
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+public final class LysonParserHandlerMetrics {
+
+	private final LysonParserHandler handler;
+	private final LysonParserOverflowPolicy overflowPolicy;
+	private final long lag;
+	private final long maximumLag;
+	private final long delivered;
+	private final long dropped;
+	private final boolean failed;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param handler the {@link LysonParserHandler} the metrics apply to
+	 * @param overflowPolicy the {@link LysonParserOverflowPolicy} of the handler
+	 * @param lag the number of events pending in the queue of the handler
+	 * @param maximumLag the highest number of events pending so far
+	 * @param delivered the number of events taken from the queue by the handler
+	 * @param dropped the number of events discarded before reaching the handler
+	 * @param failed whether the handler has been detached
+	 */
+	LysonParserHandlerMetrics(LysonParserHandler handler, LysonParserOverflowPolicy overflowPolicy, 
+		long lag, long maximumLag, long delivered, long dropped, boolean failed) {
+		this.handler = handler;
+		this.overflowPolicy = overflowPolicy;
+		this.lag = lag;
+		this.maximumLag = maximumLag;
+		this.delivered = delivered;
+		this.dropped = dropped;
+		this.failed = failed;
+	}
+	
+	/**
+	 * Returns the {@link LysonParserHandler} these metrics apply to
+	 * 
+	 * @return the {@link LysonParserHandler} 
+	 */
+	public LysonParserHandler getHandler() {
+		return this.handler;
+	}
+	
+	/**
+	 * Returns the {@link LysonParserOverflowPolicy} applying to the handler
+	 * 
+	 * @return the {@link LysonParserOverflowPolicy} of the handler
+	 */
+	public LysonParserOverflowPolicy getOverflowPolicy() {
+		return this.overflowPolicy;
+	}
+
+	/**
+	 * Returns the number of events the handler lags behind the parser, 
+	 * i.e. still pending in its queue
+	 * 
+	 * @return the current lag of the handler
+	 */
+	public long getLag() {
+		return this.lag;
+	}
+
+	/**
+	 * Returns the highest number of events the handler has lagged behind 
+	 * the parser
+	 * 
+	 * @return the maximum lag of the handler
+	 */
+	public long getMaximumLag() {
+		return this.maximumLag;
+	}
+
+	/**
+	 * Returns the number of events taken from its queue by the handler, 
+	 * including the ones nested in skipped JSON Objects or Arrays
+	 * 
+	 * @return the number of delivered events
+	 */
+	public long getDelivered() {
+		return this.delivered;
+	}
+
+	/**
+	 * Returns the number of events discarded because the queue of the 
+	 * handler was full
+	 * 
+	 * @return the number of dropped events
+	 */
+	public long getDropped() {
+		return this.dropped;
+	}
+
+	/**
+	 * Returns true if the handler has been detached because its queue 
+	 * was full
+	 * 
+	 * @return whether the handler has failed
+	 */
+	public boolean isFailed() {
+		return this.failed;
+	}
+	
+	@Override
+	public String toString() {
+		return new StringBuilder().append(this.handler).append(" [").append(this.overflowPolicy
+			).append("] lag=").append(this.lag).append(", maximumLag=").append(this.maximumLag
+			).append(", delivered=").append(this.delivered).append(", dropped=").append(this.dropped
+			).append(", failed=").append(this.failed).toString();
+	}
+}
@@ -0,0 +1,319 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import cmssi.lyson.event.ParsingEvent;
+import cmssi.lyson.exception.LysonParsingException;
+import cmssi.lyson.handler.LysonParserHandler;
+import cmssi.lyson.handler.LysonParserOverflowPolicy;
+
+/**
+ * {@link LysonParserHandlerDispatcher} giving each {@link LysonParserHandler} its own bounded 
+ * single-producer / single-consumer queue of pending {@link ParsingEvent}s, consumed by its own 
+ * thread, which its {@link ExecutorService} has to start in time for the dispatcher to be used 
+ * - see {@link LysonParserHandlerConsumer}. When a queue is full, the {@link 
+ * LysonParserOverflowPolicy} of its handler defines whether the parsing thread waits for it, 
+ * drops its oldest pending event, or detaches it. As the parsing thread may move the head of 
+ * a queue to drop an event, the consumer claims each event by moving the head itself. A consumer 
+ * whose queue stays empty parks until the parsing thread queues an event, or closes the dispatcher. 
+ * When all the handlers may skip the children of a JSON Object or Array, the parsing thread waits 
+ * for them to have handled each opening event, so that the children they all skip are fast-scanned
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+final class LysonParserHandlerQueueDispatcher implements LysonParserHandlerDispatcher {
+
+	private static final Logger LOG = Logger.getLogger(LysonParserHandlerQueueDispatcher.class.getName());
+	
+	/**
+	 * A Consumer takes the events out of the queue of the {@link LysonParserHandler} 
+	 * it wraps and propagates them to it
+	 */
+	private final class Consumer extends LysonParserHandlerConsumer {
+		
+		private final LysonParserHandlerState state;
+		private final LysonParserOverflowPolicy policy;
+		private final ParsingEvent[] slots;
+		private final int mask;
+		//sequence of the next event to be taken, moved by both sides
+		private final AtomicLong head;
+		//sequence of the next event to be queued, moved by the parsing thread only
+		private final AtomicLong tail;
+		
+		//the consumer thread parked while the queue is empty
+		private volatile Thread waiter;
+		private volatile boolean active;
+		private volatile boolean failed;
+		//sequence following the last handled event
+		private volatile long handled;
+		private volatile long delivered;
+		private volatile long dropped;
+		private volatile long maximumLag;
+		
+		Consumer(LysonParserHandler handler, LysonParserOverflowPolicy policy, int size, Thread publisher) {
+			super(publisher);
+			this.state = new LysonParserHandlerState(handler);
+			LysonParserOverflowPolicy overflowPolicy = handler.overflowPolicy();
+			this.policy = overflowPolicy == null?policy:overflowPolicy;
+			this.slots = new ParsingEvent[size];
+			this.mask = size - 1;
+			this.head = new AtomicLong();
+			this.tail = new AtomicLong();
+			this.active = true;
+		}
+		
+		//queues the event passed as parameter on the parsing thread, and returns 
+		//false if the handler is not active anymore
+		boolean offer(ParsingEvent event) throws InterruptedException {
+			if(!this.active || this.failed) 
+				return false;
+			long next = this.tail.get();
+			//the end of the parsing is never dropped, nor makes the handler fail
+			LysonParserOverflowPolicy overflow = event == null?LysonParserOverflowPolicy.BLOCK:this.policy;
+			int attempt = 0;
+			for(long first = this.head.get(); next - first >= this.slots.length; first = this.head.get()) {
+				if(!this.active) 
+					return false;
+				switch(overflow) {
+					case DROP_OLDEST:
+						if(this.head.compareAndSet(first, first + 1))
+							this.dropped += 1;
+						break;
+					case FAIL_FAST:
+						this.failed = true;
+						wakeUp();
+						if(LOG.isLoggable(Level.WARNING)) 
+							LOG.log(Level.WARNING, String.format("Handler %s detached : %s pending events", 
+								this.state.handler, next - first));
+						return false;
+					case BLOCK:
+					default:
+						if(Thread.interrupted()) 
+							throw new InterruptedException();
+						attempt = LysonParserHandlerRingDispatcher.backOff(attempt);
+				}
+			}
+			this.slots[(int)(next & this.mask)] = event;
+			//the tail is published before the waiter is read, and the consumer 
+			//registers as waiter before reading the tail : one sees the other
+			this.tail.set(next + 1);
+			wakeUp();
+			long lag = next + 1 - this.head.get();
+			if(lag > this.maximumLag) 
+				this.maximumLag = lag;
+			return true;
+		}
+		
+		@Override
+		void consume() {
+			try {
+				int attempt = 0;
+				while(!this.failed) {
+					long first = this.head.get();
+					if(first == this.tail.get()) {
+						if(closing) 
+							return;
+						if(attempt < LysonParserHandlerRingDispatcher.BACK_OFF_ATTEMPTS) {
+							attempt = LysonParserHandlerRingDispatcher.backOff(attempt);
+							continue;
+						}
+						this.waiter = Thread.currentThread();
+						if(this.head.get() == this.tail.get() && !closing && !this.failed) 
+							LockSupport.park(this);
+						this.waiter = null;
+						continue;
+					}
+					attempt = 0;
+					ParsingEvent event = this.slots[(int)(first & this.mask)];
+					//the event may have been dropped meanwhile
+					if(!this.head.compareAndSet(first, first + 1)) 
+						continue;
+					this.delivered += 1;
+					boolean carryOn = false;
+					try {
+						carryOn = !this.state.accept(event) || this.state.handle(event);
+					} catch(RuntimeException e) {
+						if(LOG.isLoggable(Level.SEVERE)) 
+							LOG.log(Level.SEVERE,e.getMessage(),e);
+					}
+					if(event == null || !carryOn) 
+						return;
+					this.handled = first + 1;
+				}
+				this.state.handler.handle(new LysonParsingException(String.format(
+					"Handler lagging more than %s events behind the parser", this.slots.length)));
+			} finally {
+				this.active = false;
+				actives.decrementAndGet();
+			}
+		}
+		
+		//unparks the consumer thread if it is waiting for an event
+		void wakeUp() {
+			Thread thread = this.waiter;
+			if(thread != null) 
+				LockSupport.unpark(thread);
+		}
+		
+		LysonParserHandlerMetrics metrics() {
+			long first = this.head.get();
+			return new LysonParserHandlerMetrics(this.state.handler, this.policy, Math.max(0L, 
+				this.tail.get() - first), this.maximumLag, this.delivered, this.dropped, this.failed);
+		}
+	}
+	
+	private final Consumer[] consumers;
+	private final AtomicInteger actives;
+	private final boolean started;
+	private final boolean skippable;
+	
+	private volatile boolean closing;
+	private ParsingEvent last;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param capacity the minimum capacity of the queue of each handler, rounded 
+	 * up to the next power of two
+	 * @param policy the {@link LysonParserOverflowPolicy} applying to the handlers 
+	 * which do not define their own
+	 * @param executor the {@link ExecutorService} running the consumers, which 
+	 * is not shut down by the dispatcher
+	 * @param handlers the {@link LysonParserHandler}s to which dispatching 
+	 * the {@link ParsingEvent}s
+	 */
+	LysonParserHandlerQueueDispatcher(int capacity, LysonParserOverflowPolicy policy, 
+		ExecutorService executor, LysonParserHandler... handlers) {
+		int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+		this.actives = new AtomicInteger(handlers.length);
+		this.consumers = new Consumer[handlers.length];
+		Thread publisher = Thread.currentThread();
+		boolean skippable = true;
+		for(int i = 0; i < handlers.length; i++) {
+			this.consumers[i] = new Consumer(handlers[i], policy == null
+				?LysonParserOverflowPolicy.BLOCK:policy, size, publisher);
+			skippable = skippable && this.consumers[i].state.skippable();
+		}
+		this.skippable = skippable;
+		this.started = LysonParserHandlerConsumer.start(this.consumers, executor);
+		if(!this.started) {
+			//the consumers already started have nothing to wait for
+			this.closing = true;
+			for(int i = 0; i < handlers.length; i++) 
+				this.consumers[i].wakeUp();
+		}
+	}
+	
+	/**
+	 * Returns whether the {@link ExecutorService} passed to the constructor has started 
+	 * all the consumers - If it has not, this dispatcher cannot be used
+	 * 
+	 * @return true if all the consumers have been started; false otherwise
+	 */
+	boolean started() {
+		return this.started;
+	}
+	
+	//waits for all consumers to be done
+	private void await() throws InterruptedException {
+		int attempt = 0;
+		while(this.actives.get() > 0) {
+			if(Thread.interrupted()) 
+				throw new InterruptedException();
+			attempt = LysonParserHandlerRingDispatcher.backOff(attempt);
+		}
+	}
+	
+	@Override
+	public boolean dispatch(ParsingEvent event) throws InterruptedException {
+		this.last = event;
+		boolean carryOn = false;
+		for(int i = 0; i < this.consumers.length; i++) {
+			if(this.consumers[i].offer(event)) 
+				carryOn = true;
+		}
+		if(event == null) {
+			//end of parsing : wait for all consumers to be done
+			await();
+			return false;
+		}
+		return carryOn;
+	}
+
+	@Override
+	public boolean skipping() {
+		//handlers run behind the parser, which only waits for them to 
+		//handle an opening event if they may all skip its children
+		ParsingEvent event = this.last;
+		if(!this.skippable || event == null 
+			|| (event.getType() & ParsingEvent.OPENING) != ParsingEvent.OPENING) 
+			return false;
+		boolean skipping = false;
+		for(int i = 0; i < this.consumers.length; i++) {
+			Consumer consumer = this.consumers[i];
+			int attempt = 0;
+			while(consumer.active && !consumer.failed && consumer.handled < consumer.tail.get()) {
+				if(Thread.currentThread().isInterrupted()) 
+					return false;
+				attempt = LysonParserHandlerRingDispatcher.backOff(attempt);
+			}
+			if(!consumer.active || consumer.failed) 
+				continue;
+			if(!consumer.state.skipping()) 
+				return false;
+			skipping = true;
+		}
+		return skipping;
+	}
+	
+	@Override
+	public List<LysonParserHandlerMetrics> metrics() {
+		List<LysonParserHandlerMetrics> metrics = new ArrayList<>(this.consumers.length);
+		for(int i = 0; i < this.consumers.length; i++) 
+			metrics.add(this.consumers[i].metrics());
+		return metrics;
+	}
+
+	@Override
+	public void close() {
+		this.closing = true;
+		for(int i = 0; i < this.consumers.length; i++) 
+			this.consumers[i].wakeUp();
+		try {
+			await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
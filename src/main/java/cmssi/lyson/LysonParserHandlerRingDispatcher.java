@@ -0,0 +1,263 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import cmssi.lyson.event.ParsingEvent;
+import cmssi.lyson.handler.LysonParserHandler;
+
+/**
+ * {@link LysonParserHandlerDispatcher} publishing the {@link ParsingEvent}s into a pre-allocated 
+ * ring buffer, each {@link LysonParserHandler} being called by its own thread which follows the 
+ * published events using its own sequence cursor. The parsing thread only waits when the slowest 
+ * still active handler lags more than the ring buffer capacity behind it. The consumers are run by 
+ * an {@link ExecutorService}, which has to start all of them in time for the dispatcher to be used 
+ * - see {@link LysonParserHandlerConsumer}. When all the handlers may skip the children of a JSON 
+ * Object or Array, the parsing thread waits for them to have handled each opening event, so that 
+ * the children they all skip are fast-scanned
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+final class LysonParserHandlerRingDispatcher implements LysonParserHandlerDispatcher {
+
+	private static final Logger LOG = Logger.getLogger(LysonParserHandlerRingDispatcher.class.getName());
+	
+	private static final int SPINS = 100;
+	private static final int YIELDS = 100;
+	private static final long PARK_NANOS = 50_000L;
+	
+	/**
+	 * Number of attempts after which {@link #backOff(int)} parks the waiting thread
+	 */
+	static final int BACK_OFF_ATTEMPTS = SPINS + YIELDS;
+
+	//progressively backs off while waiting for a sequence to move
+	static int backOff(int attempt) {
+		if(attempt < SPINS) {
+			return attempt + 1;
+		} else if(attempt < SPINS + YIELDS) {
+			Thread.yield();
+			return attempt + 1;
+		}
+		LockSupport.parkNanos(PARK_NANOS);
+		return attempt;
+	}
+
+	/**
+	 * A Consumer follows the published events of the ring buffer and 
+	 * propagates them to the {@link LysonParserHandler} it wraps
+	 */
+	private final class Consumer extends LysonParserHandlerConsumer {
+		
+		private final LysonParserHandlerState state;
+		private final AtomicLong sequence;
+		private volatile boolean active;
+		
+		Consumer(LysonParserHandler handler, Thread publisher) {
+			super(publisher);
+			this.state = new LysonParserHandlerState(handler);
+			this.sequence = new AtomicLong(-1L);
+			this.active = true;
+		}
+		
+		@Override
+		void consume() {
+			long next = 0L;
+			try {
+				while(this.active) {
+					long available = cursor.get();
+					int attempt = 0;
+					while(available < next) {
+						if(closing) 
+							return;
+						attempt = backOff(attempt);
+						available = cursor.get();
+					}
+					for(; next <= available; next++) {
+						ParsingEvent event = ring[(int)(next & mask)];
+						boolean carryOn = false;
+						try {
+							carryOn = !this.state.accept(event) || this.state.handle(event);
+						} catch(RuntimeException e) {
+							if(LOG.isLoggable(Level.SEVERE)) 
+								LOG.log(Level.SEVERE,e.getMessage(),e);
+						}
+						if(event == null || !carryOn) 
+							return;
+						this.sequence.lazySet(next);
+					}
+				}
+			} finally {
+				this.active = false;
+				this.sequence.set(Long.MAX_VALUE);
+				actives.decrementAndGet();
+			}
+		}
+	}
+	
+	private final ParsingEvent[] ring;
+	private final int mask;
+	private final AtomicLong cursor;
+	private final AtomicInteger actives;
+	private final Consumer[] consumers;
+	private final boolean started;
+	private final boolean skippable;
+	
+	private volatile boolean closing;
+	private long published;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param capacity the minimum capacity of the ring buffer, rounded up 
+	 * to the next power of two
+	 * @param executor the {@link ExecutorService} running the consumers, which 
+	 * is not shut down by the dispatcher
+	 * @param handlers the {@link LysonParserHandler}s to which dispatching 
+	 * the {@link ParsingEvent}s
+	 */
+	LysonParserHandlerRingDispatcher(int capacity, ExecutorService executor, LysonParserHandler... handlers) {
+		int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+		this.ring = new ParsingEvent[size];
+		this.mask = size - 1;
+		this.cursor = new AtomicLong(-1L);
+		this.published = -1L;
+		this.actives = new AtomicInteger(handlers.length);
+		this.consumers = new Consumer[handlers.length];
+		Thread publisher = Thread.currentThread();
+		boolean skippable = true;
+		for(int i = 0; i < handlers.length; i++) {
+			this.consumers[i] = new Consumer(handlers[i], publisher);
+			skippable = skippable && this.consumers[i].state.skippable();
+		}
+		this.skippable = skippable;
+		this.started = LysonParserHandlerConsumer.start(this.consumers, executor);
+		//the consumers already started have nothing to wait for
+		if(!this.started) 
+			this.closing = true;
+	}
+	
+	/**
+	 * Returns whether the {@link ExecutorService} passed to the constructor has started 
+	 * all the consumers - If it has not, this dispatcher cannot be used
+	 * 
+	 * @return true if all the consumers have been started; false otherwise
+	 */
+	boolean started() {
+		return this.started;
+	}
+	
+	//returns the sequence of the slowest still active consumer
+	private long minimumSequence() {
+		long minimum = Long.MAX_VALUE;
+		for(int i = 0; i < this.consumers.length; i++) {
+			long sequence = this.consumers[i].sequence.get();
+			if(sequence < minimum) 
+				minimum = sequence;
+		}
+		return minimum;
+	}
+	
+	@Override
+	public boolean dispatch(ParsingEvent event) throws InterruptedException {
+		if(this.actives.get() == 0) 
+			return false;
+		long next = this.published + 1;
+		int attempt = 0;
+		//back pressure : wait for the slowest consumer to free the slot
+		while(next - minimumSequence() > this.ring.length) {
+			if(Thread.interrupted()) 
+				throw new InterruptedException();
+			if(this.actives.get() == 0) 
+				return false;
+			attempt = backOff(attempt);
+		}
+		this.ring[(int)(next & this.mask)] = event;
+		this.published = next;
+		this.cursor.lazySet(next);
+		if(event == null) {
+			//end of parsing : wait for all consumers to be done
+			attempt = 0;
+			while(this.actives.get() > 0) {
+				if(Thread.interrupted()) 
+					throw new InterruptedException();
+					attempt = backOff(attempt);
+			}
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public boolean skipping() {
+		//handlers run behind the parser, which only waits for them to 
+		//handle an opening event if they may all skip its children
+		if(!this.skippable || this.published < 0) 
+			return false;
+		ParsingEvent event = this.ring[(int)(this.published & this.mask)];
+		if(event == null || (event.getType() & ParsingEvent.OPENING) != ParsingEvent.OPENING) 
+			return false;
+		int attempt = 0;
+		while(minimumSequence() < this.published) {
+			if(Thread.currentThread().isInterrupted() || this.actives.get() == 0) 
+				return false;
+			attempt = backOff(attempt);
+		}
+		boolean skipping = false;
+		for(int i = 0; i < this.consumers.length; i++) {
+			if(!this.consumers[i].active) 
+				continue;
+			if(!this.consumers[i].state.skipping()) 
+				return false;
+			skipping = true;
+		}
+		return skipping;
+	}
+
+	@Override
+	public void close() {
+		this.closing = true;
+		//the executor outlives the dispatcher : wait for the consumers only
+		int attempt = 0;
+		long logged = System.nanoTime();
+		while(this.actives.get() > 0) {
+			if(Thread.currentThread().isInterrupted()) 
+				return;
+			if(System.nanoTime() - logged > TimeUnit.SECONDS.toNanos(1)) {
+				logged = System.nanoTime();
+				if(LOG.isLoggable(Level.FINE)) 
+					LOG.log(Level.FINE,"Waiting for parsing events handlers termination");
+			}
+			attempt = backOff(attempt);
+		}
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import cmssi.lyson.event.ParsingEvent;
+import cmssi.lyson.handler.LysonParserHandler;
+import cmssi.lyson.handler.LysonParserHandlerResult;
+
+/**
+ * Wraps a {@link LysonParserHandler} and keeps track of the JSON Object or Array whose 
+ * children it asked to skip, filtering out the {@link ParsingEvent}s nested in it
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+final class LysonParserHandlerState {
+
+	final LysonParserHandler handler;
+	//whether the handler defines its own handleEvent method
+	private final boolean skippable;
+	
+	//nesting depth inside the skipped JSON Object or Array, 0 if none
+	private int depth;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param handler the wrapped {@link LysonParserHandler}
+	 */
+	LysonParserHandlerState(LysonParserHandler handler) {
+		this.handler = handler;
+		boolean skippable = true;
+		try {
+			skippable = handler.getClass().getMethod("handleEvent", ParsingEvent.class
+				).getDeclaringClass() != LysonParserHandler.class;
+		} catch(NoSuchMethodException | SecurityException e) {
+			//assume it may skip
+		}
+		this.skippable = skippable;
+	}
+	
+	/**
+	 * Returns true if the {@link ParsingEvent} passed as parameter has to be 
+	 * handled, false if it is nested in a skipped JSON Object or Array - The 
+	 * end of the parsing and the closing of the skipped JSON Object or Array 
+	 * are always handled
+	 * 
+	 * @param event the {@link ParsingEvent} to be filtered
+	 * 
+	 * @return whether the specified {@link ParsingEvent} has to be handled
+	 */
+	boolean accept(ParsingEvent event) {
+		if(this.depth == 0 || event == null)
+			return true;
+		int type = event.getType();
+		if((type & ParsingEvent.OPENING) == ParsingEvent.OPENING)
+			this.depth+=1;
+		else if((type & ParsingEvent.CLOSING) == ParsingEvent.CLOSING)
+			this.depth-=1;
+		return this.depth == 0;
+	}
+	
+	/**
+	 * Returns true if the wrapped handler is skipping the children of a JSON 
+	 * Object or Array
+	 * 
+	 * @return whether the wrapped handler is skipping events
+	 */
+	boolean skipping() {
+		return this.depth > 0;
+	}
+	
+	/**
+	 * Returns true if the wrapped handler may ask to skip the children of a JSON 
+	 * Object or Array, which is never the case if it does not override {@link 
+	 * LysonParserHandler#handleEvent(ParsingEvent)}
+	 * 
+	 * @return whether the wrapped handler may skip events
+	 */
+	boolean skippable() {
+		return this.skippable;
+	}
+	
+	/**
+	 * Has the wrapped {@link LysonParserHandler} handling the {@link ParsingEvent} 
+	 * passed as parameter, and returns true if it has to be notified of the next 
+	 * events
+	 * 
+	 * @param event the {@link ParsingEvent} to be handled
+	 * 
+	 * @return whether the wrapped handler is still active
+	 */
+	boolean handle(ParsingEvent event) {
+		LysonParserHandlerResult result = this.handler.handleEvent(event);
+		if(result == LysonParserHandlerResult.SKIP_CHILDREN && event != null 
+			&& (event.getType() & ParsingEvent.OPENING) == ParsingEvent.OPENING)
+			this.depth = 1;
+		return result != LysonParserHandlerResult.STOP;
+	}
+}
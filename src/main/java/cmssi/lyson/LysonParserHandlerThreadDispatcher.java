@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import cmssi.lyson.event.ParsingEvent;
+import cmssi.lyson.handler.LysonParserHandler;
+
+/**
+ * {@link LysonParserHandlerDispatcher} calling the {@link LysonParserHandler}s concurrently 
+ * using an {@link ExecutorService}, and waiting for all of them to be done before returning
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+final class LysonParserHandlerThreadDispatcher implements LysonParserHandlerDispatcher {
+
+	private static final Logger LOG = Logger.getLogger(LysonParserHandlerThreadDispatcher.class.getName());
+	
+	private final LinkedList<LysonParserHandlerCallable> callables;
+	private final ExecutorService executor;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param executor the {@link ExecutorService} calling the handlers, which 
+	 * is not shut down by the dispatcher
+	 * @param handlers the {@link LysonParserHandler}s to which dispatching 
+	 * the {@link ParsingEvent}s
+	 */
+	LysonParserHandlerThreadDispatcher(ExecutorService executor, LysonParserHandler... handlers) {
+		this.executor = executor;
+		this.callables = new LinkedList<>();
+		for(LysonParserHandler h : handlers) 
+			this.callables.add(new LysonParserHandlerCallable(h));
+	}
+	
+	@Override
+	public boolean dispatch(ParsingEvent event) throws InterruptedException {
+		List<Future<Boolean>> futures = LysonParserHandlerThreadExecutor.invokeAll(
+			this.executor, this.callables, event);
+        int offset = 0;
+        for(int pos = 0; pos < futures.size(); pos++) {
+        	try {
+				if(futures.get(pos).get().booleanValue()) 
+					continue;
+			} catch (ExecutionException e) {
+				if(LOG.isLoggable(Level.SEVERE)) 
+					LOG.log(Level.SEVERE,e.getMessage(),e);
+			}
+			this.callables.remove(pos-offset);
+			offset+=1;
+        }
+        return !this.callables.isEmpty();
+	}
+
+	@Override
+	public boolean skipping() {
+		for(LysonParserHandlerCallable callable : this.callables) {
+			if(!callable.isSkipping())
+				return false;
+		}
+		return !this.callables.isEmpty();
+	}
+
+	@Override
+	public void close() {
+		//the executor outlives the dispatcher
+	}
+}
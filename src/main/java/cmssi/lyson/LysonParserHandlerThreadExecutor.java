@@ -25,14 +25,20 @@ package cmssi.lyson;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import cmssi.lyson.event.ParsingEvent;
 
@@ -40,12 +46,62 @@ import cmssi.lyson.event.ParsingEvent;
 /**
  * Extended {@link ThreadPoolExecutor} allowing to define a {@link ParsingEvent} in each 
  * {@link LysonParserHandlerCallable} of a collection before calling them all
+ * <p>
+ * A Lyson-wide {@link #shared()} instance is lazily created, and used by default to 
+ * dispatch the parsing events to the handlers, so that no thread is started for each 
+ * parsed document - unless virtual threads are available, see {@link #defaultExecutor()}. 
+ * Its size and the capacity of its queue are defined by the {@value #POOL_SIZE_PROPERTY} 
+ * and {@value #QUEUE_SIZE_PROPERTY} system properties - {@link LysonParser#MAX_THREAD} and 
+ * {@link LysonParser#RING_SIZE} by default. Its threads are daemon ones, stopping when 
+ * idle, and a task submitted while both its threads and its queue are busy is run by the 
+ * submitting thread
  * 
  * @author cmunilla@cmssi.fr
  * @version 0.6
  */
 public final class LysonParserHandlerThreadExecutor extends ThreadPoolExecutor {
 
+	/**
+	 * System property defining the number of threads of the shared instance
+	 */
+	public static final String POOL_SIZE_PROPERTY = "cmssi.lyson.executor.threads";
+
+	/**
+	 * System property defining the capacity of the queue of the shared instance
+	 */
+	public static final String QUEUE_SIZE_PROPERTY = "cmssi.lyson.executor.queue";
+	
+	private static final long KEEP_ALIVE_SECONDS = 60L;
+	
+	private static final class Shared {
+		
+		private static final LysonParserHandlerThreadExecutor INSTANCE = new LysonParserHandlerThreadExecutor(
+			Integer.getInteger(POOL_SIZE_PROPERTY, LysonParser.MAX_THREAD).intValue(),
+			Integer.getInteger(QUEUE_SIZE_PROPERTY, LysonParser.RING_SIZE).intValue());
+	}
+	
+	/**
+	 * Returns the Lyson-wide LysonParserHandlerThreadExecutor, created on first 
+	 * use - It is not meant to be shut down
+	 * 
+	 * @return the shared LysonParserHandlerThreadExecutor
+	 */
+	public static LysonParserHandlerThreadExecutor shared() {
+		return Shared.INSTANCE;
+	}
+	
+	/**
+	 * Returns the {@link ExecutorService} calling the handlers when none has been defined - 
+	 * the {@link #shared()} instance, or on a Java 21 runtime an executor starting a virtual 
+	 * thread per task, unless the "cmssi.lyson.executor.virtual" system property is false. 
+	 * It is not meant to be shut down
+	 * 
+	 * @return the default {@link ExecutorService}
+	 */
+	public static ExecutorService defaultExecutor() {
+		return LysonParserDefaultExecutor.get();
+	}
+
 	/**
 	 * Constructor
 	 * 
@@ -55,6 +111,31 @@ public final class LysonParserHandlerThreadExecutor extends ThreadPoolExecutor {
 	public LysonParserHandlerThreadExecutor(int poolSize) {
 		super(poolSize, poolSize,0L, TimeUnit.MILLISECONDS,new LinkedBlockingQueue<Runnable>());
 	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param poolSize the maximum number of daemon threads of the {@link 
+	 * ThreadPoolExecutor} to be instantiated, which are started on demand 
+	 * and stopped when idle
+	 * @param queueSize the capacity of the queue of the {@link ThreadPoolExecutor} 
+	 * to be instantiated - A task submitted while it is full is run by the 
+	 * submitting thread
+	 */
+	public LysonParserHandlerThreadExecutor(int poolSize, int queueSize) {
+		super(Math.max(1, poolSize), Math.max(1, poolSize), KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, 
+			new ArrayBlockingQueue<Runnable>(Math.max(1, queueSize)), daemons(), new CallerRunsPolicy());
+		allowCoreThreadTimeOut(true);
+	}
+	
+	private static ThreadFactory daemons() {
+		AtomicInteger count = new AtomicInteger();
+		return r -> {
+			Thread thread = new Thread(r, "LysonParser-worker-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
 	
 	/**
 	 * Executes the given tasks parameterized with the specified {@link ParsingEvent}, 
@@ -74,17 +155,48 @@ public final class LysonParserHandlerThreadExecutor extends ThreadPoolExecutor {
 	 */
 	public List<Future<Boolean>> invokeAll(Collection<LysonParserHandlerCallable> tasks, ParsingEvent event)
     throws InterruptedException {
+		return invokeAll(this, tasks, event);
+	}
+	
+	/**
+	 * Executes the given tasks parameterized with the specified {@link ParsingEvent} using the 
+	 * {@link ExecutorService} passed as parameter, and returns when all of them are complete - 
+	 * The last task is run by the calling thread, as well as the ones still waiting in the queue 
+	 * of a {@link ThreadPoolExecutor} when their result is awaited, so that handlers sharing an 
+	 * executor with the tasks they submit cannot starve it
+	 *
+	 * @param executor the {@link ExecutorService} running the tasks
+	 * @param tasks the collection of tasks
+	 * @param event the {@link ParsingEvent} parameterizing the tasks
+	 * 
+	 * @return a list of Futures representing the tasks, in the same sequential order as 
+	 * produced by the iterator for the given task list, each of which has completed
+	 * 
+	 * @throws InterruptedException - if interrupted while waiting, in which case unfinished 
+	 * tasks are cancelled
+	 * 
+	 * @see #invokeAll(Collection, ParsingEvent)
+	 */
+	public static List<Future<Boolean>> invokeAll(ExecutorService executor, 
+		Collection<LysonParserHandlerCallable> tasks, ParsingEvent event) throws InterruptedException {
         ArrayList<Future<Boolean>> futures = new ArrayList<>(tasks.size());
         try {
-            for (LysonParserHandlerCallable t : tasks) {
+        	Iterator<LysonParserHandlerCallable> iterator = tasks.iterator();
+            while(iterator.hasNext()) {
+            	LysonParserHandlerCallable t = iterator.next();
             	t.setParsingEvent(event);
-                RunnableFuture<Boolean> f = newTaskFor(t);
+                RunnableFuture<Boolean> f = new FutureTask<>(t);
                 futures.add(f);
-                execute(f);
+                if(iterator.hasNext())
+                	executor.execute(f);
+                else
+                	f.run();
             }
             for (int i = 0, size = futures.size(); i < size; i++) {
-                Future<Boolean> f = futures.get(i);
+                RunnableFuture<Boolean> f = (RunnableFuture<Boolean>) futures.get(i);
                 if (!f.isDone()) {
+                	if(executor instanceof ThreadPoolExecutor && ((ThreadPoolExecutor) executor).remove(f))
+                		f.run();
                     try { 
                     	f.get(); 
                     }
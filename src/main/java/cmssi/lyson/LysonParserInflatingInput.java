@@ -0,0 +1,453 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * {@link LysonParserChunkInput} inflating GZIP or ZLIB (deflate) compressed content on a 
+ * dedicated thread, ahead of the parsing, into a bounded queue of chunks - The format is 
+ * detected from the first bytes of the content
+ * <p>
+ * When reading a file and allowed to use several threads, the concatenated members of a 
+ * GZIP file are inflated concurrently: the file is scanned for GZIP member headers, each 
+ * of them being inflated by a worker into a bounded queue of its own. The inflated chunks 
+ * are handed over in file order, a member only being accepted once the previous one has 
+ * been found to end where it starts, and its own CRC and size have been checked - A header 
+ * found in compressed data is thereby discarded
+ * <p>
+ * The inflating thread ends with the input: a LysonParserInflatingInput whose end is 
+ * not reached has to be closed to release it
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+final class LysonParserInflatingInput extends LysonParserChunkInput {
+
+	private static final Logger LOG = Logger.getLogger(LysonParserInflatingInput.class.getName());
+	
+	//number of inflated chunks the input, or a member, can be ahead of their reader
+	static final int QUEUE_SIZE = 4;
+	private static final int INPUT_SIZE = 1 << 16;
+	private static final int GZIP_MAGIC = 0x8b1f;
+	//marks the end of a member's chunks
+	private static final Chunk END = new Chunk(new byte[HEAD], false);
+	
+	/**
+	 * A GZIP member, possibly found in compressed data, inflated by a worker
+	 */
+	private final class Member implements Runnable {
+		
+		final long start;
+		final ArrayBlockingQueue<Chunk> chunks;
+		volatile boolean cancelled;
+		//position following the member and error which stopped its 
+		//inflating, both written before {@link #END} is queued
+		long end;
+		IOException failure;
+		
+		Member(long start) {
+			this.start = start;
+			this.chunks = new ArrayBlockingQueue<>(QUEUE_SIZE);
+		}
+		
+		@Override
+		public void run() {
+			Inflater inflater = new Inflater(true);
+			try {
+				try {
+					inflate(inflater);
+				} catch (IOException exc) {
+					this.failure = exc;
+				}
+				if(!this.cancelled)
+					this.chunks.put(END);
+			} catch (InterruptedException exc) {
+				//closed
+			} finally {
+				inflater.end();
+			}
+		}
+		
+		private void inflate(Inflater inflater) throws IOException, InterruptedException {
+			ByteBuffer in = ByteBuffer.allocate(INPUT_SIZE);
+			int n = read(in, this.start);
+			int header = header(in.array(), n);
+			long position = this.start + n;
+			inflater.setInput(in.array(), header, n - header);
+			CRC32 crc = new CRC32();
+			Chunk chunk = chunk();
+			int length = HEAD;
+			while(!inflater.finished()) {
+				if(this.cancelled)
+					return;
+				if(inflater.needsInput()) {
+					in.clear();
+					n = read(in, position);
+					if(n <= 0)
+						throw new EOFException("Unexpected end of GZIP member");
+					position += n;
+					inflater.setInput(in.array(), 0, n);
+				}
+				int inflated;
+				try {
+					inflated = inflater.inflate(chunk.bytes, length, chunk.bytes.length - length);
+				} catch (DataFormatException exc) {
+					throw new ZipException(exc.getMessage());
+				}
+				if(inflated == 0 && !inflater.finished() && !inflater.needsInput())
+					throw new ZipException("Invalid GZIP member");
+				crc.update(chunk.bytes, length, inflated);
+				length += inflated;
+				if(length == chunk.bytes.length) {
+					chunk.limit = length;
+					this.chunks.put(chunk);
+					chunk = chunk();
+					length = HEAD;
+				}
+			}
+			long deflated = position - inflater.getRemaining();
+			ByteBuffer trailer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+			if(read(trailer, deflated) < 8)
+				throw new EOFException("Unexpected end of GZIP member");
+			if(trailer.getInt(0) != (int) crc.getValue() 
+				|| trailer.getInt(4) != (int) inflater.getBytesWritten())
+				throw new ZipException("Corrupt GZIP member");
+			if(length > HEAD) {
+				chunk.limit = length;
+				this.chunks.put(chunk);
+			}
+			this.end = deflated + 8;
+		}
+		
+		//returns the position following the member, once its chunks have been handed over
+		long forward() throws IOException, InterruptedException {
+			Chunk chunk;
+			while((chunk = this.chunks.take()) != END)
+				LysonParserInflatingInput.this.filled.put(chunk);
+			if(this.failure != null)
+				throw this.failure;
+			return this.end;
+		}
+		
+		//stops the worker, which may be waiting for room in the queue
+		void cancel() {
+			this.cancelled = true;
+			this.chunks.clear();
+		}
+	}
+	
+	private final InputStream input;
+	private final FileChannel channel;
+	private final long from;
+	private final ArrayBlockingQueue<Chunk> filled;
+	private final ArrayBlockingQueue<Chunk> free;
+	private final Thread producer;
+	private volatile boolean closed;
+	
+	private int parallelism = 1;
+	//block of the file scanned for member headers, and position 
+	//from which it is still to be scanned
+	private ByteBuffer scan;
+	private long scanFrom;
+	private int scanLength;
+	private long scanned;
+	private boolean started;
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param input the {@link InputStream} providing the compressed bytes
+	 */
+	LysonParserInflatingInput(InputStream input) {
+		this(input, null, 0);
+	}
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param channel the {@link FileChannel} of the compressed file, 
+	 * closed with the LysonParserInflatingInput to be instantiated
+	 * @param from the position of the first byte to be read
+	 */
+	LysonParserInflatingInput(FileChannel channel, long from) {
+		this(null, channel, from);
+	}
+	
+	private LysonParserInflatingInput(InputStream input, FileChannel channel, long from) {
+		this.input = input;
+		this.channel = channel;
+		this.from = from;
+		this.filled = new ArrayBlockingQueue<>(QUEUE_SIZE);
+		this.free = new ArrayBlockingQueue<>(2 * QUEUE_SIZE);
+		this.producer = new Thread(this::produce, "LysonParser-inflater");
+		this.producer.setDaemon(true);
+	}
+	
+	/**
+	 * Defines the number of threads used to inflate the members of a GZIP 
+	 * file - Must be defined before the reading starts
+	 * 
+	 * @param parallelism the number of threads to be used
+	 */
+	void parallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+	
+	//inflating thread
+	private void produce() {
+		try {
+			this.scan = this.input == null ? ByteBuffer.allocate(INPUT_SIZE) : null;
+			if(this.input != null)
+				inflate(this.input);
+			else if(this.parallelism > 1 && candidate(this.from) == this.from)
+				inflateMembers(new Member(this.from));
+			else
+				inflate(Channels.newInputStream(this.channel.position(this.from)));
+		} catch (ZipException exc) {
+			if(!this.closed && LOG.isLoggable(Level.SEVERE))
+				LOG.log(Level.SEVERE, exc.getMessage(), exc);
+		} catch (IOException exc) {
+			if(!this.closed)
+				LOG.log(Level.FINE, exc.getMessage(), exc);
+		} catch (InterruptedException exc) {
+			//closed
+		} finally {
+			closeSource();
+			end();
+		}
+	}
+	
+	//queues the chunk marking the end of the content
+	private void end() {
+		if(this.closed)
+			return;
+		Chunk last = chunk();
+		last.limit = HEAD;
+		last.eof = true;
+		try {
+			this.filled.put(last);
+		} catch (InterruptedException exc) {
+			//closed
+		}
+	}
+	
+	//inflates the content of the stream passed as parameter, whatever the number of its members
+	private void inflate(InputStream compressed) throws IOException, InterruptedException {
+		InputStream in = new BufferedInputStream(compressed, INPUT_SIZE);
+		in.mark(2);
+		int magic = in.read() | in.read() << 8;
+		in.reset();
+		if(magic < 0)
+			return;
+		Inflater inflater = new Inflater();
+		try {
+			InputStream inflating = magic == GZIP_MAGIC ? new GZIPInputStream(in, INPUT_SIZE)
+				: new InflaterInputStream(in, inflater, INPUT_SIZE);
+			while(!this.closed) {
+				Chunk chunk = chunk();
+				int n = HEAD;
+				int read = 0;
+				while(n < chunk.bytes.length && (read = inflating.read(chunk.bytes, n, chunk.bytes.length - n)) >= 0)
+					n += read;
+				if(n > HEAD) {
+					chunk.limit = n;
+					this.filled.put(chunk);
+				}
+				if(read < 0)
+					return;
+			}
+		} finally {
+			inflater.end();
+		}
+	}
+	
+	//inflates the members of the file from the first one passed as parameter, keeping 
+	//as many of them as threads being inflated, and hands their chunks over in order
+	private void inflateMembers(Member first) throws IOException, InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(this.parallelism, r -> {
+			Thread thread = new Thread(r, "LysonParser-inflater");
+			thread.setDaemon(true);
+			return thread;
+		});
+		Deque<Member> members = new ArrayDeque<>();
+		members.add(first);
+		executor.execute(first);
+		long size = this.channel.size();
+		long expected = this.from;
+		try {
+			while(expected < size) {
+				Member head;
+				while((head = members.peek()) != null && head.start < expected)
+					members.poll().cancel();
+				long candidate;
+				while(members.size() < this.parallelism && (candidate = candidate(expected)) >= 0) {
+					Member member = new Member(candidate);
+					members.add(member);
+					executor.execute(member);
+				}
+				head = members.poll();
+				if(head == null || head.start != expected) {
+					//trailing bytes are ignored, as GZIPInputStream does
+					if(LOG.isLoggable(Level.FINE))
+						LOG.log(Level.FINE, "Trailing bytes ignored from " + expected);
+					return;
+				}
+				expected = head.forward();
+			}
+		} finally {
+			members.forEach(Member::cancel);
+			executor.shutdownNow();
+		}
+	}
+	
+	//returns the position of the next GZIP member header which may start from the position 
+	//passed as parameter or after the last one returned, or -1 if there is none
+	private long candidate(long position) throws IOException {
+		if(this.scanned == Long.MAX_VALUE)
+			return -1;
+		long from = Math.max(position, this.scanned);
+		byte[] bytes = this.scan.array();
+		while(true) {
+			if(from < this.scanFrom || from > this.scanFrom + this.scanLength - 4) {
+				this.scan.clear();
+				this.scanLength = read(this.scan, from);
+				this.scanFrom = from;
+				if(this.scanLength < 4) {
+					this.scanned = Long.MAX_VALUE;
+					return -1;
+				}
+			}
+			int offset = (int) (from - this.scanFrom);
+			for(int i = offset; i + 3 < this.scanLength; i++) {
+				if(bytes[i] == 0x1f && bytes[i + 1] == (byte) 0x8b && bytes[i + 2] == 8 
+					&& (bytes[i + 3] & 0xe0) == 0) {
+					this.scanned = this.scanFrom + i + 1;
+					return this.scanFrom + i;
+				}
+			}
+			from = this.scanFrom + this.scanLength - 3;
+		}
+	}
+	
+	//fills the buffer from the position of the file passed as parameter, 
+	//and returns the number of read bytes
+	private int read(ByteBuffer buffer, long position) throws IOException {
+		int n = 0;
+		int read;
+		while(buffer.hasRemaining() && (read = this.channel.read(buffer, position + n)) >= 0)
+			n += read;
+		return n;
+	}
+	
+	//returns the length of the GZIP header held by the bytes
+	private static int header(byte[] bytes, int n) throws ZipException {
+		if(n < 10 || ((bytes[0] & 0xff) | (bytes[1] & 0xff) << 8) != GZIP_MAGIC || bytes[2] != 8)
+			throw new ZipException("Not in GZIP format");
+		int flags = bytes[3] & 0xff;
+		int length = 10;
+		if((flags & 4) != 0)
+			length += 2 + (length + 2 > n ? 0 : (bytes[length] & 0xff) | (bytes[length + 1] & 0xff) << 8);
+		//file name, then comment
+		for(int flag = 8; flag <= 16; flag <<= 1) {
+			if((flags & flag) == 0)
+				continue;
+			while(length < n && bytes[length] != 0)
+				length++;
+			length++;
+		}
+		if((flags & 2) != 0)
+			length += 2;
+		if(length > n)
+			throw new ZipException("GZIP header too long");
+		return length;
+	}
+	
+	private Chunk chunk() {
+		Chunk chunk = this.free.poll();
+		if(chunk == null)
+			return new Chunk(new byte[LysonParser.BUFFER_SIZE], true);
+		chunk.eof = false;
+		return chunk;
+	}
+
+	@Override
+	Chunk next() {
+		if(!this.started) {
+			this.started = true;
+			this.producer.start();
+		}
+		try {
+			return this.filled.take();
+		} catch (InterruptedException exc) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
+	@Override
+	void give(Chunk chunk) {
+		this.free.offer(chunk);
+	}
+
+	@Override
+	void close() {
+		this.closed = true;
+		this.eof = true;
+		if(this.started)
+			this.producer.interrupt();
+		closeSource();
+	}
+	
+	private void closeSource() {
+		try {
+			if(this.input != null)
+				this.input.close();
+			else
+				this.channel.close();
+		} catch (IOException exc) {
+        	LOG.log(Level.FINE, exc.getMessage(), exc);
+		}
+	}
+}
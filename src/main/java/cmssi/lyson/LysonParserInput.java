@@ -0,0 +1,332 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.util.Arrays;
+
+import cmssi.lyson.exception.LysonParsingException;
+
+/**
+ * A LysonParserInput provides the characters to be tokenized by a {@link LysonParser}, 
+ * keeping track of the current line and column. Besides the char by char access, it 
+ * gives the opportunity to implementations to read strings, unquoted values and white
+ * spaces in tight loops over their own buffer
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+abstract class LysonParserInput {
+	
+	//the characters ending an unquoted value
+	static final boolean[] DELIMITERS = new boolean[128];
+	
+	static {
+		for(char c : ",:]}/\\\"[{;=#".toCharArray())
+			DELIMITERS[c] = true;
+	}
+	
+	int line = 0;
+	int column = 0;
+	
+	//reusable chars buffer for strings and values
+	char[] chars = new char[64];
+	
+	//reusable view over the last string read
+	final LysonString view = new LysonString();
+	//copy of the view characters when the buffer they come from is overwritten
+	private char[] pinned = new char[64];
+	//reusable view over the last unquoted value read, never handed out
+	private final LysonString value = new LysonString();
+	
+	//state of the skipping of a JSON Object or Array content, kept so that 
+	//an interrupted skipping can be resumed : nesting depth, delimiter of 
+	//the string being skipped if any, whether the previous character is an 
+	//escaping backslash, and whether the next one may start a string
+	int skipDepth;
+	char skipQuote;
+	boolean skipEscape;
+	boolean skipStart;
+
+	/**
+	 * Returns the current character, or {@link LysonParser#EOF} if the end 
+	 * of the input has been reached
+	 * 
+	 * @return the current character
+	 */
+	abstract char current();
+	
+	/**
+	 * Moves to the next character
+	 */
+	abstract void moveOn();
+	
+	/**
+	 * Releases the resources held by this LysonParserInput
+	 */
+	abstract void close();
+
+	/**
+	 * Skips white spaces and returns the first significant character 
+	 * met, or {@link LysonParser#EOF} if the end of the input has been 
+	 * reached
+	 * 
+	 * @return the next significant character
+	 */
+	char nextChar() {
+        for ( ; ; ) {
+            char c = current();
+            if (c == 0 || c > ' ') {
+                return c;
+            }
+            if(c == '\n' || c == '\r') {
+            	line+=1;
+            	column = 0;
+            }
+            moveOn();
+        }
+	}
+	
+	/**
+	 * Reads the string starting at the current position, which is the one 
+	 * of its opening delimiter passed as parameter, and moves after its 
+	 * closing delimiter
+	 * 
+	 * @param q the string delimiter
+	 * 
+	 * @return the read String
+	 */
+	String readString(char q) {
+		moveOn();
+		int n = readRest(q, 0);
+		return new String(this.chars, 0, n);
+	}
+
+	/**
+	 * Reads the string starting at the current position, which is the one 
+	 * of its opening delimiter passed as parameter, moves after its closing 
+	 * delimiter, and returns the reusable {@link LysonString} view over its 
+	 * characters - The view is valid until the next string or unquoted value 
+	 * is read
+	 * 
+	 * @param q the string delimiter
+	 * 
+	 * @return the {@link LysonString} view over the read string
+	 */
+	LysonString readStringView(char q) {
+		moveOn();
+		int n = readRest(q, 0);
+		return this.view.with(this.chars, 0, n);
+	}
+	
+	/**
+	 * Reads the remaining characters of a string from the current position, 
+	 * appending them to the n first ones already held by the chars buffer, 
+	 * and moves after its closing delimiter passed as parameter
+	 * 
+	 * @param q the string delimiter
+	 * @param n the number of characters already read
+	 * 
+	 * @return the total number of characters of the string
+	 */
+	int readRest(char q, int n) {
+		for (; ; ) {
+			char c = current();
+			switch (c) {
+				case LysonParser.EOF:
+				case '\n':
+				case '\r':
+					throw new LysonParsingException("Unterminated string", line, column);
+				case '\\':
+					moveOn();
+					c = readEscape();
+					break;
+				default:
+					if (c == q) {
+						moveOn();
+						return n;
+					}
+			}
+			n = append(n, c);
+			moveOn();
+		}
+	}
+	
+	/**
+	 * Copies the characters of the {@link LysonString} view into a buffer of 
+	 * its own, so that the view remains valid when the buffer it refers to is 
+	 * about to be overwritten
+	 */
+	void pin() {
+		LysonString view = this.view;
+		if(view.array == this.pinned)
+			return;
+		if(view.length > this.pinned.length)
+			this.pinned = new char[Math.max(view.length, this.pinned.length << 1)];
+		System.arraycopy(view.array, view.offset, this.pinned, 0, view.length);
+		view.with(this.pinned, 0, view.length);
+	}
+	
+	/**
+	 * Moves over the content of the JSON Object or Array whose opening character 
+	 * has just been passed, only tracking strings and nesting, and stops on its 
+	 * closing character, or at the end of the input - The skipped content is not 
+	 * validated
+	 */
+	void skip() {
+		if(this.skipDepth == 0) {
+			this.skipDepth = 1;
+			this.skipQuote = 0;
+			this.skipEscape = false;
+			this.skipStart = true;
+		}
+		for(;;) {
+			char c = current();
+			if(c == LysonParser.EOF) {
+				this.skipDepth = 0;
+				return;
+			}
+			if(this.skipQuote != 0) {
+				if(this.skipEscape) 
+					this.skipEscape = false;
+				else if(c == '\\')
+					this.skipEscape = true;
+				else if(c == this.skipQuote) {
+					this.skipQuote = 0;
+					this.skipStart = false;
+				}
+			} else {
+				switch(c) {
+					case '{':
+					case '[':
+						this.skipDepth+=1;
+						this.skipStart = true;
+						break;
+					case '}':
+					case ']':
+						if(--this.skipDepth == 0) 
+							return;
+						this.skipStart = false;
+						break;
+					case '"':
+					case '\'':
+						if(this.skipStart)
+							this.skipQuote = c;
+						break;
+					case ',':
+					case ':':
+					case ';':
+					case '=':
+					case '>':
+						this.skipStart = true;
+						break;
+					default:
+						if(c > ' ')
+							this.skipStart = false;
+				}
+			}
+			if(c == '\n' || c == '\r') {
+				line+=1;
+				column = 0;
+			}
+			moveOn();
+		}
+	}
+	
+	/**
+	 * Reads the unquoted value starting at the current position, stopping at 
+	 * the first control character or delimiter met, and returns it trimmed - 
+	 * The returned CharSequence is a view over the chars buffer, only valid 
+	 * until the next read
+	 * 
+	 * @return the read unquoted value
+	 */
+	CharSequence readValue() {
+		int n = 0;
+		char c = current();
+		while (c >= ' ' && (c >= 128 || !DELIMITERS[c])) {
+			n = append(n, c);
+			moveOn();
+			c = current();
+		}
+		return trimmed(n);
+	}
+	
+	//decodes the escaped character at the current position
+	char readEscape() {
+		char c = current();
+		switch (c) {
+			case 'b':
+				return '\b';
+			case 't':
+				return '\t';
+			case 'n':
+				return '\n';
+			case 'f':
+				return '\f';
+			case 'r':
+				return '\r';
+			case 'u':
+				int code = 0;
+				for(int offset = 0; offset < 4; offset++) {
+					moveOn();
+					char h = current();
+					if(h == LysonParser.EOF) 
+						throw new LysonParsingException("Substring bounds error", line, column);
+					int digit = Character.digit(h, 16);
+					if(digit < 0) 
+						throw new LysonParsingException("Illegal escape", line, column);
+					code = (code << 4) | digit;
+				}
+				return (char) code;
+			case '"':
+			case '\'':
+			case '\\':
+			case '/':
+				return c;
+			default:
+				throw new LysonParsingException("Illegal escape", line, column);
+		}
+	}
+	
+	//appends the character passed as parameter to the chars buffer
+	//at the specified position and returns the next position
+	int append(int n, char c) {
+		if(n == this.chars.length) 
+			this.chars = Arrays.copyOf(this.chars, n << 1);
+		this.chars[n] = c;
+		return n + 1;
+	}
+	
+	//returns the view over the n first characters of the chars 
+	//buffer, without leading and trailing white spaces
+	CharSequence trimmed(int n) {
+		int start = 0;
+		int end = n;
+		while(start < end && this.chars[start] <= ' ') 
+			start+=1;
+		while(end > start && this.chars[end - 1] <= ' ') 
+			end-=1;
+		return this.value.with(this.chars, start, end - start);
+	}
+}
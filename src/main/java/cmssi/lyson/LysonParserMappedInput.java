@@ -0,0 +1,158 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link LysonParserByteInput} tokenizing the UTF-8 encoded content of a file straight from 
+ * successive {@link java.nio.MappedByteBuffer} windows, allowing files larger than 2GB to be 
+ * parsed without copying their bytes
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+final class LysonParserMappedInput extends LysonParserByteInput {
+
+	private static final Logger LOG = Logger.getLogger(LysonParserMappedInput.class.getName());
+	
+	static final long WINDOW_SIZE = 1L << 26;
+	
+	private final FileChannel channel;
+	private final long size;
+	private final long windowSize;
+	//whether the channel is closed with this input
+	private final boolean owner;
+	//absolute position of the current window in the file
+	private long offset;
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param channel the {@link FileChannel} whose content is to be mapped, from 
+	 * its current position
+	 * @param windowSize the maximum size of the mapped windows
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	LysonParserMappedInput(FileChannel channel, long windowSize) throws IOException {
+		this(channel, channel.position(), channel.size(), windowSize, true);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param channel the {@link FileChannel} whose content is to be mapped
+	 * @param from the absolute position of the first byte to be read
+	 * @param to the absolute position following the last byte to be read
+	 * @param windowSize the maximum size of the mapped windows
+	 * @param owner whether the channel has to be closed with the LysonParserMappedInput 
+	 * to be instantiated - It is not when several of them share it
+	 */
+	LysonParserMappedInput(FileChannel channel, long from, long to, long windowSize, boolean owner) {
+		this.channel = channel;
+		this.size = to;
+		this.offset = from;
+		//a window must at least be able to hold a whole UTF-8 sequence
+		this.windowSize = Math.max(4L, Math.min(windowSize, Integer.MAX_VALUE));
+		this.owner = owner;
+	}
+	
+	/**
+	 * Returns the {@link FileChannel} read by this LysonParserMappedInput
+	 * 
+	 * @return the read {@link FileChannel}
+	 */
+	FileChannel channel() {
+		return this.channel;
+	}
+	
+	/**
+	 * Returns the absolute position of the next byte to be read
+	 * 
+	 * @return the current position
+	 */
+	long position() {
+		return this.offset + pos;
+	}
+	
+	/**
+	 * Returns the absolute position following the last byte to be read
+	 * 
+	 * @return the end position
+	 */
+	long size() {
+		return this.size;
+	}
+
+	/**
+	 * Returns the {@link FileChannel} read by this LysonParserMappedInput if none 
+	 * of its bytes has been read yet, this input being unusable afterwards - 
+	 * Returns null otherwise
+	 * 
+	 * @return the not yet read {@link FileChannel}, or null
+	 */
+	FileChannel detach() {
+		if(window != null || !this.owner)
+			return null;
+		window = ByteBuffer.allocate(0);
+		return this.channel;
+	}
+
+	@Override
+	boolean fill() {
+		long from = this.offset + pos;
+		long to = Math.min(this.size, from + this.windowSize);
+		if(to <= this.offset + limit) {
+			close();
+			return false;
+		}
+		try {
+			this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+			this.offset = from;
+			pos = 0;
+			limit = (int)(to - from);
+			return true;
+		} catch (IOException exc) {
+        	LOG.log(Level.FINE, exc.getMessage(), exc);
+		}
+		close();
+		return false;
+	}
+
+	@Override
+	void close() {
+		if(!this.owner)
+			return;
+		try {
+			this.channel.close();
+		} catch (IOException exc) {
+        	LOG.log(Level.FINE, exc.getMessage(), exc);
+		}
+	}
+}
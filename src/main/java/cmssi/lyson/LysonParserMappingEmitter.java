@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import cmssi.lyson.event.ParsingEvent;
+import cmssi.lyson.event.ValuableEventWrapper;
+import cmssi.lyson.handler.mapping.MappingHandler;
+
+/**
+ * {@link LysonSubscription.Emitter} mapping each element of a root JSON Array, or 
+ * each root JSON Object, to an instance of a type using a {@link MappingHandler} of 
+ * its own - Scalar elements are delivered as they are, if they are instances of the 
+ * type. Only the events of the mapped element are read to deliver it
+ * 
+ * @param <T> the mapped type
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+abstract class LysonParserMappingEmitter<T> implements LysonSubscription.Emitter {
+	
+	private final LysonParser parser;
+	private final Class<T> type;
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param parser the {@link LysonParser} reading the mapped elements
+	 * @param type the type the elements are mapped to
+	 */
+	LysonParserMappingEmitter(LysonParser parser, Class<T> type) {
+		this.parser = parser;
+		this.type = type;
+	}
+	
+	/**
+	 * Delivers the mapped element passed as parameter
+	 * 
+	 * @param mapped the mapped element to be delivered
+	 */
+	abstract void next(T mapped);
+
+	@Override
+	public boolean emit(LysonSubscription subscription) {
+		ParsingEvent event;
+		while((event = this.parser.read()) != null) {
+			boolean root = event.getParsingPath().getDepth() == 0;
+			if(root && event.getType() == ParsingEvent.JSON_OBJECT_OPENING 
+				|| !root && (event.getType() & ParsingEvent.OPENING) == ParsingEvent.OPENING) {
+				next(map(event));
+				return true;
+			}
+			if(event.getType() == ParsingEvent.JSON_ARRAY_ITEM) {
+				Object value = event.adapt(ValuableEventWrapper.class).getValue();
+				if(value instanceof LysonNumber)
+					value = ((LysonNumber) value).numberValue();
+				else if(value instanceof LysonString)
+					value = value.toString();
+				next(this.type.cast(value));
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	//maps the JSON Object or Array opened by the event passed as parameter
+	private T map(ParsingEvent opening) {
+		MappingHandler mapping = new MappingHandler(this.type);
+		mapping.handle(opening);
+		int depth = 1;
+		while(depth > 0) {
+			ParsingEvent event = this.parser.read();
+			if(event == null)
+				break;
+			if((event.getType() & ParsingEvent.OPENING) == ParsingEvent.OPENING)
+				depth++;
+			else if((event.getType() & ParsingEvent.CLOSING) == ParsingEvent.CLOSING)
+				depth--;
+			mapping.handle(event);
+		}
+		return mapping.getMapped();
+	}
+}
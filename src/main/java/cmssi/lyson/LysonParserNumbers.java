@@ -0,0 +1,366 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Conversion of numeric literals into Number instances without intermediate BigInteger 
+ * or BigDecimal when the result fits in a long or a double: integers are accumulated 
+ * digit by digit, decimals are converted using the Clinger fast path when exact, and the 
+ * Eisel-Lemire algorithm otherwise. Literals that cannot be handled this way, or whose 
+ * result has to remain a BigInteger or a BigDecimal, fall back to the original conversion
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+final class LysonParserNumbers {
+
+	private static final Logger LOG = Logger.getLogger(LysonParserNumbers.class.getName());
+	
+	private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+	private static final BigDecimal DOUBLE_MAX = BigDecimal.valueOf(Double.MAX_VALUE);
+	private static final BigDecimal DOUBLE_MIN = BigDecimal.valueOf(Double.MIN_VALUE);
+
+	//maximum number of digits of a long accumulated without overflow check
+	private static final int MAX_LONG_DIGITS = 18;
+	//maximum number of significant digits of an exact unsigned 64 bits mantissa
+	private static final int MAX_MANTISSA_DIGITS = 19;
+	
+	private static final double[] POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+	
+	private static final int SMALLEST_POWER_OF_TEN = -342;
+	private static final int LARGEST_POWER_OF_TEN = 308;
+	
+	//128 bits truncated approximations of the powers of five, high 
+	//then low 64 bits, from SMALLEST_POWER_OF_TEN to LARGEST_POWER_OF_TEN
+	private static final long[] POWERS_OF_FIVE = powersOfFive();
+	
+	private static long[] powersOfFive() {
+		long[] powers = new long[2*(LARGEST_POWER_OF_TEN - SMALLEST_POWER_OF_TEN + 1)];
+		BigInteger five = BigInteger.valueOf(5);
+		for(int q = SMALLEST_POWER_OF_TEN; q <= LARGEST_POWER_OF_TEN; q++) {
+			BigInteger power = five.pow(Math.abs(q));
+			int z = power.bitLength();
+			BigInteger c = null;
+			if(q < 0) {
+				int b = q >= -27 ? z + 127 : 2*z + 128;
+				c = BigInteger.ONE.shiftLeft(b).divide(power).add(BigInteger.ONE);
+			} else 
+				c = power;
+			if(c.bitLength() > 128)
+				c = c.shiftRight(c.bitLength() - 128);
+			else 
+				c = c.shiftLeft(128 - c.bitLength());
+			int index = 2*(q - SMALLEST_POWER_OF_TEN);
+			powers[index] = c.shiftRight(64).longValue();
+			powers[index + 1] = c.longValue();
+		}
+		return powers;
+	}
+	
+	private LysonParserNumbers() {}
+	
+	/**
+	 * Converts the numeric literal passed as parameter into a Number instance 
+	 * and returns it. In exact mode decimal literals are always converted into 
+	 * BigDecimals
+	 * 
+	 * @param s the numeric literal to be converted
+	 * @param exact whether decimal literals have to be converted without any 
+	 * loss of precision
+	 * 
+	 * @return the Number converted from the specified literal
+	 * 
+	 * @throws NumberFormatException if the literal is not a valid number
+	 */
+	static Number parse(CharSequence s, boolean exact) {
+		int length = s.length();
+		boolean decimal = false;
+		for(int i = 0; i < length; i++) {
+			if(s.charAt(i) == '.') {
+				decimal = true;
+				break;
+			}
+		}
+		Number num = null;
+		if(!decimal) {
+			if(s.charAt(0) == '0') 
+				return radix(s);			
+			num = integer(s);
+			if(num == null)
+				num = bigInteger(s.toString());
+		} else {
+			if(!exact)
+				num = decimal(s);
+			if(num == null)
+				num = bigDecimal(s.toString(), exact);
+		}
+		return num;
+	}
+
+	private static Number integer(CharSequence s) {
+		int length = s.length();
+		int i = 0;
+		boolean negative = false;
+		char c = s.charAt(0);
+		if(c == '-' || c == '+') {
+			negative = c == '-';
+			i++;
+		}
+		if(length == i || length - i > MAX_LONG_DIGITS)
+			return null;
+		long value = 0;
+		for(; i < length; i++) {
+			c = s.charAt(i);
+			if(c < '0' || c > '9')
+				return null;
+			value = value*10 + (c - '0');
+		}
+		if(negative)
+			value = -value;
+		if(value == (int)value)
+			return Integer.valueOf((int)value);
+		return Long.valueOf(value);
+	}
+
+	private static Number bigInteger(String s) {
+		Number num = new BigInteger(s);
+    	if(((BigInteger)num).compareTo(LONG_MAX) <= 0) {                    	
+    		Long myLong = Long.valueOf(s);
+            if (myLong.longValue() == myLong.intValue()) 
+                num = Integer.valueOf(myLong.intValue());
+            else 
+                num = myLong;
+    	}
+    	return num;
+	}
+	
+	private static Integer radix(CharSequence s) {
+		int length = s.length();
+		int radix = 8;
+		int i = 1;
+		if(length > 2 && (s.charAt(1) == 'x' || s.charAt(1) == 'X')) {
+			radix = 16;
+			i = 2;
+		}
+		long value = 0;
+		for(; i < length; i++) {
+			char c = s.charAt(i);
+			int digit = -1;
+			if(c >= '0' && c <= '9')
+				digit = c - '0';
+			else if(c >= 'a' && c <= 'f')
+				digit = c - 'a' + 10;
+			else if(c >= 'A' && c <= 'F')
+				digit = c - 'A' + 10;
+			else if(c > 0x7f || (radix == 16 && i == 2 && (c == '-' || c == '+')))
+				//non ASCII digit or signed hexadecimal value
+				return signedRadix(s.toString(), radix);
+			if(digit < 0 || digit >= radix)
+				return null;
+			value = value*radix + digit;
+			if(value > Integer.MAX_VALUE)
+				return null;
+		}
+		return Integer.valueOf((int)value);
+	}
+
+	private static Integer signedRadix(String s, int radix) {
+		try {
+			return Integer.valueOf(Integer.parseInt(radix == 16 ? s.substring(2) : s, radix));
+		} catch(NumberFormatException ex) {
+ 			LOG.log(Level.FINEST, ex.getMessage(), ex);
+		}
+		return null;
+	}
+	
+	private static Number decimal(CharSequence s) {
+		int length = s.length();
+		int i = 0;
+		char c = s.charAt(0);
+		if(c == '-')
+			//negative values remain BigDecimals
+			return null;
+		if(c == '+')
+			i++;
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		boolean digit = false;
+		boolean dot = false;
+		for(; i < length; i++) {
+			c = s.charAt(i);
+			if(c >= '0' && c <= '9') {
+				digit = true;
+				if(mantissa == 0 && c == '0') {
+					if(dot)
+						exponent--;
+					continue;
+				}
+				if(digits == MAX_MANTISSA_DIGITS)
+					return null;
+				mantissa = mantissa*10 + (c - '0');
+				digits++;
+				if(dot)
+					exponent--;
+			} else if(c == '.' && !dot) 
+				dot = true;
+			else if(c == 'e' || c == 'E')
+				break;
+			else 
+				return null;
+		}
+		if(!digit)
+			return null;
+		if(i < length) {
+			if(++i == length)
+				return null;
+			boolean negative = false;
+			c = s.charAt(i);
+			if(c == '-' || c == '+') {
+				negative = c == '-';
+				if(++i == length)
+					return null;
+			}
+			int e = 0;
+			for(; i < length; i++) {
+				c = s.charAt(i);
+				if(c < '0' || c > '9' || e > 9999)
+					return null;
+				e = e*10 + (c - '0');
+			}
+			exponent += negative ? -e : e;
+		}
+		//zero remains a BigDecimal, as well as values out of the 
+		//[Double.MIN_VALUE, Double.MAX_VALUE] range; values close to 
+		//these bounds are left to the BigDecimal comparison
+		if(mantissa == 0 || digits + exponent > 308 || digits - 1 + exponent < -323)
+			return null;
+		double d = toDouble(mantissa, exponent);
+		//left to the BigDecimal conversion when ambiguous
+		if(Double.isNaN(d))
+			return null;
+		return Double.valueOf(d);
+	}
+
+	private static Number bigDecimal(String s, boolean exact) {
+		Number num = new BigDecimal(s);
+		if(!exact && ((BigDecimal)num).compareTo(DOUBLE_MAX) <= 0
+        	&& ((BigDecimal)num).compareTo(DOUBLE_MIN) >= 0) 
+            num = ((BigDecimal)num).doubleValue();
+		return num;
+	}
+	
+	/**
+	 * Returns the double nearest to mantissa * 10^exponent, or NaN if it cannot be 
+	 * decided using the 128 bits approximations of the powers of five
+	 * 
+	 * @param mantissa the non zero long mantissa, taken as unsigned
+	 * @param exponent the int power of ten
+	 * 
+	 * @return the nearest double, or NaN
+	 */
+	static double toDouble(long mantissa, int exponent) {
+		if(exponent >= -22 && exponent <= 22 && Long.compareUnsigned(mantissa, 1L << 53) <= 0) {
+			//both operands are exact, so is the result
+			double d = mantissa;
+			return exponent < 0 ? d / POWERS_OF_TEN[-exponent] : d * POWERS_OF_TEN[exponent];
+		}
+		return eiselLemire(mantissa, exponent);
+	}
+
+	private static double eiselLemire(long w, int q) {
+		if(q < SMALLEST_POWER_OF_TEN)
+			return 0d;
+		if(q > LARGEST_POWER_OF_TEN)
+			return Double.POSITIVE_INFINITY;
+		int lz = Long.numberOfLeadingZeros(w);
+		w <<= lz;
+		int index = 2*(q - SMALLEST_POWER_OF_TEN);
+		long high = multiplyHigh(w, POWERS_OF_FIVE[index]);
+		long low = w * POWERS_OF_FIVE[index];
+		//55 bits are needed : 52 explicit ones, the implicit one, 
+		//and two to round
+		long mask = 0xFFFFFFFFFFFFFFFFL >>> 55;
+		if((high & mask) == mask && Long.compareUnsigned(low + w, w) < 0) {
+			long next = multiplyHigh(w, POWERS_OF_FIVE[index + 1]);
+			long lowest = w * POWERS_OF_FIVE[index + 1];
+			low += next;
+			if(Long.compareUnsigned(next, low) > 0)
+				high++;
+			//the truncated power of five still cannot tell on which 
+			//side of the rounding boundary the value lies
+			if((high & mask) == mask && low == -1L && Long.compareUnsigned(lowest + w, w) < 0)
+				return Double.NaN;
+		}
+		int upper = (int) (high >>> 63);
+		int shift = upper + 9;
+		long mantissa = high >>> shift;
+		int power = (((152170 + 65536) * q) >> 16) + 63 + upper - lz + 1023;
+		if(power <= 0) {
+			//subnormal
+			if(-power + 1 >= 64)
+				return 0d;
+			mantissa >>>= -power + 1;
+			mantissa += mantissa & 1;
+			mantissa >>>= 1;
+			power = mantissa < (1L << 52) ? 0 : 1;
+			return Double.longBitsToDouble(mantissa | ((long) power << 52));
+		}
+		//halfway : rounded to even when the product is exact, 
+		//undecided otherwise
+		if(Long.compareUnsigned(low, 1) <= 0 && (mantissa & 3) == 1 && (mantissa << shift) == high) {
+			if(q < -4 || q > 23)
+				return Double.NaN;
+			mantissa &= ~1L;
+		}
+		mantissa += mantissa & 1;
+		mantissa >>>= 1;
+		if(mantissa >= (2L << 52)) {
+			mantissa = 1L << 52;
+			power++;
+		}
+		mantissa &= ~(1L << 52);
+		if(power >= 0x7ff)
+			return Double.POSITIVE_INFINITY;
+		return Double.longBitsToDouble(mantissa | ((long) power << 52));
+	}
+	
+	private static long multiplyHigh(long x, long y) {
+		long x0 = x & 0xFFFFFFFFL;
+		long x1 = x >>> 32;
+		long y0 = y & 0xFFFFFFFFL;
+		long y1 = y >>> 32;
+		long p01 = x0 * y1;
+		long middle = x1 * y0 + ((x0 * y0) >>> 32) + (p01 & 0xFFFFFFFFL);
+		return x1 * y1 + (middle >>> 32) + (p01 >>> 32);
+	}
+}
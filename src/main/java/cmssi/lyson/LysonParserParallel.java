@@ -0,0 +1,198 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import cmssi.lyson.LysonParserSplitter.Segment;
+import cmssi.lyson.event.ArrayOpeningEventWrapper;
+import cmssi.lyson.event.LysonParsingEvent;
+import cmssi.lyson.event.ParsingEvent;
+import cmssi.lyson.event.ParsingPath;
+import cmssi.lyson.exception.LysonException;
+import cmssi.lyson.exception.LysonParsingException;
+
+/**
+ * Parses a file holding a JSON Array using several threads : the file is split into 
+ * {@link Segment}s of consecutive elements by a {@link LysonParserSplitter}, each of them 
+ * being parsed by its own {@link LysonParser}. The {@link ParsingEvent}s of a segment are 
+ * dispatched by the calling thread once the segment has been parsed, either in document 
+ * order, or as soon as possible - the events of an element always remaining contiguous 
+ * and ordered. The threads reading the file share the channel of the {@link 
+ * LysonParserMappedInput} : they are never interrupted, which would close it, but told to 
+ * give up and waited for
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+final class LysonParserParallel {
+	
+	//number of ranges the file is divided into per thread
+	private static final int RANGES_PER_THREAD = 4;
+	
+	/**
+	 * The {@link ParsingEvent}s read from a {@link Segment}, and the 
+	 * {@link LysonParsingException} which interrupted the reading if any
+	 */
+	private static final class Result {
+		
+		final List<ParsingEvent> events = new ArrayList<>();
+		LysonParsingException exception;
+	}
+	
+	private final LysonParserMappedInput input;
+	private final int parallelism;
+	private final ExecutorService executor;
+	private final boolean ordered;
+	private final boolean exactNumbers;
+	private final boolean lazyNumbers;
+	//whether the pending segments have to give up
+	private volatile boolean abandoned;
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param input the {@link LysonParserMappedInput} providing the file to be parsed
+	 * @param parallelism the number of threads to be used
+	 * @param executor the long-lived {@link ExecutorService} parsing the segments, or 
+	 * null if threads are started for the parsing
+	 * @param ordered whether the events have to be dispatched in document order
+	 * @param exactNumbers whether decimal values are converted into BigDecimals 
+	 * @param lazyNumbers whether the conversion of numeric values is deferred
+	 */
+	LysonParserParallel(LysonParserMappedInput input, int parallelism, ExecutorService executor, 
+		boolean ordered, boolean exactNumbers, boolean lazyNumbers) {
+		this.input = input;
+		this.parallelism = parallelism;
+		this.executor = executor;
+		this.ordered = ordered;
+		this.exactNumbers = exactNumbers;
+		this.lazyNumbers = lazyNumbers;
+	}
+	
+	/**
+	 * Parses the file and propagates the {@link ParsingEvent}s using the {@link 
+	 * LysonParserHandlerDispatcher} passed as parameter - Returns false, without 
+	 * having read anything, if the file cannot be split and has to be parsed 
+	 * sequentially
+	 * 
+	 * @param dispatcher the {@link LysonParserHandlerDispatcher} to be used
+	 * 
+	 * @return true if the file has been parsed; false otherwise
+	 * 
+	 * @throws LysonParsingException if the file is not valid
+	 * @throws InterruptedException if interrupted while waiting for a segment
+	 */
+	boolean parse(LysonParserHandlerDispatcher dispatcher) throws InterruptedException {
+		ExecutorService executor = this.executor == null
+			?Executors.newFixedThreadPool(this.parallelism):this.executor;
+		try {
+			List<Segment> segments = new LysonParserSplitter(this.input.channel(), this.input.size(), 
+				executor).split(this.input.position(), this.parallelism * RANGES_PER_THREAD);
+			if(segments == null)
+				return false;
+			if(dispatcher.dispatch(new ArrayOpeningEventWrapper(new LysonParsingEvent(
+					ParsingEvent.JSON_ARRAY_OPENING).withPath(ParsingPath.ROOT)).withInnerIndex(-1))
+				&& dispatch(dispatcher, executor, segments)
+				&& dispatcher.dispatch(new LysonParsingEvent(ParsingEvent.JSON_ARRAY_CLOSING).withPath(ParsingPath.ROOT)))
+				dispatcher.dispatch(null);
+			this.input.close();
+			return true;
+		} finally {
+			if(executor != this.executor)
+				executor.shutdown();
+		}
+	}
+	
+	//parses the segments, keeping a bounded number of them ahead of the dispatching 
+	//of their events, and returns false if a handler has stopped the parsing
+	private boolean dispatch(LysonParserHandlerDispatcher dispatcher, ExecutorService executor, 
+		List<Segment> segments) throws InterruptedException {
+		CompletionService<Result> completion = new ExecutorCompletionService<>(executor);
+		Deque<Future<Result>> pending = new ArrayDeque<>();
+		int ahead = 2 * this.parallelism;
+		int next = 0;
+		try {
+			for(; next < segments.size() && next < ahead; next++) 
+				pending.add(completion.submit(read(segments.get(next))));
+			while(!pending.isEmpty()) {
+				Future<Result> future = this.ordered ? pending.poll() : completion.take();
+				if(!this.ordered)
+					pending.remove(future);
+				Result result = get(future);
+				if(next < segments.size())
+					pending.add(completion.submit(read(segments.get(next++))));
+				for(ParsingEvent event : result.events) {
+					if(!dispatcher.dispatch(event))
+						return false;
+				}
+				if(result.exception != null)
+					throw result.exception;
+			}
+			return true;
+		} finally {
+			this.abandoned = true;
+			LysonParserSplitter.join(pending);
+		}
+	}
+	
+	private Callable<Result> read(Segment segment) {
+		return () -> {
+			Result result = new Result();
+			LysonParserMappedInput in = new LysonParserMappedInput(this.input.channel(), segment.from, 
+				segment.to, LysonParserMappedInput.WINDOW_SIZE, false);
+			in.line = segment.line;
+			LysonParser parser = new LysonParser(in, segment.firstIndex
+				).withExactNumbers(this.exactNumbers).withLazyNumbers(this.lazyNumbers);
+			try {
+				for(ParsingEvent event = parser.read(); event != null && !this.abandoned; 
+					event = parser.read())
+					result.events.add(event);
+			} catch(LysonParsingException e) {
+				result.exception = e;
+			}
+			return result;
+		};
+	}
+	
+	private static Result get(Future<Result> future) throws InterruptedException {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			if(e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new LysonException(e.getCause());
+		}
+	}
+}
@@ -0,0 +1,182 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * {@link LysonParserByteInput} whose bytes are pushed by the caller, chunk by chunk - 
+ * Running out of bytes before the end of the input has been signaled raises a 
+ * {@link LysonParserUnderflow}. The bytes following the last mark are kept, so that
+ * the reading can be resumed from there once more bytes have been appended
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+final class LysonParserPushInput extends LysonParserByteInput {
+	
+	//contexts in which the scan of the pending bytes may stop
+	private static final int ANY = 0;
+	private static final int SPACE = 1;
+	private static final int WORD = 2;
+	private static final int STRING = 3;
+	private static final int ESCAPE = 4;
+	
+	private byte[] bytes;
+	private boolean ended;
+	
+	//number of marked bytes already scanned, context and string 
+	//delimiter where the scan stopped
+	private int scanned;
+	private int context;
+	private byte quote;
+	
+	/**
+	 * Constructor
+	 */
+	LysonParserPushInput() {
+		this.bytes = new byte[LysonParser.BUFFER_SIZE];
+		this.window = ByteBuffer.wrap(this.bytes);
+		this.ended = false;
+	}
+	
+	/**
+	 * Appends the remaining bytes of the {@link ByteBuffer} passed as parameter, 
+	 * discarding the ones preceding the last mark
+	 * 
+	 * @param chunk the {@link ByteBuffer} holding the bytes to append
+	 */
+	void append(ByteBuffer chunk) {
+		int n = chunk.remaining();
+		if(markedPos > 0) {
+			int kept = limit - markedPos;
+			System.arraycopy(this.bytes, markedPos, this.bytes, 0, kept);
+			pos -= markedPos;
+			limit = kept;
+			markedPos = 0;
+			invalidate();
+		}
+		if(limit + n > this.bytes.length) {
+			this.bytes = Arrays.copyOf(this.bytes, Math.max(limit + n, this.bytes.length << 1));
+			this.window = ByteBuffer.wrap(this.bytes);
+		}
+		chunk.get(this.bytes, limit, n);
+		limit += n;
+	}
+	
+	/**
+	 * Signals that no more bytes will be appended
+	 */
+	void end() {
+		this.ended = true;
+	}
+	
+	/**
+	 * Returns the number of bytes available after the last mark
+	 * 
+	 * @return the number of marked bytes
+	 */
+	int marked() {
+		return limit - markedPos;
+	}
+	
+	/**
+	 * Scans the bytes available after the last mark, so that {@link #resumable()} only has 
+	 * to scan the ones appended afterwards to tell whether the pending event may be complete
+	 */
+	void stopped() {
+		this.scanned = 0;
+		this.context = ANY;
+		scan();
+	}
+	
+	/**
+	 * Returns true if the bytes appended since the scan stopped may complete the pending 
+	 * event - Returns false if they only extend the string, word or white spaces it ran 
+	 * out of bytes in. The scan is resumed where it stopped
+	 * 
+	 * @return whether reading the pending event again may succeed
+	 */
+	boolean resumable() {
+		return scan();
+	}
+	
+	//moves the scan over the bytes appended since it stopped, and returns 
+	//true if one of them leaves the context it stopped in
+	private boolean scan() {
+		boolean resumable = this.context == ANY;
+		int p = markedPos + this.scanned;
+		for(; p < limit; p++) {
+			byte b = this.bytes[p];
+			switch(this.context) {
+				case ESCAPE:
+					this.context = STRING;
+					continue;
+				case STRING:
+					if(b == '\\') 
+						this.context = ESCAPE;
+					else if(b == this.quote) {
+						this.context = ANY;
+						resumable = true;
+					}
+					continue;
+				case WORD:
+					if(b < 0 || (b >= ' ' && !DELIMITERS[b])) 
+						continue;
+					break;
+				case SPACE:
+					if(b > 0 && b <= ' ') 
+						continue;
+					break;
+				default:
+					break;
+			}
+			resumable = true;
+			if(b > 0 && b <= ' ') 
+				this.context = SPACE;
+			else if(b == '"' || b == '\'') {
+				this.context = STRING;
+				this.quote = b;
+			} else if(b < 0 || (b > ' ' && !DELIMITERS[b])) 
+				this.context = WORD;
+			else 
+				this.context = ANY;
+		}
+		this.scanned = p - markedPos;
+		return resumable;
+	}
+
+	@Override
+	boolean fill() {
+		if(this.ended) 
+			return false;
+		throw LysonParserUnderflow.INSTANCE;
+	}
+
+	@Override
+	void close() {
+		this.ended = true;
+	}
+}
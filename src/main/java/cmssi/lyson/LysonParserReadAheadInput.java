@@ -0,0 +1,163 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link LysonParserChunkInput} reading the UTF-8 encoded bytes provided by an {@link InputStream} 
+ * ahead of the parsing : a dedicated I/O thread fills a chunk while the parser tokenizes the other 
+ * one. The two chunks are handed over through a lock-free two-slot exchange - the slot of the filled 
+ * chunk and the slot of the consumed one - each side only parking when the slot it waits for is empty
+ * <p>
+ * The I/O thread ends with the input: a LysonParserReadAheadInput whose end is not reached has to be 
+ * closed to release it
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+final class LysonParserReadAheadInput extends LysonParserChunkInput {
+
+	private static final Logger LOG = Logger.getLogger(LysonParserReadAheadInput.class.getName());
+	
+	private final InputStream input;
+	private final AtomicReference<Chunk> filled;
+	private final AtomicReference<Chunk> consumed;
+	private final Thread producer;
+	private volatile Thread consumer;
+	private volatile boolean closed;
+	
+	private boolean started;
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param input the {@link InputStream} providing the bytes
+	 */
+	LysonParserReadAheadInput(InputStream input) {
+		this.input = input;
+		this.filled = new AtomicReference<>();
+		this.consumed = new AtomicReference<>(new Chunk(new byte[LysonParser.BUFFER_SIZE], true));
+		Chunk first = new Chunk(new byte[LysonParser.BUFFER_SIZE], true);
+		this.producer = new Thread(() -> produce(first), "LysonParser-read-ahead");
+		this.producer.setDaemon(true);
+	}
+	
+	//I/O thread loop
+	private void produce(Chunk first) {
+		Chunk chunk = first;
+		while(chunk != null && !this.closed) {
+			int read = read(chunk.bytes);
+			chunk.eof = read < 0;
+			chunk.limit = HEAD + Math.max(0, read);
+			if(!publish(chunk) || chunk.eof) 
+				return;
+			chunk = take();
+		}
+	}
+	
+	//reads at least one byte, and as many as immediately available 
+	//and fitting the chunk, or returns -1 at the end of the input
+	private int read(byte[] bytes) {
+		int n = 0;
+		try {
+			while(HEAD + n < bytes.length) {
+				int read = this.input.read(bytes, HEAD + n, bytes.length - HEAD - n);
+				if(read < 0)
+					return n == 0 ? -1 : n;
+				n += read;
+				if(n > 0 && this.input.available() <= 0)
+					break;
+			}
+		} catch (IOException exc) {
+			if(!this.closed)
+				LOG.log(Level.FINE, exc.getMessage(), exc);
+			return n == 0 ? -1 : n;
+		}
+		return n;
+	}
+	
+	//hands the filled chunk over, once the previous one has been taken
+	private boolean publish(Chunk chunk) {
+		while(!this.filled.compareAndSet(null, chunk)) {
+			if(this.closed)
+				return false;
+			LockSupport.park(this);
+		}
+		Thread waiting = this.consumer;
+		if(waiting != null)
+			LockSupport.unpark(waiting);
+		return true;
+	}
+	
+	//takes back a consumed chunk, or returns null if closed
+	private Chunk take() {
+		Chunk chunk;
+		while((chunk = this.consumed.getAndSet(null)) == null) {
+			if(this.closed)
+				return null;
+			LockSupport.park(this);
+		}
+		return chunk;
+	}
+
+	@Override
+	Chunk next() {
+		if(!this.started) {
+			this.started = true;
+			this.producer.start();
+		}
+		Chunk next;
+		while((next = this.filled.getAndSet(null)) == null) {
+			this.consumer = Thread.currentThread();
+			if(this.filled.get() == null)
+				LockSupport.park(this);
+		}
+		LockSupport.unpark(this.producer);
+		return next;
+	}
+	
+	@Override
+	void give(Chunk chunk) {
+		this.consumed.set(chunk);
+		LockSupport.unpark(this.producer);
+	}
+
+	@Override
+	void close() {
+		this.closed = true;
+		this.eof = true;
+		LockSupport.unpark(this.producer);
+		try {
+			this.input.close();
+		} catch (IOException exc) {
+        	LOG.log(Level.FINE, exc.getMessage(), exc);
+		}
+	}
+}
@@ -0,0 +1,172 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link LysonParserInput} reading the characters provided by a {@link Reader}
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+final class LysonParserReaderInput extends LysonParserInput {
+
+	private static final Logger LOG = Logger.getLogger(LysonParserReaderInput.class.getName());
+	
+    private Reader reader;
+    
+	private char[] buffer = LysonParserBuffers.chars();
+	private int pos = 0;
+	private int length = 0;
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param reader the {@link Reader} providing the characters
+	 */
+	LysonParserReaderInput(Reader reader) {
+		this.reader = reader;
+	}
+	
+	/**
+	 * Makes this LysonParserReaderInput read the characters provided by the 
+	 * {@link Reader} passed as parameter, from line and column 0, reusing its 
+	 * buffers - The previous Reader is closed
+	 * 
+	 * @param reader the new {@link Reader} providing the characters
+	 */
+	void reset(Reader reader) {
+		closeReader();
+		this.reader = reader;
+		if(this.buffer == null)
+			this.buffer = LysonParserBuffers.chars();
+		pos = 0;
+		length = 0;
+		line = 0;
+		column = 0;
+		skipDepth = 0;
+	}
+	
+	@Override
+	char current() {
+    	if(pos >= length) {
+    		if(buffer == null)
+    			return LysonParser.EOF;
+    		if(this.view.array == buffer) 
+    			pin();
+    		length = -1;
+            try {
+                length = this.reader.read(buffer, 0, LysonParser.BUFFER_SIZE);
+                pos = 0;
+                if(length == -1) {
+                	this.reader.close();
+                	return LysonParser.EOF;
+                }
+            } catch (IOException exc) {
+            	LOG.log(Level.FINE, exc.getMessage(), exc);
+            	return 0;
+            }
+    	}
+        return buffer[pos];
+	}
+
+	@Override
+	void moveOn() {
+        pos+=1;
+        column+=1;
+	}
+
+	@Override
+	String readString(char q) {
+		moveOn();
+		int start = pos;
+		if(plain(q)) {
+			String s = new String(buffer, start, pos - start);
+			moveOn();
+			return s;
+		}
+		int n = readRest(q, copy(start));
+		return new String(this.chars, 0, n);
+	}
+
+	@Override
+	LysonString readStringView(char q) {
+		moveOn();
+		int start = pos;
+		if(plain(q)) {
+			this.view.with(buffer, start, pos - start);
+			moveOn();
+			return this.view;
+		}
+		int n = readRest(q, copy(start));
+		return this.view.with(this.chars, 0, n);
+	}
+	
+	//moves over the string characters, within the buffer, needing neither 
+	//decoding nor checking, and returns true if the closing delimiter is met
+	private boolean plain(char q) {
+		while(pos < length) {
+			char c = buffer[pos];
+			if(c == q)
+				return true;
+			if(c < ' ' || c == '\\')
+				return false;
+			pos+=1;
+			column+=1;
+		}
+		return false;
+	}
+	
+	//copies the buffer characters from start to pos into the chars buffer
+	private int copy(int start) {
+		int n = pos - start;
+		if(n > this.chars.length)
+			this.chars = new char[Math.max(n, this.chars.length << 1)];
+		System.arraycopy(buffer, start, this.chars, 0, n);
+		return n;
+	}
+	
+	@Override
+	void close() {
+		closeReader();
+		if(this.view.array == buffer) 
+			pin();
+		LysonParserBuffers.release(this.buffer);
+		this.buffer = null;
+		pos = 0;
+		length = 0;
+	}
+	
+	private void closeReader() {
+		try {
+			this.reader.close();
+		} catch (IOException exc) {
+        	LOG.log(Level.FINE, exc.getMessage(), exc);
+		}
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+import cmssi.lyson.event.ParsingEvent;
+
+/**
+ * {@link Spliterator} over the {@link ParsingEvent}s of a {@link LysonParser}, reading 
+ * them as they are requested - It splits by reading a batch of events ahead, growing from 
+ * one split to the next, which is handed over to the thread processing the split. When 
+ * reading multiple documents, a batch is extended to the end of the document it reaches, 
+ * so that documents are handed over whole. The {@link LysonParser} is closed once its 
+ * last event has been read
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+final class LysonParserSpliterator implements Spliterator<ParsingEvent> {
+	
+	static final int BATCH_UNIT = 1 << 10;
+	static final int MAX_BATCH = 1 << 25;
+	
+	private final LysonParser parser;
+	private final boolean splittable;
+	private final boolean documents;
+	private int batch;
+	private boolean done;
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param parser the {@link LysonParser} reading the events
+	 * @param splittable whether events can be read ahead - They cannot when reused
+	 * @param documents whether batches are extended to the end of a document
+	 */
+	LysonParserSpliterator(LysonParser parser, boolean splittable, boolean documents) {
+		this.parser = parser;
+		this.splittable = splittable;
+		this.documents = documents;
+	}
+	
+	private ParsingEvent read() {
+		if(this.done)
+			return null;
+		ParsingEvent event = this.parser.read();
+		if(event == null) {
+			this.done = true;
+			this.parser.close();
+		}
+		return event;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super ParsingEvent> action) {
+		ParsingEvent event = read();
+		if(event == null)
+			return false;
+		action.accept(event);
+		return true;
+	}
+	
+	@Override
+	public void forEachRemaining(Consumer<? super ParsingEvent> action) {
+		ParsingEvent event;
+		while((event = read()) != null)
+			action.accept(event);
+	}
+
+	@Override
+	public Spliterator<ParsingEvent> trySplit() {
+		if(!this.splittable || this.done)
+			return null;
+		int n = Math.min(this.batch + BATCH_UNIT, MAX_BATCH);
+		ParsingEvent[] events = new ParsingEvent[n];
+		int count = 0;
+		ParsingEvent event;
+		while((count < n || this.documents && this.parser.depth() > 0 && count < MAX_BATCH)
+			&& (event = read()) != null) {
+			if(count == events.length)
+				events = Arrays.copyOf(events, Math.min(count << 1, MAX_BATCH));
+			events[count++] = event;
+		}
+		if(count == 0)
+			return null;
+		this.batch = count;
+		return Spliterators.spliterator(events, 0, count, characteristics());
+	}
+
+	@Override
+	public long estimateSize() {
+		return Long.MAX_VALUE;
+	}
+
+	@Override
+	public int characteristics() {
+		return Spliterator.ORDERED | Spliterator.NONNULL;
+	}
+}
@@ -0,0 +1,490 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import cmssi.lyson.exception.LysonException;
+
+/**
+ * Splits a file holding a JSON Array into segments of consecutive elements that can be parsed 
+ * concurrently. The file is divided into byte ranges, each of them being scanned in parallel 
+ * under the three hypotheses it may start with : outside of any string, inside a double quoted 
+ * string, or inside a single quoted one. Chaining the end states of the ranges from the first 
+ * one gives the actual state and nesting depth each range starts with, so that a second parallel 
+ * scan can find the first top-level separator of each range and count the elements up to the 
+ * next range's one. The segments are cut right after those separators, where a parser reading 
+ * the elements of the root JSON Array can start over. The scans are never interrupted, 
+ * as an interrupted thread mapping a window would close the channel shared with the parser : 
+ * once the splitting is over they are told to give up, and waited for
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+final class LysonParserSplitter {
+	
+	/**
+	 * A range of bytes holding consecutive elements of the root JSON Array
+	 */
+	static final class Segment {
+		
+		final long from;
+		final long to;
+		final int firstIndex;
+		final int line;
+		
+		Segment(long from, long to, int firstIndex, int line) {
+			this.from = from;
+			this.to = to;
+			this.firstIndex = firstIndex;
+			this.line = line;
+		}
+	}
+	
+	//minimum number of bytes of a range
+	static final int MIN_RANGE_SIZE = 1 << 12;
+	//maximum number of bytes of a range
+	static final int MAX_RANGE_SIZE = 1 << 23;
+	//mask of the positions at which a scan checks whether it has been abandoned
+	private static final long CHECK_MASK = (1 << 12) - 1;
+	
+	//scanning states 
+	private static final int OUT = 0;
+	private static final int DOUBLE_QUOTED = 1;
+	private static final int DOUBLE_QUOTED_ESCAPE = 2;
+	private static final int SINGLE_QUOTED = 3;
+	private static final int SINGLE_QUOTED_ESCAPE = 4;
+	
+	//the hypotheses a range is scanned with
+	private static final int[] HYPOTHESES = {OUT, DOUBLE_QUOTED, SINGLE_QUOTED};
+	
+	private static int string(int state, byte b) {
+		switch(state) {
+			case DOUBLE_QUOTED:
+				return b == '\\' ? DOUBLE_QUOTED_ESCAPE : b == '"' ? OUT : DOUBLE_QUOTED;
+			case SINGLE_QUOTED:
+				return b == '\\' ? SINGLE_QUOTED_ESCAPE : b == '\'' ? OUT : SINGLE_QUOTED;
+			case DOUBLE_QUOTED_ESCAPE:
+				return DOUBLE_QUOTED;
+			default:
+				return SINGLE_QUOTED;
+		}
+	}
+	
+	private static boolean space(byte b) {
+		return b > 0 && b <= ' ';
+	}
+	
+	/**
+	 * Random access to the bytes of the file through a mapped window
+	 */
+	private static final class Bytes {
+		
+		private final FileChannel channel;
+		private final long size;
+		private MappedByteBuffer window;
+		private long offset;
+		private long end;
+		
+		Bytes(FileChannel channel, long size) {
+			this.channel = channel;
+			this.size = size;
+			this.offset = 0;
+			this.end = 0;
+		}
+		
+		byte get(long position) {
+			if(position < this.offset || position >= this.end) 
+				map(position < this.offset ? Math.max(0, position - (LysonParserMappedInput.WINDOW_SIZE >> 1)) : position);
+			return this.window.get((int)(position - this.offset));
+		}
+		
+		private void map(long from) {
+			long to = Math.min(this.size, from + LysonParserMappedInput.WINDOW_SIZE);
+			try {
+				this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+			} catch (IOException e) {
+				throw new LysonException(e);
+			}
+			this.offset = from;
+			this.end = to;
+		}
+	}
+	
+	private final FileChannel channel;
+	private final long size;
+	private final ExecutorService executor;
+	//whether the pending scans have to give up
+	private volatile boolean abandoned;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param channel the {@link FileChannel} of the file to be split
+	 * @param size the size of the content to be split
+	 * @param executor the ExecutorService running the scans
+	 */
+	LysonParserSplitter(FileChannel channel, long size, ExecutorService executor) {
+		this.channel = channel;
+		this.size = size;
+		this.executor = executor;
+	}
+	
+	/**
+	 * Splits the content starting at the position passed as parameter into at most 
+	 * the specified number of {@link Segment}s - Returns null if this content does not 
+	 * start with a JSON Array, is too small to be split, or if its root JSON Array is 
+	 * not properly closed, in which case the content is to be parsed sequentially
+	 * 
+	 * @param from the position of the content to be split
+	 * @param ranges the maximum number of ranges to divide the content into 
+	 * 
+	 * @return the list of {@link Segment}s
+	 * 
+	 * @throws InterruptedException if interrupted while waiting for the scans
+	 */
+	List<Segment> split(long from, int ranges) throws InterruptedException {
+		Bytes bytes = new Bytes(this.channel, this.size);
+		long opening = from;
+		int line = 0;
+		for(; opening < this.size && space(bytes.get(opening)); opening++) {
+			if(bytes.get(opening) == '\n')
+				line+=1;
+		}
+		if(opening >= this.size || bytes.get(opening) != '[')
+			return null;
+		long start = opening + 1;
+		long length = this.size - start;
+		int count = (int) Math.min(ranges, length / MIN_RANGE_SIZE);
+		count = (int) Math.max(count, (length + MAX_RANGE_SIZE - 1) / MAX_RANGE_SIZE);
+		if(count < 2)
+			return null;
+		
+		//a range cannot start right after a backslash, so that 
+		//it never starts in the middle of an escape sequence
+		long[] bounds = new long[count + 1];
+		bounds[0] = start;
+		for(int i = 1; i < count; i++) {
+			long bound = Math.max(bounds[i - 1], start + (length * i) / count);
+			while(bound < this.size && bytes.get(bound - 1) == '\\')
+				bound+=1;
+			bounds[i] = bound;
+		}
+		bounds[count] = this.size;
+		
+		//the end state of the last range is useless
+		List<Future<int[]>> scans = new ArrayList<>(count - 1);
+		List<Future<long[]>> counts = new ArrayList<>(count);
+		try {
+			for(int i = 0; i < count - 1; i++) {
+				final long low = bounds[i];
+				final long high = bounds[i + 1];
+				scans.add(this.executor.submit(() -> scan(low, high)));
+			}
+			int[] states = new int[count];
+			int[] depths = new int[count];
+			int[] lines = new int[count];
+			states[0] = OUT;
+			depths[0] = 1;
+			lines[0] = line;
+			for(int i = 0; i < count - 1; i++) {
+				int[] scan = get(scans.get(i));
+				int hypothesis = states[i] == OUT ? 0 : states[i] == DOUBLE_QUOTED ? 1 : 2;
+				states[i + 1] = scan[2 * hypothesis];
+				depths[i + 1] = depths[i] + scan[2 * hypothesis + 1];
+				lines[i + 1] = lines[i] + scan[6];
+			}
+			
+			for(int i = 0; i < count; i++) {
+				final int range = i;
+				counts.add(this.executor.submit(() -> count(bounds, range, states[range], depths[range])));
+			}
+			List<Segment> segments = new ArrayList<>(count);
+			long previous = start;
+			long index = 0;
+			for(int i = 0; i < count; i++) {
+				long[] counted = get(counts.get(i));
+				if(counted == null)
+					continue;
+				//the separator found by the range and the end of the previous segment 
+				//can only differ if the content is not valid JSON
+				if(counted[0] != previous || index > Integer.MAX_VALUE)
+					return null;
+				segments.add(new Segment(counted[0], counted[1], (int) index, lines[i] + (int) counted[3]));
+				index += counted[2];
+				previous = counted[1];
+				if(counted[4] != 0)
+					return closed(bytes, previous) ? segments : null;
+			}
+			return null;
+		} finally {
+			this.abandoned = true;
+			join(scans);
+			join(counts);
+		}
+	}
+	
+	/**
+	 * Waits for the {@link Future}s passed as parameter to be done, without cancelling 
+	 * them : a task interrupted while mapping a window of a {@link FileChannel} would 
+	 * close it. Their results and failures are ignored. If the calling thread is 
+	 * interrupted, it stops waiting and its interrupted status is restored
+	 * 
+	 * @param futures the {@link Future}s to wait for
+	 */
+	static void join(Collection<? extends Future<?>> futures) {
+		for(Future<?> future : futures) {
+			try {
+				future.get();
+			} catch (ExecutionException | RuntimeException e) {
+				//already handled, or abandoned
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+	
+	//returns true if the root JSON Array is closed at the position passed as parameter 
+	//and only followed by white spaces, as the parser would read any following content
+	private boolean closed(Bytes bytes, long position) {
+		if(position >= this.size || bytes.get(position) != ']')
+			return false;
+		for(long p = position + 1; p < this.size; p++) {
+			byte b = bytes.get(p);
+			if(b != 0 && !space(b))
+				return false;
+		}
+		return true;
+	}
+	
+	private static <T> T get(Future<T> future) throws InterruptedException {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			if(e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new LysonException(e.getCause());
+		}
+	}
+	
+	//scans the range under each hypothesis, returning the end state and depth 
+	//variation for each of them, followed by the number of lines of the range
+	private int[] scan(long from, long to) {
+		Bytes bytes = new Bytes(this.channel, this.size);
+		int[] states = new int[HYPOTHESES.length];
+		int[] depths = new int[HYPOTHESES.length];
+		System.arraycopy(HYPOTHESES, 0, states, 0, HYPOTHESES.length);
+		int lines = 0;
+		for(long p = from; p < to; p++) {
+			if((p & CHECK_MASK) == 0 && this.abandoned)
+				return null;
+			byte b = bytes.get(p);
+			if(b == '\n')
+				lines+=1;
+			for(int h = 0; h < states.length; h++) {
+				if(states[h] != OUT) {
+					states[h] = string(states[h], b);
+					continue;
+				}
+				switch(b) {
+					case '"':
+						states[h] = DOUBLE_QUOTED;
+						break;
+					case '\'':
+						states[h] = SINGLE_QUOTED;
+						break;
+					case '[':
+					case '{':
+						depths[h]+=1;
+						break;
+					case ']':
+					case '}':
+						depths[h]-=1;
+						break;
+					default:
+						break;
+				}
+			}
+		}
+		int[] scan = new int[2 * HYPOTHESES.length + 1];
+		for(int h = 0; h < states.length; h++) {
+			scan[2 * h] = states[h];
+			scan[2 * h + 1] = depths[h];
+		}
+		scan[6] = lines;
+		return scan;
+	}
+	
+	//returns true if the separator at the position passed as parameter follows 
+	//an element, rather than standing for an empty one
+	private static boolean follows(Bytes bytes, long position) {
+		long p = position - 1;
+		while(space(bytes.get(p)))
+			p-=1;
+		byte b = bytes.get(p);
+		return b != '[' && b != ',' && b != ';';
+	}
+	
+	//starting from the actual state and depth of the range, finds its first top-level 
+	//separator following an element, and counts the elements from there up to the 
+	//first one of the next ranges or the closing of the root JSON Array. Returns the 
+	//position following the separator, the end position, the number of elements, the 
+	//number of lines before the separator and whether the root JSON Array is closed, 
+	//or null if the range does not hold such a separator
+	private long[] count(long[] bounds, int range, int initialState, int initialDepth) {
+		Bytes bytes = new Bytes(this.channel, this.size);
+		int state = initialState;
+		int depth = initialDepth;
+		long p = bounds[range];
+		long lines = 0;
+		if(range > 0) {
+			boolean found = false;
+			for(; !found && p < bounds[range + 1]; p++) {
+				if((p & CHECK_MASK) == 0 && this.abandoned)
+					return null;
+				byte b = bytes.get(p);
+				if(b == '\n')
+					lines+=1;
+				if(state != OUT) {
+					state = string(state, b);
+					continue;
+				}
+				switch(b) {
+					case '"':
+						state = DOUBLE_QUOTED;
+						break;
+					case '\'':
+						state = SINGLE_QUOTED;
+						break;
+					case '[':
+					case '{':
+						depth+=1;
+						break;
+					case ']':
+					case '}':
+						if(--depth == 0)
+							return null;
+						break;
+					case ',':
+					case ';':
+						found = depth == 1 && follows(bytes, p);
+						break;
+					default:
+						break;
+				}
+			}
+			if(!found)
+				return null;
+		}
+		long from = p;
+		long next = range + 1 < bounds.length - 1 ? bounds[range + 1] : Long.MAX_VALUE;
+		long elements = 0;
+		//whether the last element read may be followed by its separator
+		boolean pending = false;
+		boolean unquoted = false;
+		for(; p < this.size; p++) {
+			if((p & CHECK_MASK) == 0 && this.abandoned)
+				return null;
+			byte b = bytes.get(p);
+			if(state != OUT) {
+				state = string(state, b);
+				pending = state == OUT && depth == 1;
+				continue;
+			}
+			if(depth > 1) {
+				switch(b) {
+					case '"':
+						state = DOUBLE_QUOTED;
+						break;
+					case '\'':
+						state = SINGLE_QUOTED;
+						break;
+					case '[':
+					case '{':
+						depth+=1;
+						break;
+					case ']':
+					case '}':
+						pending = --depth == 1;
+						break;
+					default:
+						break;
+				}
+				continue;
+			}
+			if(unquoted) {
+				if(b < 0 || (b >= ' ' && !LysonParserInput.DELIMITERS[b]))
+					continue;
+				unquoted = false;
+				pending = true;
+			}
+			switch(b) {
+				case ',':
+				case ';':
+					if(!pending) {
+						elements+=1;
+						break;
+					}
+					pending = false;
+					//the next range starts with its first separator at or after its 
+					//bound, even if the bound follows a separator right away
+					if(p >= next)
+						return new long[] {from, p + 1, elements, lines, 0};
+					break;
+				case '"':
+				case '\'':
+					elements+=1;
+					pending = false;
+					state = b == '"' ? DOUBLE_QUOTED : SINGLE_QUOTED;
+					break;
+				case '[':
+				case '{':
+					elements+=1;
+					pending = false;
+					depth+=1;
+					break;
+				case ']':
+				case '}':
+					return new long[] {from, p, elements, lines, 1};
+				default:
+					if(b > ' ' || b < 0) {
+						elements+=1;
+						pending = false;
+						unquoted = true;
+					}
+					break;
+			}
+		}
+		return new long[] {from, this.size, elements, lines, 1};
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link LysonParserByteInput} reading the UTF-8 encoded bytes provided by an 
+ * {@link InputStream} into a reused bytes array
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+final class LysonParserStreamInput extends LysonParserByteInput {
+
+	private static final Logger LOG = Logger.getLogger(LysonParserStreamInput.class.getName());
+	
+	private InputStream input;
+	private byte[] bytes;
+	private boolean eof;
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param input the {@link InputStream} providing the bytes
+	 */
+	LysonParserStreamInput(InputStream input) {
+		this.input = input;
+		this.bytes = LysonParserBuffers.bytes();
+		this.window = ByteBuffer.wrap(this.bytes);
+		this.eof = false;
+	}
+	
+	/**
+	 * Makes this LysonParserStreamInput read the bytes provided by the 
+	 * {@link InputStream} passed as parameter, from line and column 0, 
+	 * reusing its buffers - The previous InputStream is closed
+	 * 
+	 * @param input the new {@link InputStream} providing the bytes
+	 */
+	void reset(InputStream input) {
+		closeInput();
+		this.input = input;
+		if(this.bytes == null) {
+			this.bytes = LysonParserBuffers.bytes();
+			this.window = ByteBuffer.wrap(this.bytes);
+		}
+		this.eof = false;
+		restart(0, 0);
+	}
+
+	/**
+	 * Returns the {@link InputStream} read by this LysonParserStreamInput if none 
+	 * of its bytes has been read yet, releasing the buffers of this input which 
+	 * cannot be used anymore - Returns null otherwise
+	 * 
+	 * @return the not yet read {@link InputStream}, or null
+	 */
+	InputStream detach() {
+		if(this.eof || this.bytes == null || limit > 0)
+			return null;
+		this.eof = true;
+		LysonParserBuffers.release(this.bytes);
+		this.bytes = null;
+		return this.input;
+	}
+	
+	@Override
+	boolean fill() {
+		if(this.eof) 
+			return false;
+		int remaining = limit - pos;
+		if(remaining > 0 && pos > 0) 
+			System.arraycopy(this.bytes, pos, this.bytes, 0, remaining);
+		pos = 0;
+		limit = remaining;
+		if(limit == this.bytes.length) 
+			return false;
+		try {
+			int read = 0;
+			while(read == 0) 
+				read = this.input.read(this.bytes, limit, this.bytes.length - limit);
+			if(read > 0) {
+				limit += read;
+				return true;
+			}
+		} catch (IOException exc) {
+        	LOG.log(Level.FINE, exc.getMessage(), exc);
+		}
+		this.eof = true;
+		closeInput();
+		return false;
+	}
+
+	@Override
+	void close() {
+		closeInput();
+		this.eof = true;
+		LysonParserBuffers.release(this.bytes);
+		this.bytes = null;
+		pos = 0;
+		limit = 0;
+	}
+	
+	private void closeInput() {
+		try {
+			this.input.close();
+		} catch (IOException exc) {
+        	LOG.log(Level.FINE, exc.getMessage(), exc);
+		}
+	}
+}
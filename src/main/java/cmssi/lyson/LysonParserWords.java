@@ -0,0 +1,131 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+/**
+ * Word at a time (SWAR) scanning helpers : eight bytes read as a single long are tested 
+ * together against the bytes ending a run, so that long runs of string characters or 
+ * white spaces are crossed with a few arithmetic operations per word instead of a branch 
+ * per byte. The tests only tell whether such a byte is present in the word, whatever its 
+ * byte order, the exact position being found by the byte by byte loop that follows
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+final class LysonParserWords {
+	
+	static final int WORD = Long.BYTES;
+	
+	private static final long ONES = 0x0101010101010101L;
+	private static final long HIGHS = 0x8080808080808080L;
+	
+	private static final long SPACES = 0x2020202020202020L;
+	private static final long BACKSLASHES = ONES * '\\';
+	private static final long CONTROLS = ONES * ' ';
+	
+	private LysonParserWords() {}
+	
+	/**
+	 * Returns the word whose eight bytes are all equal to the one passed as 
+	 * parameter
+	 * 
+	 * @param b the byte to repeat
+	 * 
+	 * @return the repeated byte word
+	 */
+	static long repeat(char b) {
+		return ONES * (b & 0xFF);
+	}
+
+	//returns non zero if one of the bytes of the word is zero
+	private static long zero(long w) {
+		return (w - ONES) & ~w & HIGHS;
+	}
+
+	/**
+	 * Returns true if the word contains a byte ending a run of string characters : 
+	 * the quote repeated in the quotes word passed as parameter, a backslash or a 
+	 * control character
+	 * 
+	 * @param w the word to test
+	 * @param quotes the repeated string delimiter 
+	 * 
+	 * @return true if the word has to be scanned byte by byte
+	 */
+	static boolean stringEnd(long w, long quotes) {
+		return (zero(w ^ quotes) | zero(w ^ BACKSLASHES) | ((w - CONTROLS) & ~w & HIGHS)) != 0;
+	}
+
+	/**
+	 * Returns true if none of the bytes of the word belongs to a multi-bytes 
+	 * sequence
+	 * 
+	 * @param w the word to test
+	 * 
+	 * @return true if the word only holds ASCII characters
+	 */
+	static boolean ascii(long w) {
+		return (w & HIGHS) == 0;
+	}
+
+	/**
+	 * Returns true if the word contains the byte repeated in the word passed as 
+	 * parameter
+	 * 
+	 * @param w the word to test
+	 * @param repeated the repeated byte to look for
+	 * 
+	 * @return true if the word contains the byte
+	 */
+	static boolean contains(long w, long repeated) {
+		return zero(w ^ repeated) != 0;
+	}
+
+	/**
+	 * Returns the number of occurrences in the word of the byte repeated in the 
+	 * word passed as parameter
+	 * 
+	 * @param w the word to test
+	 * @param repeated the repeated byte to count
+	 * 
+	 * @return the number of occurrences of the byte
+	 */
+	static int count(long w, long repeated) {
+		long t = w ^ repeated;
+		//unlike zero(long), exact for each byte as no borrow crosses the bytes
+		long y = (t & ~HIGHS) + ~HIGHS;
+		return Long.bitCount(~(y | t | ~HIGHS));
+	}
+
+	/**
+	 * Returns true if all the bytes of the word are spaces
+	 * 
+	 * @param w the word to test
+	 * 
+	 * @return true if the word is a run of spaces
+	 */
+	static boolean spaces(long w) {
+		return w == SPACES;
+	}
+}
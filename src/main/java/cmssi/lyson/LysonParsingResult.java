@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import cmssi.lyson.exception.LysonException;
+import cmssi.lyson.handler.LysonParserHandler;
+
+/**
+ * Outcome of the parsing of one of the inputs of a batch, holding the {@link LysonParserHandler} 
+ * created for it and the {@link LysonException} which made its parsing fail, if any
+ * 
+ * @param <T> the type of the parsed input
+ * @param <H> the type of the {@link LysonParserHandler}
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ * 
+ * @see LysonParser#parseAll(java.util.Collection, java.util.function.Function)
+ */
+public final class LysonParsingResult<T, H extends LysonParserHandler> {
+
+	private final T input;
+	private final H handler;
+	private final LysonException failure;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param input the parsed input
+	 * @param handler the {@link LysonParserHandler} created for the input, 
+	 * or null if it could not be created
+	 * @param failure the {@link LysonException} which made the parsing fail, 
+	 * or null if it succeeded
+	 */
+	LysonParsingResult(T input, H handler, LysonException failure) {
+		this.input = input;
+		this.handler = handler;
+		this.failure = failure;
+	}
+	
+	/**
+	 * Returns the parsed input
+	 * 
+	 * @return the parsed input
+	 */
+	public T getInput() {
+		return this.input;
+	}
+
+	/**
+	 * Returns the {@link LysonParserHandler} the events of the input have been 
+	 * propagated to, or null if the handler factory failed
+	 * 
+	 * @return the {@link LysonParserHandler} of the input
+	 */
+	public H getHandler() {
+		return this.handler;
+	}
+
+	/**
+	 * Returns the {@link LysonException} which made the parsing of the input 
+	 * fail - a {@link cmssi.lyson.exception.LysonParsingException} if it is 
+	 * not valid - or null if it succeeded
+	 * 
+	 * @return the failure of the parsing
+	 */
+	public LysonException getFailure() {
+		return this.failure;
+	}
+	
+	/**
+	 * Returns true if the input has been parsed without failure
+	 * 
+	 * @return whether the parsing succeeded
+	 */
+	public boolean isSuccessful() {
+		return this.failure == null;
+	}
+}
@@ -0,0 +1,224 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import cmssi.lyson.event.ParsingEvent;
+import cmssi.lyson.exception.LysonParsingException;
+import cmssi.lyson.handler.LysonParserHandler;
+import cmssi.lyson.handler.LysonParserOverflowPolicy;
+
+/**
+ * Non-blocking JSON parser, fed with the UTF-8 encoded bytes of a document as they arrive, and 
+ * propagating the complete {@link ParsingEvent}s available after each chunk to its set of {@link 
+ * LysonParserHandler}s. An event whose bytes are not all available yet, whether it is in the 
+ * middle of a string, a number or an escape sequence, is resumed when the next chunk is fed. 
+ * A LysonPushParser is not thread safe : chunks of a same document must be fed sequentially
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+public class LysonPushParser {
+
+	//size of the pending bytes from which a retry waits for the bytes which may complete them
+	private static final int RETRY_THRESHOLD = 4096;
+	
+	private final LysonParserHandler[] handlers;
+	private final LysonParserPushInput input;
+	private final LysonParser parser;
+	
+	private LysonParserDispatchMode dispatchMode;
+	private ExecutorService executor;
+	private LysonParserOverflowPolicy overflowPolicy;
+	private volatile LysonParserHandlerDispatcher dispatcher;
+	
+	private boolean done;
+	private boolean skipping;
+	private boolean resuming;
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param handlers the {@link LysonParserHandler}s to which propagating 
+	 * the parsing events
+	 */
+	public LysonPushParser(LysonParserHandler... handlers) {
+		this.handlers = handlers==null?new LysonParserHandler[0]:handlers;
+		this.input = new LysonParserPushInput();
+		this.parser = new LysonParser(this.input);
+		this.done = this.handlers.length == 0;
+		this.resuming = false;
+	}
+
+    /**
+     * Defines the {@link LysonParserDispatchMode} used to propagate the parsing 
+     * events to the {@link LysonParserHandler}s - It has to be called before the 
+     * first chunk is fed. By default, they are called inline by the feeding thread, 
+     * whatever their number, so that no thread is held between chunks: the threads 
+     * of the pipelined or queued handlers wait for the next chunk until the end of 
+     * the document
+     * 
+     * @param dispatchMode the {@link LysonParserDispatchMode} to be used
+     * 
+     * @return this LysonPushParser
+     */
+	public LysonPushParser withDispatchMode(LysonParserDispatchMode dispatchMode) {
+		this.dispatchMode = dispatchMode;
+		return this;
+	}
+
+    /**
+     * Defines the long-lived {@link ExecutorService} calling the {@link LysonParserHandler}s 
+     * when they are not called inline, which is never shut down by this LysonPushParser - It 
+     * has to be called before the first chunk is fed
+     * 
+     * @param executor the {@link ExecutorService} to be used
+     * 
+     * @return this LysonPushParser
+     * 
+     * @see LysonParser#withExecutor(ExecutorService)
+     */
+	public LysonPushParser withExecutor(ExecutorService executor) {
+		this.executor = executor;
+		return this;
+	}
+
+    /**
+     * Defines the {@link LysonParserOverflowPolicy} applying to the {@link LysonParserHandler}s 
+     * which do not define their own, in {@link LysonParserDispatchMode#QUEUED} mode - It has to 
+     * be called before the first chunk is fed
+     * 
+     * @param overflowPolicy the {@link LysonParserOverflowPolicy} to be used
+     * 
+     * @return this LysonPushParser
+     * 
+     * @see LysonParser#withOverflowPolicy(LysonParserOverflowPolicy)
+     */
+	public LysonPushParser withOverflowPolicy(LysonParserOverflowPolicy overflowPolicy) {
+		this.overflowPolicy = overflowPolicy;
+		return this;
+	}
+	
+	/**
+	 * Returns the {@link LysonParserHandlerMetrics} of the {@link LysonParserHandler}s, 
+	 * which are only available in {@link LysonParserDispatchMode#QUEUED} mode once the 
+	 * first chunk has been fed
+	 * 
+	 * @return the List of {@link LysonParserHandlerMetrics} of the handlers
+	 */
+	public List<LysonParserHandlerMetrics> metrics() {
+		LysonParserHandlerDispatcher current = this.dispatcher;
+		return current == null?Collections.emptyList():current.metrics();
+	}
+	
+	/**
+	 * Returns true if the parsing is over, either because the end of the input has 
+	 * been reached, because an error occurred, or because no handler asks for more 
+	 * events
+	 * 
+	 * @return true if the parsing is over; false otherwise
+	 */
+	public boolean isDone() {
+		return this.done;
+	}
+	
+	/**
+	 * Feeds this LysonPushParser with the remaining bytes of the {@link ByteBuffer} 
+	 * passed as parameter, and propagates the parsing events that are now complete
+	 * 
+	 * @param chunk the {@link ByteBuffer} holding the next bytes of the document
+	 * 
+	 * @return true if more bytes are expected; false if the parsing is over
+	 */
+	public boolean feed(ByteBuffer chunk) {
+		if(this.done) 
+			return false;
+		this.input.append(chunk);
+		//avoid rescanning over and over again a large pending event : only 
+		//the appended bytes are scanned for the ones which may complete it
+		if(this.resuming && !this.input.resumable()) 
+			return true;
+		return drain();
+	}
+	
+	/**
+	 * Signals the end of the input and propagates the remaining parsing events
+	 */
+	public void endOfInput() {
+		if(this.done) 
+			return;
+		this.input.end();
+		drain();
+	}
+	
+	private boolean drain() {
+		if(this.dispatcher == null) 
+			this.dispatcher = LysonParser.dispatcher(this.dispatchMode == null
+				?LysonParserDispatchMode.INLINE:this.dispatchMode, this.executor, 
+				this.overflowPolicy, this.handlers);
+		try {
+			for(;;) {
+				if(this.skipping) {
+					try {
+						this.parser.skipChildren();
+					} catch(LysonParserUnderflow u) {
+						//the skipping is resumed from here with the next chunk
+						this.input.mark();
+						this.resuming = false;
+						return true;
+					}
+					this.skipping = false;
+				}
+				this.parser.markState();
+				this.input.mark();
+				ParsingEvent event = null;
+				try {
+					event = this.parser.read();
+				} catch(LysonParserUnderflow u) {
+					this.parser.restoreState();
+					this.input.reset();
+					this.resuming = this.input.marked() >= RETRY_THRESHOLD;
+					if(this.resuming) 
+						this.input.stopped();
+					return true;
+				}
+				if(!this.dispatcher.dispatch(event) || event == null) 
+					break;
+				this.skipping = this.dispatcher.skipping();
+			}
+		} catch (LysonParsingException e) {
+			LysonParser.fail(this.dispatcher, e, this.handlers);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		this.done = true;
+		this.dispatcher.close();
+		this.input.close();
+		return false;
+	}
+}
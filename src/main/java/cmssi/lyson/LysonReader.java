@@ -0,0 +1,258 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.io.Closeable;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Path;
+
+import cmssi.lyson.event.IndexedEventWrapper;
+import cmssi.lyson.event.KeyValueEventWrapper;
+import cmssi.lyson.event.ParsingEvent;
+import cmssi.lyson.event.ValuableEventWrapper;
+import cmssi.lyson.exception.LysonParsingException;
+
+/**
+ * Pull cursor over the {@link ParsingEvent}s of a {@link LysonParser}, allowing the 
+ * caller to drive the parsing from its own loop rather than through a {@link 
+ * cmssi.lyson.handler.LysonParserHandler}. Each call to {@link #next()} reads exactly 
+ * one event on the caller's thread, so that the caller can stop as soon as it has 
+ * what it needs.
+ * <p>
+ * The current event, and the values returned by the currentXXX methods, are only 
+ * valid until the next call to {@link #next()} or {@link #skipChildren()}. 
+ * A LysonReader is not thread safe
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+public class LysonReader implements Closeable {
+
+	/**
+	 * Type returned by {@link #next()} when the end of the input has been reached
+	 */
+	public static final int END_OF_INPUT = 0;
+	
+	private final LysonParser parser;
+	private ParsingEvent current;
+	private boolean done;
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param s the String to be read by the LysonReader to be instantiated
+	 */
+	public LysonReader(String s) {
+		this(new LysonParser(s).withReusableEvents(true));
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param reader the {@link Reader} providing the characters to be read 
+	 * by the LysonReader to be instantiated
+	 */
+	public LysonReader(Reader reader) {
+		this(new LysonParser(reader).withReusableEvents(true));
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param input the {@link InputStream} providing the UTF-8 encoded bytes 
+	 * to be read by the LysonReader to be instantiated
+	 */
+	public LysonReader(InputStream input) {
+		this(new LysonParser(input).withReusableEvents(true));
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param path the {@link Path} of the UTF-8 encoded file to be read by 
+	 * the LysonReader to be instantiated
+	 */
+	public LysonReader(Path path) {
+		this(new LysonParser(path).withReusableEvents(true));
+	}
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param parser the {@link LysonParser} whose events are read by the 
+	 * LysonReader to be instantiated - The parser must not be used by 
+	 * anything else
+	 */
+	public LysonReader(LysonParser parser) {
+		if(parser == null)
+			throw new NullPointerException("Null LysonParser");
+		this.parser = parser;
+	}
+
+	/**
+	 * Moves this LysonReader to the next {@link ParsingEvent} and returns its 
+	 * type, or {@link #END_OF_INPUT} if the end of the input has been reached
+	 * 
+	 * @return the type of the new current {@link ParsingEvent}
+	 * 
+	 * @throws LysonParsingException if the input is not valid
+	 */
+	public int next() {
+		if(this.done)
+			return END_OF_INPUT;
+		try {
+			this.current = this.parser.read();
+		} catch(LysonParsingException e) {
+			close();
+			throw e;
+		}
+		if(this.current == null) {
+			close();
+			return END_OF_INPUT;
+		}
+		return this.current.getType();
+	}
+
+	/**
+	 * Returns true if the end of the input has been reached, or if this 
+	 * LysonReader has been closed
+	 * 
+	 * @return whether there is no more event to be read
+	 */
+	public boolean isDone() {
+		return this.done;
+	}
+	
+	/**
+	 * Returns the current {@link ParsingEvent}, or null if {@link #next()} 
+	 * has not been called yet or if the end of the input has been reached
+	 * 
+	 * @return the current {@link ParsingEvent}
+	 */
+	public ParsingEvent currentEvent() {
+		return this.current;
+	}
+	
+	/**
+	 * Returns the type of the current {@link ParsingEvent}, or {@link 
+	 * #END_OF_INPUT} if there is none
+	 * 
+	 * @return the current event type
+	 */
+	public int currentType() {
+		return this.current==null?END_OF_INPUT:this.current.getType();
+	}
+
+	/**
+	 * Returns the String path of the current {@link ParsingEvent}, or null 
+	 * if there is none
+	 * 
+	 * @return the current event path
+	 */
+	public String currentPath() {
+		return this.current==null?null:this.current.getPath();
+	}
+
+	/**
+	 * Returns the key of the current {@link ParsingEvent} if it is a JSON Object 
+	 * item or a JSON Object or Array nested in a JSON Object; returns null 
+	 * otherwise
+	 * 
+	 * @return the current event key
+	 */
+	public String currentKey() {
+		if(this.current == null)
+			return null;
+		KeyValueEventWrapper wrapper = this.current.adapt(KeyValueEventWrapper.class);
+		return wrapper==null?null:wrapper.getKey();
+	}
+
+	/**
+	 * Returns the index of the current {@link ParsingEvent} if it is a JSON Array 
+	 * item or a JSON Object or Array nested in a JSON Array; returns -1 otherwise
+	 * 
+	 * @return the current event index
+	 */
+	public int currentIndex() {
+		if(this.current == null)
+			return -1;
+		IndexedEventWrapper wrapper = this.current.adapt(IndexedEventWrapper.class);
+		return wrapper==null?-1:wrapper.getIndex();
+	}
+
+	/**
+	 * Returns the value of the current {@link ParsingEvent} if it is a JSON Object 
+	 * or Array item; returns null otherwise
+	 * 
+	 * @return the current event value
+	 */
+	public Object currentValue() {
+		if(this.current == null)
+			return null;
+		ValuableEventWrapper wrapper = this.current.adapt(ValuableEventWrapper.class);
+		return wrapper==null?null:wrapper.getValue();
+	}
+
+	/**
+	 * Skips all the events nested in the JSON Object or Array opened by the current 
+	 * {@link ParsingEvent}, so that the current one becomes the matching closing 
+	 * event - The nested content is scanned without being tokenized nor validated. 
+	 * Does nothing if the current event is not an opening one
+	 * 
+	 * @throws LysonParsingException if the input is not valid
+	 */
+	public void skipChildren() {
+		if(this.current == null || (this.current.getType() & ParsingEvent.OPENING) != ParsingEvent.OPENING)
+			return;
+		this.parser.skipChildren();
+		next();
+	}
+	
+	/**
+	 * Makes this LysonReader read the characters provided by the {@link Reader} 
+	 * passed as parameter, reusing the buffers of its {@link LysonParser}
+	 * 
+	 * @param reader the {@link Reader} to be read
+	 * 
+	 * @return this LysonReader
+	 * 
+	 * @see LysonParser#reset(Reader)
+	 */
+	public LysonReader reset(Reader reader) {
+		this.parser.reset(reader);
+		this.done = false;
+		this.current = null;
+		return this;
+	}
+	
+	@Override
+	public void close() {
+		if(this.done)
+			return;
+		this.done = true;
+		this.current = null;
+		this.parser.close();
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+/**
+ * CharSequence view over the characters of a string value, as held by the buffer of 
+ * a {@link LysonParser}, provided instead of a String when string views are enabled. 
+ * A LysonString is reused and only valid while the {@link cmssi.lyson.event.ParsingEvent} 
+ * holding it is handled : the String it describes is only built when {@link #toString()} 
+ * is called, which has to be done to keep it
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+public final class LysonString implements CharSequence {
+
+	char[] array;
+	int offset;
+	int length;
+	private String string;
+	
+	/**
+	 * Constructor
+	 */
+	LysonString() {
+		this.array = new char[0];
+	}
+
+	//points this view to the specified characters
+	LysonString with(char[] array, int offset, int length) {
+		this.array = array;
+		this.offset = offset;
+		this.length = length;
+		this.string = null;
+		return this;
+	}
+	
+	@Override
+	public int length() {
+		return this.length;
+	}
+
+	@Override
+	public char charAt(int index) {
+		if(index < 0 || index >= this.length)
+			throw new StringIndexOutOfBoundsException(index);
+		return this.array[this.offset + index];
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		if(start < 0 || end > this.length || start > end)
+			throw new StringIndexOutOfBoundsException(String.format("begin %s, end %s, length %s", 
+				start, end, this.length));
+		return new String(this.array, this.offset + start, end - start);
+	}
+
+	/**
+	 * Returns true if this LysonString holds the same characters as the 
+	 * CharSequence passed as parameter
+	 * 
+	 * @param sequence the CharSequence to compare to
+	 * 
+	 * @return whether this LysonString and the specified CharSequence 
+	 * hold the same characters
+	 */
+	public boolean contentEquals(CharSequence sequence) {
+		if(sequence == null || sequence.length() != this.length)
+			return false;
+		for(int i = 0; i < this.length; i++) {
+			if(sequence.charAt(i) != this.array[this.offset + i])
+				return false;
+		}
+		return true;
+	}
+	
+	@Override
+	public String toString() {
+		String string = this.string;
+		if(string == null) {
+			string = new String(this.array, this.offset, this.length);
+			this.string = string;
+		}
+		return string;
+	}
+}
@@ -0,0 +1,256 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import cmssi.lyson.event.ParsingEvent;
+import cmssi.lyson.exception.LysonParsingException;
+import cmssi.lyson.handler.LysonParserHandler;
+
+/**
+ * Subscription to the items read by a {@link LysonParser}, which only reads them as 
+ * they are requested: each call to {@link #request(long)} allows the delivery of n 
+ * more items, which are read and delivered by the requesting thread, or by the 
+ * {@link Executor} of the subscription if any. Nothing is read ahead nor buffered, 
+ * and no thread waits for the demand
+ * <p>
+ * Deliveries never overlap: an item requested while another one is being delivered, 
+ * including from the delivery itself, is delivered once the current delivery returns. 
+ * Reaching the end of the input, failing to read it, or cancelling the subscription 
+ * closes the {@link LysonParser}
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+public final class LysonSubscription {
+	
+	/**
+	 * Reads and delivers the items of a {@link LysonSubscription}
+	 */
+	interface Emitter {
+
+		/**
+		 * Reads and delivers the next item - Returns false, without having delivered 
+		 * anything, if the end of the input has been reached
+		 * 
+		 * @param subscription the {@link LysonSubscription} of the delivered item
+		 * 
+		 * @return true if an item has been delivered; false otherwise
+		 */
+		boolean emit(LysonSubscription subscription);
+		
+		/**
+		 * Signals that all the items have been delivered
+		 */
+		void complete();
+		
+		/**
+		 * Signals the {@link RuntimeException} which ended the subscription
+		 * 
+		 * @param exception the {@link RuntimeException} to be signaled
+		 */
+		void fail(RuntimeException exception);
+	}
+	
+	/**
+	 * {@link Emitter} of {@link ParsingEvent}s to a {@link LysonParserHandler}
+	 */
+	private static final class HandlerEmitter implements Emitter {
+		
+		private final LysonParser parser;
+		private final LysonParserHandler handler;
+		
+		HandlerEmitter(LysonParser parser, LysonParserHandler handler) {
+			this.parser = parser;
+			this.handler = handler;
+		}
+
+		@Override
+		public boolean emit(LysonSubscription subscription) {
+			ParsingEvent event = this.parser.read();
+			if(event == null)
+				return false;
+			switch(this.handler.handleEvent(event)) {
+				case SKIP_CHILDREN:
+					if((event.getType() & ParsingEvent.OPENING) == ParsingEvent.OPENING)
+						this.parser.skipChildren();
+					break;
+				case STOP:
+					subscription.cancel();
+					break;
+				default:
+					break;
+			}
+			return true;
+		}
+
+		@Override
+		public void complete() {
+			this.handler.handle((ParsingEvent) null);
+		}
+
+		@Override
+		public void fail(RuntimeException exception) {
+			if(!(exception instanceof LysonParsingException))
+				throw exception;
+			this.handler.handle((LysonParsingException) exception);
+		}
+	}
+	
+	private final LysonParser parser;
+	private final Emitter emitter;
+	private final Executor executor;
+	private final AtomicLong requested;
+	//number of requests and cancellations not yet processed
+	private final AtomicInteger pending;
+	private volatile boolean cancelled;
+	private volatile RuntimeException error;
+	private boolean done;
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param parser the {@link LysonParser} reading the items
+	 * @param handler the {@link LysonParserHandler} the {@link ParsingEvent}s are delivered to
+	 * @param executor the {@link Executor} delivering the items, or null if they are delivered 
+	 * by the requesting thread
+	 */
+	LysonSubscription(LysonParser parser, LysonParserHandler handler, Executor executor) {
+		this(parser, new HandlerEmitter(parser, handler), executor);
+	}
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param parser the {@link LysonParser} reading the items
+	 * @param emitter the {@link Emitter} reading and delivering the items
+	 * @param executor the {@link Executor} delivering the items, or null if they are delivered 
+	 * by the requesting thread
+	 */
+	LysonSubscription(LysonParser parser, Emitter emitter, Executor executor) {
+		this.parser = parser;
+		this.emitter = emitter;
+		this.executor = executor;
+		this.requested = new AtomicLong();
+		this.pending = new AtomicInteger();
+	}
+	
+	/**
+	 * Allows the delivery of the number of items passed as parameter, in addition 
+	 * to the ones already requested and not delivered yet - Long.MAX_VALUE allows 
+	 * the delivery of all of them. A non-positive n ends the subscription with an 
+	 * IllegalArgumentException, signaled as any other failure once the current 
+	 * delivery returns: passed to the onError method of a Flow.Subscriber, as the 
+	 * rule 3.9 of the Reactive Streams specification requires, or thrown by the 
+	 * delivering thread to a {@link LysonParserHandler}, which only handles 
+	 * {@link LysonParsingException}s
+	 * 
+	 * @param n the number of additional items to be delivered
+	 */
+	public void request(long n) {
+		if(n <= 0)
+			this.error = new IllegalArgumentException("Non-positive request: " + n);
+		else
+			this.requested.accumulateAndGet(n, (r, m) -> r + m < 0 ? Long.MAX_VALUE : r + m);
+		schedule();
+	}
+	
+	/**
+	 * Stops the delivery of the items and closes the {@link LysonParser} - The 
+	 * item being delivered, if any, is the last one
+	 */
+	public void cancel() {
+		this.cancelled = true;
+		schedule();
+	}
+	
+	/**
+	 * Returns true if this LysonSubscription has been cancelled
+	 * 
+	 * @return whether this LysonSubscription has been cancelled
+	 */
+	public boolean isCancelled() {
+		return this.cancelled;
+	}
+	
+	//processes the requests and cancellations, unless they are already being 
+	//processed, in which case they will be before the processing returns
+	private void schedule() {
+		if(this.pending.getAndIncrement() != 0)
+			return;
+		if(this.executor == null)
+			drain();
+		else
+			this.executor.execute(this::drain);
+	}
+	
+	private void drain() {
+		int missed = 1;
+		do {
+			if(!this.done)
+				deliver();
+			missed = this.pending.addAndGet(-missed);
+		} while(missed != 0);
+	}
+	
+	private void deliver() {
+		long requested = this.requested.get();
+		long delivered = 0;
+		try {
+			while(delivered != requested || this.cancelled || this.error != null) {
+				if(this.cancelled) {
+					finish();
+					return;
+				}
+				if(this.error != null) {
+					finish();
+					this.emitter.fail(this.error);
+					return;
+				}
+				if(!this.emitter.emit(this)) {
+					finish();
+					this.emitter.complete();
+					return;
+				}
+				delivered++;
+			}
+		} catch (RuntimeException exc) {
+			if(this.done)
+				throw exc;
+			finish();
+			this.emitter.fail(exc);
+			return;
+		}
+		if(requested != Long.MAX_VALUE)
+			this.requested.addAndGet(-delivered);
+	}
+	
+	private void finish() {
+		this.done = true;
+		this.parser.close();
+	}
+}
@@ -65,6 +65,17 @@ public abstract class AbstractParsingEventWrapper implements ParsingEvent, Parsi
 		this.event.withPath(path);
 		return this;
 	}
+
+	@Override
+	public ParsingPath getParsingPath() {
+		return this.event.getParsingPath();
+	}
+
+	@Override
+	public ParsingEvent withPath(ParsingPath path) {
+		this.event.withPath(path);
+		return this;
+	}
 	
 	@Override
 	public <P extends ParsingEvent> P adapt(Class<P> type){
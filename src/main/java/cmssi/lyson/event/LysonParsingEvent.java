@@ -33,6 +33,10 @@ public class LysonParsingEvent implements ParsingEvent {
 	
     final private int type;
     private String path;
+    private ParsingPath parsingPath;
+    private ParsingPath parentPath;
+    private String key;
+    private int index;
 
 	/**
 	 * Constructor
@@ -51,12 +55,72 @@ public class LysonParsingEvent implements ParsingEvent {
 	
 	@Override
     public String getPath() {
+    	if(this.path == null && (this.parsingPath != null || this.parentPath != null))
+    		return getParsingPath().toString();
         return this.path;
     }
 
 	@Override
     public ParsingEvent withPath(String path) {
         this.path = path;
+        this.parsingPath = null;
+        this.parentPath = null;
+        return this;
+    }
+
+	@Override
+	public ParsingPath getParsingPath() {
+		if(this.parsingPath == null && this.parentPath != null) 
+			this.parsingPath = this.key == null
+				? this.parentPath.child(this.index)
+				: this.parentPath.child(this.key);
+		return this.parsingPath;
+	}
+
+	@Override
+    public ParsingEvent withPath(ParsingPath path) {
+        this.parsingPath = path;
+        this.parentPath = null;
+        this.path = null;
+        return this;
+    }
+
+	/**
+	 * Defines the {@link ParsingPath} of this LysonParsingEvent as the 
+	 * one appending the String key passed as parameter to the specified 
+	 * parent {@link ParsingPath} - The child {@link ParsingPath} is only 
+	 * created when requested
+	 * 
+	 * @param parent the parent {@link ParsingPath}
+	 * @param key the String key of the last path segment
+	 * 
+	 * @return this LysonParsingEvent
+	 */
+    public LysonParsingEvent withPath(ParsingPath parent, String key) {
+        this.parentPath = parent;
+        this.key = key;
+        this.parsingPath = null;
+        this.path = null;
+        return this;
+    }
+
+	/**
+	 * Defines the {@link ParsingPath} of this LysonParsingEvent as the 
+	 * one appending the int array index passed as parameter to the 
+	 * specified parent {@link ParsingPath} - The child {@link ParsingPath} 
+	 * is only created when requested
+	 * 
+	 * @param parent the parent {@link ParsingPath}
+	 * @param index the int array index of the last path segment
+	 * 
+	 * @return this LysonParsingEvent
+	 */
+    public LysonParsingEvent withPath(ParsingPath parent, int index) {
+        this.parentPath = parent;
+        this.key = null;
+        this.index = index;
+        this.parsingPath = null;
+        this.path = null;
         return this;
     }
 
@@ -90,6 +154,9 @@ public class LysonParsingEvent implements ParsingEvent {
 	    	case ParsingEvent.JSON_ARRAY_ITEM :
 	    		builder.append("[JSON_ARRAY_ITEM]");
 	    		break;
+	    	case ParsingEvent.JSON_DOCUMENT_BOUNDARY :
+	    		builder.append("[JSON_DOCUMENT_BOUNDARY]");
+	    		break;
 	    	default :
 	    		break;
     	} 
@@ -64,6 +64,10 @@ public interface ParsingEvent {
 	 * JSON Array item event type constant
 	 */
 	public static final int JSON_ARRAY_ITEM = 0x20;//00100000;
+	/**
+	 * Boundary between two JSON documents of a same input event type constant
+	 */
+	public static final int JSON_DOCUMENT_BOUNDARY = 0x40;//01000000;
 
 	/**
 	 * Returns the event type constant of this ParsingEvent
@@ -87,6 +91,29 @@ public interface ParsingEvent {
 	 */
 	ParsingEvent withPath(String path);
 	
+	/**
+	 * Returns the {@link ParsingPath} of this ParsingEvent, giving access 
+	 * to its path segments without the String path to be built - By default, 
+	 * it is built from the String path, and null if there is none
+	 * 
+	 * @return this ParsingEvent {@link ParsingPath}
+	 */
+	default ParsingPath getParsingPath() {
+		return ParsingPath.parse(getPath());
+	}
+	
+	/**
+	 * Defines the {@link ParsingPath} of this ParsingEvent, from which its 
+	 * String path is lazily built - By default, the String path is defined 
+	 * at once
+	 * 
+	 * @param path the {@link ParsingPath} of this ParsingEvent
+	 * @return this ParsingEvent
+	 */
+	default ParsingEvent withPath(ParsingPath path) {
+		return withPath(path == null?null:path.toString());
+	}
+	
 	/**
 	 * Returns the &lt;P&gt; extended ParsingEvent type adapted 
 	 * from this one
@@ -0,0 +1,241 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson.event;
+
+/**
+ * Immutable segment of the path of a {@link ParsingEvent} - A ParsingPath 
+ * holds either a String key or an int array index and refers to its parent 
+ * segment, so that the path of a nested element is built by appending one 
+ * segment to the one of its container, rather than by copying the whole 
+ * String path. The String path is only materialized, and cached, when 
+ * {@link #toString()} is called
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+public final class ParsingPath {
+
+	/**
+	 * The root ParsingPath, whose String representation is "/"
+	 */
+	public static final ParsingPath ROOT = new ParsingPath(null, null, -1);
+	
+	private final ParsingPath parent;
+	private final String key;
+	private final int index;
+	private final int depth;
+	private String path;
+	
+	/**
+	 * Returns the ParsingPath whose String representation is the path passed 
+	 * as parameter, in which segments are separated by slashes and array 
+	 * indexes are enclosed in square brackets - Returns null if the path is null
+	 * 
+	 * @param path the String path to be parsed
+	 * 
+	 * @return the ParsingPath of the specified String path
+	 */
+	static ParsingPath parse(String path) {
+		if(path == null)
+			return null;
+		ParsingPath parsingPath = ROOT;
+		for(String segment : path.split("/")) {
+			if(segment.isEmpty())
+				continue;
+			int length = segment.length();
+			if(length > 2 && segment.charAt(0) == '[' && segment.charAt(length - 1) == ']') {
+				try {
+					parsingPath = parsingPath.child(Integer.parseInt(segment.substring(1, length - 1)));
+					continue;
+				} catch(NumberFormatException e) {
+					//not an index : handled as a key
+				}
+			}
+			parsingPath = parsingPath.child(segment);
+		}
+		if(parsingPath != ROOT)
+			parsingPath.path = path;
+		return parsingPath;
+	}
+	
+	private ParsingPath(ParsingPath parent, String key, int index) {
+		this.parent = parent;
+		this.key = key;
+		this.index = index;
+		this.depth = parent == null ? 0 : parent.depth + 1;
+		if(parent == null)
+			this.path = "/";
+	}
+
+	/**
+	 * Returns a new ParsingPath appending the String key passed as parameter 
+	 * to this one
+	 * 
+	 * @param key the String key of the segment to be appended
+	 * 
+	 * @return the new child ParsingPath
+	 */
+	public ParsingPath child(String key) {
+		return new ParsingPath(this, key, -1);
+	}
+
+	/**
+	 * Returns a new ParsingPath appending the int array index passed as 
+	 * parameter to this one
+	 * 
+	 * @param index the int index of the segment to be appended
+	 * 
+	 * @return the new child ParsingPath
+	 */
+	public ParsingPath child(int index) {
+		return new ParsingPath(this, null, index);
+	}
+	
+	/**
+	 * Returns the parent ParsingPath of this one, or null if this 
+	 * ParsingPath is the root one
+	 * 
+	 * @return the parent ParsingPath
+	 */
+	public ParsingPath getParent() {
+		return this.parent;
+	}
+
+	/**
+	 * Returns the number of segments of this ParsingPath - The root 
+	 * ParsingPath has a depth of zero
+	 * 
+	 * @return this ParsingPath's depth
+	 */
+	public int getDepth() {
+		return this.depth;
+	}
+	
+	/**
+	 * Returns the ancestor ParsingPath of this one at the depth passed as 
+	 * parameter, or this ParsingPath itself if the depth is the one of 
+	 * this ParsingPath
+	 * 
+	 * @param depth the int depth of the ParsingPath to be returned
+	 * 
+	 * @return the ParsingPath at the specified depth
+	 * 
+	 * @throws IndexOutOfBoundsException if the depth is negative or greater 
+	 * than the one of this ParsingPath
+	 */
+	public ParsingPath getSegment(int depth) {
+		if(depth < 0 || depth > this.depth)
+			throw new IndexOutOfBoundsException(String.valueOf(depth));
+		ParsingPath segment = this;
+		while(segment.depth > depth)
+			segment = segment.parent;
+		return segment;
+	}
+
+	/**
+	 * Returns true if the last segment of this ParsingPath is an array 
+	 * index, false if it is a key or if this ParsingPath is the root one
+	 * 
+	 * @return whether the last segment of this ParsingPath is an array 
+	 * index
+	 */
+	public boolean isIndex() {
+		return this.parent != null && this.key == null;
+	}
+	
+	/**
+	 * Returns the String key of the last segment of this ParsingPath, or 
+	 * null if it is an array index or if this ParsingPath is the root one
+	 * 
+	 * @return the String key of the last segment
+	 */
+	public String getKey() {
+		return this.key;
+	}
+
+	/**
+	 * Returns the int array index of the last segment of this ParsingPath, 
+	 * or -1 if it is a key or if this ParsingPath is the root one
+	 * 
+	 * @return the int index of the last segment
+	 */
+	public int getIndex() {
+		return this.index;
+	}
+	
+	/**
+	 * Returns true if the last segment of this ParsingPath is the String 
+	 * key passed as parameter
+	 * 
+	 * @param key the String key to compare to
+	 *  
+	 * @return whether the last segment of this ParsingPath is the 
+	 * specified key
+	 */
+	public boolean matches(String key) {
+		return this.key != null && this.key.equals(key);
+	}
+
+	/**
+	 * Returns true if the last segment of this ParsingPath is the int 
+	 * array index passed as parameter
+	 * 
+	 * @param index the int index to compare to
+	 *  
+	 * @return whether the last segment of this ParsingPath is the 
+	 * specified array index
+	 */
+	public boolean matches(int index) {
+		return isIndex() && this.index == index;
+	}
+	
+	@Override
+	public String toString() {
+		String path = this.path;
+		if(path != null)
+			return path;		
+		ParsingPath cached = this.parent;
+		while(cached.path == null)
+			cached = cached.parent;
+		ParsingPath[] segments = new ParsingPath[this.depth - cached.depth];
+		for(ParsingPath segment = this; segment != cached; segment = segment.parent)
+			segments[segment.depth - cached.depth - 1] = segment;
+		
+		path = cached.path;
+		StringBuilder builder = new StringBuilder();
+		for(ParsingPath segment : segments) {
+			builder.setLength(0);
+			builder.append(path);
+			if(!path.endsWith("/"))
+				builder.append('/');
+			if(segment.key == null)
+				builder.append('[').append(segment.index).append(']');
+			else
+				builder.append(segment.key);
+			path = builder.toString();
+			segment.path = path;
+		}
+		return path;
+	}
+}
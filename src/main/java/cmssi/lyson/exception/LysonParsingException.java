@@ -34,6 +34,15 @@ public class LysonParsingException extends LysonException {
 	 */
 	private static final long serialVersionUID = 1958218358893726694L;
 	
+	/**
+	 * Constructor 
+	 * 
+	 * @param message the error message
+	 */
+	public LysonParsingException(String message) {
+		super(message);
+	}
+	
 	/**
 	 * Constructor 
 	 * 
@@ -45,6 +45,33 @@ public interface LysonParserHandler {
 	 * or not the parsing
 	 */
 	boolean handle(ParsingEvent event);
+
+	/**
+	 * Handles the {@link ParsingEvent} passed as parameter and returns 
+	 * the {@link LysonParserHandlerResult} defining whether to continue 
+	 * the parsing, to skip the children of the JSON Object or Array just 
+	 * opened, or to stop - By default it delegates to {@link 
+	 * #handle(ParsingEvent)} and never skips
+	 * 
+	 * @param event the {@link ParsingEvent} to be handled
+	 * 
+	 * @return the {@link LysonParserHandlerResult} of the handling
+	 */
+	default LysonParserHandlerResult handleEvent(ParsingEvent event) {
+		return handle(event)?LysonParserHandlerResult.CONTINUE:LysonParserHandlerResult.STOP;
+	}
+	
+	/**
+	 * Returns the {@link LysonParserOverflowPolicy} applying to this handler when 
+	 * its queue of pending events is full, in {@link 
+	 * cmssi.lyson.LysonParserDispatchMode#QUEUED} mode - By default it returns null, 
+	 * meaning that the policy defined for the parser applies
+	 * 
+	 * @return the {@link LysonParserOverflowPolicy} of this handler, or null
+	 */
+	default LysonParserOverflowPolicy overflowPolicy() {
+		return null;
+	}
 	
 	/**
 	 * Handles the {@link LysonParsingException} passed 
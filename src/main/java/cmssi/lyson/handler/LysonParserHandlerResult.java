@@ -0,0 +1,52 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson.handler;
+
+/**
+ * Result of the handling of a {@link cmssi.lyson.event.ParsingEvent} by a {@link 
+ * LysonParserHandler}, telling the {@link cmssi.lyson.LysonParser} how to carry on
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+public enum LysonParserHandlerResult {
+
+	/**
+	 * The handler wants to be notified of the next events
+	 */
+	CONTINUE,
+	
+	/**
+	 * The handler does not want to be notified of the events nested in the 
+	 * JSON Object or Array whose opening it has just handled - It will next 
+	 * be notified of the matching closing event. When returned for another 
+	 * kind of event, SKIP_CHILDREN has the same meaning as CONTINUE
+	 */
+	SKIP_CHILDREN,
+	
+	/**
+	 * The handler does not want to be notified of any other event
+	 */
+	STOP;
+}
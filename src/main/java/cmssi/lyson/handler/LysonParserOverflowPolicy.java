@@ -0,0 +1,56 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson.handler;
+
+/**
+ * Defines what happens to a {@link LysonParserHandler} whose queue of pending {@link 
+ * cmssi.lyson.event.ParsingEvent}s is full, when the events are dispatched using the 
+ * {@link cmssi.lyson.LysonParserDispatchMode#QUEUED} mode
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+public enum LysonParserOverflowPolicy {
+
+	/**
+	 * The parser waits for the handler to free a slot of its queue, so that 
+	 * the handler receives all the events - This is the default policy
+	 */
+	BLOCK,
+	
+	/**
+	 * The oldest pending event is discarded to make room for the new one, so that 
+	 * a best-effort handler never holds the parser back - An event closing a JSON 
+	 * Object or Array whose children are skipped can be discarded as well, in 
+	 * which case the handler skips the rest of the document
+	 */
+	DROP_OLDEST,
+	
+	/**
+	 * The handler is detached: it is not notified of any other event, and its 
+	 * {@link LysonParserHandler#handle(cmssi.lyson.exception.LysonParsingException)} 
+	 * method is called once it is done with the events already taken from its queue
+	 */
+	FAIL_FAST;
+}
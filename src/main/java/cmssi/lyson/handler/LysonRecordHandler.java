@@ -0,0 +1,60 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 - 2022  Christophe Munilla
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package cmssi.lyson.handler;
+
+import cmssi.lyson.event.ParsingEvent;
+import cmssi.lyson.exception.LysonParsingException;
+
+/**
+ * The recipient of the {@link ParsingEvent}s and {@link LysonParsingException}s triggered 
+ * by a {@link cmssi.lyson.LysonLinesParser}, each of them being attached to the number of 
+ * the record it belongs to, which is the index of its line starting from 0
+ * 
+ * @author cmunilla@cmssi.fr
+ * @version 0.6
+ */
+public interface LysonRecordHandler {
+	
+	/**
+	 * Handles the {@link ParsingEvent} of the record passed as parameter - A 
+	 * null event signals the end of a valid record
+	 * 
+	 * @param record the number of the record the event belongs to
+	 * @param event the {@link ParsingEvent} to be handled
+	 * 
+	 * @return a boolean value defining whether to continue 
+	 * or not the parsing
+	 */
+	boolean handle(long record, ParsingEvent event);
+
+	/**
+	 * Handles the {@link LysonParsingException} raised by the record passed 
+	 * as parameter, whose remaining events are not read - The parsing goes on 
+	 * with the next record
+	 * 
+	 * @param record the number of the invalid record
+	 * @param exception the {@link LysonParsingException} to be handled
+	 */
+	void handle(long record, LysonParsingException exception);
+}
@@ -27,6 +27,7 @@ import java.util.Deque;
 import java.util.LinkedList;
 
 import cmssi.lyson.event.ParsingEvent;
+import cmssi.lyson.event.ParsingPath;
 
 /**
  * An EvaluationContext wraps information about an running evaluation process
@@ -47,6 +48,7 @@ public class EvaluationContext {
 	
 	private final String target;
 	private String[] targetElements;
+	private int[] targetIndexes;
 	
 	private final boolean wildcard;
 		
@@ -61,12 +63,31 @@ public class EvaluationContext {
 	public EvaluationContext(Evaluation evaluation) {
 		this.target = evaluation.getPath();
 		this.targetElements = this.target.split("/");
+		this.targetIndexes = new int[this.targetElements.length];
+		for(int i = 0; i < this.targetElements.length; i++) 
+			this.targetIndexes[i] = index(this.targetElements[i]);
 		this.wildcard  = EvaluationHandler.WILDCARD.equals(this.targetElements[this.targetElements.length-1]);
 		this.builder = new StringBuilder();
 		this.nesteds = new LinkedList<>();
 	}
 
 	
+	//returns the array index described by the path element passed 
+	//as parameter, or -1 if it does not describe an array index
+	private static int index(String element) {
+		int length = element.length();
+		if(length < 3 || length > 11 || element.charAt(0) != '[' || element.charAt(length - 1) != ']')
+			return -1;
+		int index = 0;
+		for(int i = 1; i < length - 1; i++) {
+			char c = element.charAt(i);
+			if(c < '0' || c > '9')
+				return -1;
+			index = index*10 + (c - '0');
+		}
+		return index;
+	}
+	
 	/**
 	 * Returns the String target path of this EvaluationContext
 	 * 
@@ -193,6 +214,36 @@ public class EvaluationContext {
 		return level;
 	}
 	
+	/**
+	 * Returns true if the events nested in the JSON Object or Array opened by the 
+	 * {@link ParsingEvent} passed as parameter may match the target path of this 
+	 * EvaluationContext, false if they can be skipped
+	 * 
+	 * @param event the JSON Object or Array opening {@link ParsingEvent}
+	 * 
+	 * @return whether nested events may match the target path 
+	 */
+	public boolean mayMatchBelow(ParsingEvent event) {
+		ParsingPath path = event.getParsingPath();
+		if(path == null) 
+			//no segments to compare to without splitting the String path
+			return true;
+		for(; path.getDepth() > 0; path = path.getParent()) {
+			int depth = path.getDepth();
+			if(depth > this.targetElements.length)
+				continue;
+			String element = this.targetElements[depth - 1];
+			if(EvaluationHandler.WILDCARD.equals(element))
+				continue;
+			if(path.isIndex()) {
+				if(this.targetIndexes[depth - 1] != path.getIndex())
+					return false;
+			} else if(!element.equals(path.getKey()))
+				return false;
+		}
+		return true;
+	}
+	
 	/**
 	 * @return the wildcard
 	 */
@@ -26,16 +26,17 @@ package cmssi.lyson.handler.evaluation;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
-import cmssi.lyson.LysonParser;
 import cmssi.lyson.LysonParserHandlerCallable;
 import cmssi.lyson.LysonParserHandlerThreadExecutor;
 import cmssi.lyson.event.ParsingEvent;
 import cmssi.lyson.exception.LysonParsingException;
 import cmssi.lyson.handler.LysonParserHandler;
+import cmssi.lyson.handler.LysonParserHandlerResult;
 
 
 /**
@@ -57,7 +58,7 @@ public class EvaluationHandler implements LysonParserHandler {
 	private List<LysonParserHandlerCallable> callables = null ;
 	private List<EvaluationProcessor> processors = null ;	
 
-    private final LysonParserHandlerThreadExecutor executor;
+    private final ExecutorService executor;
 
     /**
      * Constructor
@@ -79,17 +80,28 @@ public class EvaluationHandler implements LysonParserHandler {
      * @param callback the {@link EvaluationCallback} to be notified of new {@link EvaluationResult} results
      */
     public EvaluationHandler(List<String> paths, EvaluationCallback callback) {
+    	this(paths, callback, null);
+    }
+    
+    /**
+     * Constructor
+     * 
+     * Instantiate a new EvaluationHandler
+     * 
+     * @param paths the List of String paths for which to extract json elements
+     * @param callback the {@link EvaluationCallback} to be notified of new {@link EvaluationResult} results
+     * @param executor the long-lived {@link ExecutorService} evaluating the paths, which is never shut 
+     * down by the EvaluationHandler - The {@link LysonParserHandlerThreadExecutor#defaultExecutor() default} one 
+     * is used if null
+     */
+    public EvaluationHandler(List<String> paths, EvaluationCallback callback, ExecutorService executor) {
     	
     	List<String> pth = new ArrayList<>();
     	if(paths!=null)
     		pth.addAll(paths);
     	
-		int length = pth.size();
-		if(length > LysonParser.MAX_THREAD) 
-			length = LysonParser.MAX_THREAD;
-		
-		if(length > 0){
-			this.executor = new LysonParserHandlerThreadExecutor(length);
+		this.executor = executor == null?LysonParserHandlerThreadExecutor.defaultExecutor():executor;
+		if(!pth.isEmpty()){
 			this.processors = pth.stream(
 					).map(p -> new EvaluationProcessor(p)
 					).collect(Collectors.toList());
@@ -97,7 +109,6 @@ public class EvaluationHandler implements LysonParserHandler {
 					).map(p -> new LysonParserHandlerCallable(p)
 					).collect(Collectors.toList());
 		} else {
-			this.executor = new LysonParserHandlerThreadExecutor(1);
 			this.processors = Collections.emptyList();
 			this.callables = Collections.emptyList();
 		}
@@ -122,10 +133,9 @@ public class EvaluationHandler implements LysonParserHandler {
 			if(event == null) {
 				this.callback.handle(END_OF_PARSING);
 				this.callables.clear();
-				this.executor.shutdownNow();
 				return false;
 			}
-			executor.invokeAll(callables, event);
+			LysonParserHandlerThreadExecutor.invokeAll(executor, callables, event);
 			int i=0;
 			int offset = 0;
 			while(i< processors.size()) {
@@ -157,6 +167,17 @@ public class EvaluationHandler implements LysonParserHandler {
 		return false;
 	}	
 
+	@Override
+	public LysonParserHandlerResult handleEvent(ParsingEvent event) {
+		if(!handle(event))
+			return LysonParserHandlerResult.STOP;
+		for(LysonParserHandlerCallable callable : this.callables) {
+			if(!callable.isSkipping() && !callable.isStopped())
+				return LysonParserHandlerResult.CONTINUE;
+		}
+		return LysonParserHandlerResult.SKIP_CHILDREN;
+	}
+
 	@Override
 	public void handle(LysonParsingException parsingException) {
 		if(LOG.isLoggable(Level.SEVERE)) 
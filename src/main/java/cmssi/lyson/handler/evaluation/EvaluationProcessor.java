@@ -31,6 +31,7 @@ import cmssi.lyson.event.ParsingEvent;
 import cmssi.lyson.event.ValuableEventWrapper;
 import cmssi.lyson.exception.LysonParsingException;
 import cmssi.lyson.handler.LysonParserHandler;
+import cmssi.lyson.handler.LysonParserHandlerResult;
 import cmssi.lyson.handler.evaluation.predicate.ValidationTime;
 
 
@@ -142,8 +143,8 @@ public class EvaluationProcessor implements LysonParserHandler {
 					ValuableEventWrapper vwrapper = event.adapt(ValuableEventWrapper.class);
 					Object eventValue = vwrapper==null?null:vwrapper.getValue();
 					String value = null;					
-					if(eventValue!=null && eventValue.getClass() == String.class)
-						value = String.format("\"%s\"", ((String)eventValue).replace("\"", "\\\""));
+					if(eventValue instanceof CharSequence)
+						value = String.format("\"%s\"", eventValue.toString().replace("\"", "\\\""));
 					else
 						value = String.valueOf(eventValue);
 					this.context.collect(value);
@@ -186,8 +187,8 @@ public class EvaluationProcessor implements LysonParserHandler {
 					}
 					KeyValueEventWrapper kvwrapper = event.adapt(KeyValueEventWrapper.class);
 					eventValue = kvwrapper==null?null:kvwrapper.getValue();
-					if(eventValue!=null && eventValue.getClass() == String.class)
-						value = String.format("\"%s\"", ((String)eventValue).replace("\"", "\\\""));
+					if(eventValue instanceof CharSequence)
+						value = String.format("\"%s\"", eventValue.toString().replace("\"", "\\\""));
 					else
 						value = String.valueOf(eventValue);
 					this.context.collect(value);
@@ -209,6 +210,16 @@ public class EvaluationProcessor implements LysonParserHandler {
 		return true;
 	}
 
+	@Override
+	public LysonParserHandlerResult handleEvent(ParsingEvent event) {
+		if(!handle(event))
+			return LysonParserHandlerResult.STOP;
+		if((event.getType() & ParsingEvent.OPENING) == ParsingEvent.OPENING 
+			&& !this.context.mayMatchBelow(event))
+			return LysonParserHandlerResult.SKIP_CHILDREN;
+		return LysonParserHandlerResult.CONTINUE;
+	}
+
 	@Override
 	public void handle(LysonParsingException parsingException) {
 		if(LOG.isLoggable(Level.SEVERE)) 
@@ -117,6 +117,28 @@ public class MappingConfiguration {
 	public AccessibleObject getMapping(String mapping) {
 		return this.mapping.get(mapping);
 	}
+	
+	/**
+	 * Returns true if an {@link AccessibleObject} is mapped to a path below the String 
+	 * path passed as parameter - Otherwise returns false
+	 * 
+	 * @param path the String path of a JSON Object or Array
+	 * 
+	 * @return true if a mapping refers to the children of the specified String path - 
+	 * false otherwise
+	 */
+	public boolean isMappedBelow(String path) {
+		if(path == null)
+			return false;
+		String parent = path.endsWith("/")?path:path.concat("/");
+		synchronized(this.mapping) {
+			for(String mapping : this.mapping.keySet()) {
+				if(mapping.startsWith(parent))
+					return true;
+			}
+		}
+		return false;
+	}
 
 	/**
 	 * Returns the {@link MappingBuilder} of this {@link MappingConfiguration}
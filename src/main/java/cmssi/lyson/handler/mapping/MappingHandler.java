@@ -41,14 +41,20 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 
+import cmssi.lyson.LysonNumber;
+import cmssi.lyson.LysonString;
 import cmssi.lyson.event.KeyValueEventWrapper;
 import cmssi.lyson.event.ParsingEvent;
 import cmssi.lyson.event.ValuableEventWrapper;
 import cmssi.lyson.exception.LysonParsingException;
 import cmssi.lyson.handler.LysonParserHandler;
+import cmssi.lyson.handler.LysonParserHandlerResult;
 
 /**
- * {@link LysonParserHandler} implementation dedicated to a JSON chars sequence mapping
+ * {@link LysonParserHandler} implementation dedicated to a JSON chars sequence mapping - 
+ * Below the JSON Object or Array holding the mapped instances, the children of a JSON Object 
+ * or Array the mapping does not refer to, neither by its key nor by a path below it, are 
+ * ignored: {@link #handleEvent(ParsingEvent)} asks the parser to skip them
  *  
  * @author cmunilla@cmssi.fr
  * @version 0.6
@@ -61,6 +67,8 @@ public class MappingHandler implements LysonParserHandler {
 	//keep intermediate data structure while parsing
 	private Deque<Object> stack = new LinkedList<>();
 	private MappingBuffer buffer;
+	//nesting depth inside the ignored JSON Object or Array, 0 if none
+	private int skipped;
 	
 	/**
 	 * Constructor
@@ -117,7 +125,7 @@ public class MappingHandler implements LysonParserHandler {
 	 * @return true if waiting for an intermediate data structure closing
 	 */
 	public boolean waitClosing() {
-		return !stack.isEmpty();
+		return !stack.isEmpty() || this.skipped > 0;
 	}
 	
 	/**
@@ -134,6 +142,15 @@ public class MappingHandler implements LysonParserHandler {
 	public boolean handle(ParsingEvent event) {
 		if(event == null) 
 			return false;
+		if(this.skipped > 0) {
+			//children of an ignored JSON Object or Array, when not skipped by the parser
+			if((event.getType() & ParsingEvent.OPENING) == ParsingEvent.OPENING)
+				this.skipped+=1;
+			else if((event.getType() & ParsingEvent.CLOSING) == ParsingEvent.CLOSING)
+				this.skipped-=1;
+			if(this.skipped > 0)
+				return true;
+		}
 		if(LOG.isLoggable(Level.FINEST)) 
 			LOG.log(Level.FINEST,event.toString());
 		
@@ -173,7 +190,9 @@ public class MappingHandler implements LysonParserHandler {
 						this.stack.push(sub);
 						return true;
 					}
-				} else
+				} else if(ao == null && this.stack.isEmpty() && unmapped(config, event.getPath()))
+					this.skipped = 1;
+				else
 					val = handleJsonOpening(ao, defaultValueType, identity);
 				opening = true;
 				break;
@@ -200,6 +219,10 @@ public class MappingHandler implements LysonParserHandler {
 			default:
 				break;
 		}		
+		if(val instanceof LysonNumber)
+			val = ((LysonNumber)val).numberValue();
+		else if(val instanceof LysonString)
+			val = val.toString();
 		if(!stack.isEmpty()) {			
 			Object obj = stack.peek();
 			if(obj instanceof MappingHandler) {
@@ -244,6 +267,15 @@ public class MappingHandler implements LysonParserHandler {
 	    return true;
 	}
 
+	@Override
+	public LysonParserHandlerResult handleEvent(ParsingEvent event) {
+		boolean skipping = this.skipped > 0;
+		if(!handle(event))
+			return LysonParserHandlerResult.STOP;
+		return !skipping && this.skipped > 0?LysonParserHandlerResult.SKIP_CHILDREN
+			:LysonParserHandlerResult.CONTINUE;
+	}
+
 	@Override
 	public void handle(LysonParsingException parsingException) {
 		if(LOG.isLoggable(Level.SEVERE)) 
@@ -261,6 +293,16 @@ public class MappingHandler implements LysonParserHandler {
 		return (K) this.buffer.collect();
 	}
 	
+	//Returns true if the JSON Object or Array opened at the specified path, which is not 
+	//mapped itself, lies at least two levels below the mapped one and no mapping refers 
+	//to its children - The ones directly held by the mapped JSON Object or Array may be 
+	//instances of the mapped type, whose items are mapped by their keys
+	private boolean unmapped(MappingConfiguration config, String path) {
+		return !config.getMappingBuilder().isSimpleCollection() 
+			&& config.getPrefix().isBelow(path, 2)
+			&& !config.isMappedBelow(config.getPrefix().getSuffix(path));
+	}
+	
 	//According to the type of the JSON data structure opening event, and the type 
 	//of the Field of the mapped Object targeted by the ao AccessibleObject argument
 	//the assigned value is a Map, a List or the mapped Object of a sub MappingHandler
@@ -117,6 +117,32 @@ public class MappingPrefix {
 		}
 		return false;
 	}
+	
+    /**
+     * Returns true if the String path passed as parameter starts with this 
+     * MappingPrefix's prefix, the root one if it is not defined, and is at 
+     * least the specified number of levels deeper - Otherwise returns false
+     *  
+     * @param path the String path to evaluate
+     * @param levels the minimum number of levels between the prefix and 
+     * the specified path
+     * 
+     * @return true if the specified path is far enough below the defined 
+     * prefix - false otherwise 
+     */
+	protected boolean isBelow(String path, int levels) {	
+		if(path == null) 
+			return false;
+		String[] pathElements = path.split("/");
+		int prefixLength = this.prefix == null?0:this.prefix.length;
+		if((pathElements.length - 1) < prefixLength + levels) 
+			return false;
+		for(int ind = 0;ind < prefixLength;ind++) {
+			if(!prefix[ind].equals("*") && !prefix[ind].equals(pathElements[ind+1])) 
+				return false;
+		}
+		return true;
+	}
 		
 	// Identify the mapping value of the @LysonMapping annotation 
 	// annotating the mappedType argument if any, and use it to create
@@ -37,7 +37,9 @@ import java.util.Vector;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import cmssi.lyson.LysonNumber;
 import cmssi.lyson.LysonParser;
+import cmssi.lyson.LysonString;
 
 /**
  * Java Type Wrapper
@@ -62,6 +64,11 @@ public class MappingType {
 		if(val == null) {
 			return null;
 		}
+		if(val instanceof LysonNumber) {
+			val = ((LysonNumber)val).numberValue();
+		} else if(val instanceof LysonString) {
+			val = val.toString();
+		}
 		if(clazz.isAssignableFrom(val.getClass())) {
 			return val;
 		}	
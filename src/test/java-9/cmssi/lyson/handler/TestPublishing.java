@@ -0,0 +1,161 @@
+package cmssi.lyson.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import org.junit.Test;
+
+import cmssi.lyson.LysonMappingPublisher;
+import cmssi.lyson.LysonParser;
+import cmssi.lyson.LysonPublisher;
+import cmssi.lyson.event.ParsingEvent;
+import cmssi.lyson.exception.LysonParsingException;
+
+public class TestPublishing {
+
+	private static final String JSON = "[{\"id\":1,\"name\":\"fst\"},{\"id\":2,\"name\":\"snd\"},3]";
+	private static final String MAPPED = "[{\"key1\":\"fst\",\"key2\":\"1\"},{\"key1\":\"snd\",\"key2\":\"2\"}]";
+
+	private static class RecordingSubscriber<T> implements Flow.Subscriber<T> {
+
+		final List<T> items = new ArrayList<>();
+		final long initial;
+		Flow.Subscription subscription;
+		Throwable error;
+		boolean completed;
+
+		RecordingSubscriber(long initial) {
+			this.initial = initial;
+		}
+
+		@Override
+		public void onSubscribe(Flow.Subscription subscription) {
+			this.subscription = subscription;
+			if(this.initial > 0)
+				subscription.request(this.initial);
+		}
+
+		@Override
+		public void onNext(T item) {
+			this.items.add(item);
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			this.error = throwable;
+		}
+
+		@Override
+		public void onComplete() {
+			this.completed = true;
+		}
+	}
+
+	private static List<String> events(String json) {
+		List<String> events = new ArrayList<>();
+		new LysonParser(json).parse(new LysonParserHandler() {
+			@Override
+			public boolean handle(ParsingEvent event) {
+				if(event != null)
+					events.add(event.toString());
+				return event != null;
+			}
+
+			@Override
+			public void handle(LysonParsingException exception) {
+			}
+		});
+		return events;
+	}
+
+	private static List<String> strings(List<ParsingEvent> events) {
+		List<String> strings = new ArrayList<>();
+		events.forEach(e -> strings.add(e.toString()));
+		return strings;
+	}
+
+	@Test
+	public void testBackpressure() {
+		List<String> expected = events(JSON);
+		RecordingSubscriber<ParsingEvent> subscriber = new RecordingSubscriber<>(1);
+		new LysonPublisher(new LysonParser(JSON)).subscribe(subscriber);
+		//only the requested events are read and delivered
+		assertEquals(1, subscriber.items.size());
+		subscriber.subscription.request(2);
+		assertEquals(3, subscriber.items.size());
+		assertFalse(subscriber.completed);
+		subscriber.subscription.request(expected.size() - 3);
+		assertEquals(expected, strings(subscriber.items));
+		assertFalse(subscriber.completed);
+		subscriber.subscription.request(1);
+		assertTrue(subscriber.completed);
+		assertEquals(null, subscriber.error);
+
+		subscriber = new RecordingSubscriber<>(Long.MAX_VALUE);
+		new LysonPublisher(new LysonParser(JSON)).subscribe(subscriber);
+		assertEquals(expected, strings(subscriber.items));
+		assertTrue(subscriber.completed);
+	}
+
+	@Test
+	public void testSingleSubscriber() {
+		LysonPublisher publisher = new LysonPublisher(new LysonParser(JSON));
+		RecordingSubscriber<ParsingEvent> first = new RecordingSubscriber<>(0);
+		publisher.subscribe(first);
+		RecordingSubscriber<ParsingEvent> second = new RecordingSubscriber<>(1);
+		publisher.subscribe(second);
+		assertTrue(second.subscription != null);
+		assertTrue(second.error instanceof IllegalStateException);
+		assertTrue(second.items.isEmpty());
+
+		first.subscription.request(Long.MAX_VALUE);
+		assertEquals(events(JSON), strings(first.items));
+		assertTrue(first.completed);
+
+		LysonMappingPublisher<Mapped> mapping = new LysonMappingPublisher<>(new LysonParser(MAPPED), Mapped.class);
+		mapping.subscribe(new RecordingSubscriber<>(0));
+		RecordingSubscriber<Mapped> rejected = new RecordingSubscriber<>(1);
+		mapping.subscribe(rejected);
+		assertTrue(rejected.error instanceof IllegalStateException);
+	}
+
+	@Test
+	public void testCancel() {
+		RecordingSubscriber<ParsingEvent> subscriber = new RecordingSubscriber<>(2);
+		new LysonPublisher(new LysonParser(JSON)).subscribe(subscriber);
+		subscriber.subscription.cancel();
+		subscriber.subscription.request(5);
+		//no more events, and no terminal signal, once cancelled
+		assertEquals(2, subscriber.items.size());
+		assertFalse(subscriber.completed);
+		assertEquals(null, subscriber.error);
+
+		RecordingSubscriber<Mapped> mapped = new RecordingSubscriber<Mapped>(1) {
+			@Override
+			public void onNext(Mapped item) {
+				super.onNext(item);
+				this.subscription.cancel();
+			}
+		};
+		new LysonMappingPublisher<>(new LysonParser(MAPPED), Mapped.class).subscribe(mapped);
+		mapped.subscription.request(5);
+		assertEquals(1, mapped.items.size());
+		assertEquals("fst", mapped.items.get(0).getKey1());
+		assertFalse(mapped.completed);
+	}
+
+	@Test
+	public void testNonPositiveRequest() {
+		RecordingSubscriber<ParsingEvent> subscriber = new RecordingSubscriber<>(1);
+		new LysonPublisher(new LysonParser(JSON)).subscribe(subscriber);
+		subscriber.subscription.request(0);
+		assertTrue(subscriber.error instanceof IllegalArgumentException);
+		subscriber.subscription.request(1);
+		assertEquals(1, subscriber.items.size());
+	}
+}
@@ -0,0 +1,1297 @@
+package cmssi.lyson.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+
+import cmssi.lyson.LysonLinesParser;
+import cmssi.lyson.LysonNumber;
+import cmssi.lyson.LysonParser;
+import cmssi.lyson.LysonParserDispatchMode;
+import cmssi.lyson.LysonParserHandlerMetrics;
+import cmssi.lyson.LysonParserHandlerThreadExecutor;
+import cmssi.lyson.LysonParsingResult;
+import cmssi.lyson.LysonPushParser;
+import cmssi.lyson.LysonReader;
+import cmssi.lyson.LysonString;
+import cmssi.lyson.LysonSubscription;
+import cmssi.lyson.event.IndexedEventWrapper;
+import cmssi.lyson.event.ParsingEvent;
+import cmssi.lyson.event.ParsingPath;
+import cmssi.lyson.event.ValuableEventWrapper;
+import cmssi.lyson.exception.LysonParsingException;
+import cmssi.lyson.handler.LysonParserHandlerResult;
+import cmssi.lyson.handler.LysonParserOverflowPolicy;
+import cmssi.lyson.handler.LysonRecordHandler;
+import cmssi.lyson.handler.evaluation.EvaluationHandler;
+import cmssi.lyson.handler.mapping.MappingHandler;
+import cmssi.lyson.handler.validation.ValidationHandler;
+
+public class TestParsing {
+
+	private static final String JSON = "{\"clé\":\"Èté \\u20AC 😀\",\"arr\":[È,\"\\\"quoted\\\"\",1.5,0x45,-12,{\"embedded\":true}],"
+		+ "\"last\" : \"中文\",\"empty\":{}}";
+	
+	private static class EventsHandler implements LysonParserHandler {
+		
+		final StringBuilder events = new StringBuilder();
+		LysonParsingException exception;
+		
+		@Override
+		public boolean handle(ParsingEvent event) {
+			events.append(event).append('\n');
+			return event != null;
+		}
+		
+		@Override
+		public void handle(LysonParsingException exception) {
+			this.exception = exception;
+		}
+	}
+	
+	@Test
+	public void testPushParserChunks() {
+		EventsHandler expected = new EventsHandler();
+		new LysonParser(JSON).parse(expected);
+		
+		byte[] bytes = JSON.getBytes(StandardCharsets.UTF_8);
+		for(int size = 1; size <= bytes.length; size+=3) {
+			EventsHandler actual = new EventsHandler();
+			LysonPushParser parser = new LysonPushParser(actual);
+			for(int offset = 0; offset < bytes.length; offset+=size) 
+				assertTrue(parser.feed(ByteBuffer.wrap(bytes, offset, Math.min(size, bytes.length - offset))));
+			assertFalse(parser.isDone());
+			parser.endOfInput();
+			assertTrue(parser.isDone());
+			assertEquals(expected.events.toString(), actual.events.toString());
+		}
+	}
+	
+	@Test
+	public void testPushParserHandlersInline() {
+		EventsHandler expected = new EventsHandler();
+		new LysonParser(JSON).parse(expected);
+		
+		//several handlers are still called by the feeding thread
+		Set<Thread> threads = new HashSet<>();
+		EventsHandler first = new EventsHandler() {
+			@Override
+			public boolean handle(ParsingEvent event) {
+				threads.add(Thread.currentThread());
+				return super.handle(event);
+			}
+		};
+		EventsHandler second = new EventsHandler();
+		LysonPushParser parser = new LysonPushParser(first, second);
+		byte[] bytes = JSON.getBytes(StandardCharsets.UTF_8);
+		for(int offset = 0; offset < bytes.length; offset+=7) 
+			assertTrue(parser.feed(ByteBuffer.wrap(bytes, offset, Math.min(7, bytes.length - offset))));
+		parser.endOfInput();
+		assertEquals(Collections.singleton(Thread.currentThread()), threads);
+		assertEquals(expected.events.toString(), first.events.toString());
+		assertEquals(expected.events.toString(), second.events.toString());
+	}
+	
+	@Test
+	public void testPushParserLargePendingEvents() {
+		StringBuilder builder = new StringBuilder("{\"fst\":\"");
+		for(int i = 0; i < 10000; i++) 
+			builder.append(i % 1000 == 0 ? "\\\"" : "a");
+		builder.append("\",\"snd\":'");
+		for(int i = 0; i < 10000; i++) 
+			builder.append(i % 1000 == 0 ? '"' : 'b');
+		builder.append("',\"thd\":");
+		for(int i = 0; i < 6000; i++) 
+			builder.append((char)('1' + i % 9));
+		builder.append(',');
+		for(int i = 0; i < 6000; i++) 
+			builder.append(' ');
+		builder.append("\"last\":true}");
+		byte[] bytes = builder.toString().getBytes(StandardCharsets.UTF_8);
+		
+		//each large event is propagated as soon as the bytes completing it are fed
+		int size = 500;
+		EventsHandler actual = new EventsHandler();
+		LysonPushParser parser = new LysonPushParser(actual);
+		for(int offset = 0; offset < bytes.length; offset+=size) {
+			int length = Math.min(size, bytes.length - offset);
+			parser.feed(ByteBuffer.wrap(bytes, offset, length));
+			EventsHandler expected = new EventsHandler();
+			new LysonPushParser(expected).feed(ByteBuffer.wrap(bytes, 0, offset + length));
+			assertEquals(expected.events.toString(), actual.events.toString());
+		}
+		parser.endOfInput();
+		EventsHandler expected = new EventsHandler();
+		new LysonParser(builder.toString()).parse(expected);
+		assertEquals(expected.events.toString(), actual.events.toString());
+	}
+	
+	@Test
+	public void testPushParserInvalidJSON() {
+		ValidationHandler handler = new ValidationHandler();
+		LysonPushParser parser = new LysonPushParser(handler);
+		assertTrue(parser.feed(ByteBuffer.wrap("{\"fst\": 5,".getBytes(StandardCharsets.UTF_8))));
+		assertFalse(parser.feed(ByteBuffer.wrap("\"snd\":,\"last\":45}".getBytes(StandardCharsets.UTF_8))));
+		assertTrue(parser.isDone());
+		assertFalse(handler.valid());
+		
+		handler = new ValidationHandler();
+		parser = new LysonPushParser(handler);
+		assertTrue(parser.feed(ByteBuffer.wrap("{\"fst\": 5,\"snd\":\"unterminated".getBytes(StandardCharsets.UTF_8))));
+		parser.endOfInput();
+		assertFalse(handler.valid());
+	}
+	
+	@Test
+	public void testParsingPath() {
+		final StringBuilder paths = new StringBuilder();
+		final ParsingPath[] leaf = new ParsingPath[1];
+		new LysonParser("{\"a\":{\"b\":[1,{\"c\":2}]}}").parse(new EventsHandler() {
+			@Override
+			public boolean handle(ParsingEvent event) {
+				if(event == null)
+					return false;
+				paths.append(event.getPath()).append(' ');
+				if(event.getParsingPath().matches("c"))
+					leaf[0] = event.getParsingPath();
+				return true;
+			}
+		});
+		assertEquals("/ /a /a/b /a/b/[0] /a/b/[1] /a/b/[1]/c /a/b/[1] /a/b /a / ", paths.toString());
+		ParsingPath path = leaf[0];
+		assertEquals(4, path.getDepth());
+		assertTrue(path.getSegment(3).isIndex());
+		assertTrue(path.getSegment(3).matches(1));
+		assertEquals("b", path.getSegment(2).getKey());
+		assertEquals(ParsingPath.ROOT, path.getSegment(0));
+		assertEquals("/a/b/[1]/c", path.toString());
+		
+		//an event only defining its String path still provides its segments
+		ParsingEvent event = new ParsingEvent() {
+			private String path;
+			
+			@Override
+			public int getType() {
+				return ParsingEvent.JSON_OBJECT_ITEM;
+			}
+			
+			@Override
+			public String getPath() {
+				return this.path;
+			}
+			
+			@Override
+			public ParsingEvent withPath(String path) {
+				this.path = path;
+				return this;
+			}
+			
+			@Override
+			public <P extends ParsingEvent> P adapt(Class<P> type) {
+				return null;
+			}
+		};
+		assertEquals(null, event.getParsingPath());
+		path = event.withPath(path).getParsingPath();
+		assertEquals("/a/b/[1]/c", event.getPath());
+		assertEquals(4, path.getDepth());
+		assertTrue(path.getSegment(3).matches(1));
+		assertTrue(path.matches("c"));
+		assertEquals(ParsingPath.ROOT, path.getSegment(0));
+	}
+	
+	@Test
+	public void testReusableEvents() {
+		EventsHandler expected = new EventsHandler();
+		new LysonParser(JSON).parse(expected);
+		EventsHandler actual = new EventsHandler();
+		new LysonParser(JSON).withReusableEvents(true).parse(actual);
+		assertEquals(expected.events.toString(), actual.events.toString());
+		
+		final ParsingEvent[] items = new ParsingEvent[2];
+		new LysonParser("[1,2]").withReusableEvents(true).parse(new EventsHandler() {
+			@Override
+			public boolean handle(ParsingEvent event) {
+				if(event != null && event.getType() == ParsingEvent.JSON_ARRAY_ITEM) 
+					items[event.adapt(IndexedEventWrapper.class).getIndex()] = event;
+				return event != null;
+			}
+		});
+		assertTrue(items[0] == items[1]);
+		assertEquals("/[1]", items[1].getPath());
+	}
+	
+	@Test
+	public void testLysonReader() {
+		LysonReader reader = new LysonReader("{\"skipped\":{\"a\":[1,{\"b\":2}]},\"arr\":[\"fst\",2],\"last\":true}");
+		assertEquals(ParsingEvent.JSON_OBJECT_OPENING, reader.next());
+		assertEquals(ParsingEvent.JSON_OBJECT_OPENING, reader.next());
+		assertEquals("skipped", reader.currentKey());
+		reader.skipChildren();
+		assertEquals(ParsingEvent.JSON_OBJECT_CLOSING, reader.currentType());
+		assertEquals("/skipped", reader.currentPath());
+		assertEquals(ParsingEvent.JSON_ARRAY_OPENING, reader.next());
+		assertEquals(ParsingEvent.JSON_ARRAY_ITEM, reader.next());
+		assertEquals(0, reader.currentIndex());
+		assertEquals("fst", reader.currentValue());
+		reader.next();
+		assertEquals(1, reader.currentIndex());
+		assertEquals(2, reader.currentValue());
+		assertEquals(ParsingEvent.JSON_ARRAY_CLOSING, reader.next());
+		assertEquals(ParsingEvent.JSON_OBJECT_ITEM, reader.next());
+		assertEquals("last", reader.currentKey());
+		assertEquals(Boolean.TRUE, reader.currentValue());
+		assertEquals(ParsingEvent.JSON_OBJECT_CLOSING, reader.next());
+		assertEquals(LysonReader.END_OF_INPUT, reader.next());
+		assertTrue(reader.isDone());
+		
+		reader = new LysonReader("[1,2,");
+		try {
+			while(reader.next() != LysonReader.END_OF_INPUT);
+			fail("LysonParsingException expected");
+		} catch(LysonParsingException e) {
+			assertTrue(reader.isDone());
+		}
+	}
+	
+	@Test
+	public void testNumberFromString() {
+		assertEquals(Integer.valueOf(-12), LysonParser.numberFromString("-12"));
+		assertEquals(Long.valueOf(2147483648L), LysonParser.numberFromString("2147483648"));
+		assertEquals(new BigInteger("9223372036854775808"), LysonParser.numberFromString("9223372036854775808"));
+		assertEquals(Integer.valueOf(0x1F), LysonParser.numberFromString("0x1F"));
+		assertEquals(Integer.valueOf(8), LysonParser.numberFromString("010"));
+		assertEquals(null, LysonParser.numberFromString("09"));
+		assertEquals(Double.valueOf(0.1), LysonParser.numberFromString("0.1"));
+		assertEquals(Double.valueOf(1.7976931348623157E308), LysonParser.numberFromString("1.7976931348623157E308"));
+		assertEquals(Double.valueOf(2.2250738585072014E-308), LysonParser.numberFromString("2.2250738585072014E-308"));
+		assertEquals(Double.valueOf(9007199254740992d), LysonParser.numberFromString("9007199254740993.0"));
+		assertEquals(new BigDecimal("-1.5"), LysonParser.numberFromString("-1.5"));
+		assertEquals(new BigDecimal("1.8e308"), LysonParser.numberFromString("1.8e308"));
+		assertEquals(new BigDecimal("0.1"), LysonParser.numberFromString("0.1", true));
+		
+		final Object[] value = new Object[1];
+		new LysonParser("[0.5]").withExactNumbers(true).parse(new EventsHandler() {
+			@Override
+			public boolean handle(ParsingEvent event) {
+				if(event != null && event.getType() == ParsingEvent.JSON_ARRAY_ITEM)
+					value[0] = event.adapt(ValuableEventWrapper.class).getValue();
+				return event != null;
+			}
+		});
+		assertEquals(new BigDecimal("0.5"), value[0]);
+		
+		//unquoted values are converted from a view over the input buffer
+		List<Object> values = new ArrayList<>();
+		new LysonParser("[TRUE, nuLL , 12,1.5e3, ab c,-0.25]").parse(new EventsHandler() {
+			@Override
+			public boolean handle(ParsingEvent event) {
+				if(event != null && event.getType() == ParsingEvent.JSON_ARRAY_ITEM)
+					values.add(event.adapt(ValuableEventWrapper.class).getValue());
+				return event != null;
+			}
+		});
+		assertEquals(Arrays.asList(Boolean.TRUE, null, 12, 1500d, "ab c", new BigDecimal("-0.25")), values);
+		
+		//values close to a rounding boundary, undecided using the truncated 
+		//powers of five, are left to the BigDecimal conversion
+		Random random = new Random(42);
+		for(int i = 0; i < 20000; i++) {
+			double d = Math.abs(Double.longBitsToDouble(random.nextLong()));
+			if(Double.isNaN(d) || Double.isInfinite(d) || d < Double.MIN_NORMAL || d >= Double.MAX_VALUE) 
+				continue;
+			BigDecimal halfway = new BigDecimal(d).add(new BigDecimal(Math.nextUp(d))).divide(BigDecimal.valueOf(2));
+			BigDecimal rounded = halfway.round(new MathContext(19));
+			String digits = rounded.unscaledValue().toString() + "0";
+			String literal = digits.charAt(0) + "." + digits.substring(1) + "e" 
+				+ (digits.length() - 2 - rounded.scale());
+			assertEquals(literal, new BigDecimal(literal).doubleValue(), LysonParser.numberFromString(literal));
+		}
+	}
+	
+	@Test
+	public void testLazyNumbers() {
+		final StringBuilder values = new StringBuilder();
+		final Object[] value = new Object[1];
+		new LysonParser("[1.50,-12,1.5e3,0x1F,-2.25]").withLazyNumbers(true).parse(new EventsHandler() {
+			@Override
+			public boolean handle(ParsingEvent event) {
+				if(event != null && event.getType() == ParsingEvent.JSON_ARRAY_ITEM) {
+					value[0] = event.adapt(ValuableEventWrapper.class).getValue();
+					values.append(value[0]).append(value[0] instanceof LysonNumber).append(' ');
+				}
+				return event != null;
+			}
+		});
+		assertEquals("1.50true -12true 1.5e3true 31false -2.25true ", values.toString());
+		LysonNumber number = (LysonNumber) value[0];
+		assertTrue(number.isNegative());
+		assertTrue(number.hasFraction());
+		assertFalse(number.hasExponent());
+		assertEquals(new BigDecimal("-2.25"), number.numberValue());
+		assertEquals(-2.25d, number.doubleValue(), 0d);
+		assertEquals(-2, number.intValue());
+	}
+	
+	@Test
+	public void testStringViews() {
+		StringBuilder builder = new StringBuilder("[");
+		for(int i = 0; i < 10000; i++) 
+			builder.append(i%7==0?"\"esc\\u00e9\\\"":"\"plain").append(i).append("\",   ");
+		String json = builder.append("\"last\"]").toString();
+		
+		EventsHandler expected = new EventsHandler();
+		new LysonParser(json).parse(expected);
+		EventsHandler actual = new EventsHandler();
+		new LysonParser(json).withStringViews(true).parse(actual);
+		assertEquals(expected.events.toString(), actual.events.toString());
+		actual = new EventsHandler();
+		new LysonParser(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))).withStringViews(true).parse(actual);
+		assertEquals(expected.events.toString(), actual.events.toString());
+		
+		final Object[] value = new Object[1];
+		new LysonParser("{\"key\":\"\\u0041BC\"}").withStringViews(true).parse(new EventsHandler() {
+			@Override
+			public boolean handle(ParsingEvent event) {
+				if(event != null && event.getType() == ParsingEvent.JSON_OBJECT_ITEM) {
+					LysonString view = (LysonString) event.adapt(ValuableEventWrapper.class).getValue();
+					assertTrue(view.contentEquals("ABC"));
+					value[0] = view.toString();
+				}
+				return event != null;
+			}
+		});
+		assertEquals("ABC", value[0]);
+	}
+
+	private static class SkippingHandler extends EventsHandler {
+		
+		@Override
+		public LysonParserHandlerResult handleEvent(ParsingEvent event) {
+			if(!handle(event))
+				return LysonParserHandlerResult.STOP;
+			return "/payload".equals(event.getPath()) ? LysonParserHandlerResult.SKIP_CHILDREN 
+				: LysonParserHandlerResult.CONTINUE;
+		}
+	}
+	
+	@Test
+	public void testSkipChildren() {
+		String json = "{\"a\":1,\"payload\":{\"x\":[1,\"}]\",{\"y\":2}],\"z\":\"\\\"{\"},\"b\":[2]}";
+		EventsHandler all = new EventsHandler();
+		new LysonParser(json).parse(all);
+		
+		SkippingHandler skipping = new SkippingHandler();
+		new LysonParser(json).parse(skipping);
+		assertEquals(null, skipping.exception);
+		String events = skipping.events.toString();
+		assertFalse(events.contains("/payload/"));
+		assertTrue(events.contains("/b/[0]"));
+		
+		//a handler still interested in the subtree keeps receiving it
+		SkippingHandler mixed = new SkippingHandler();
+		EventsHandler other = new EventsHandler();
+		new LysonParser(json).parse(mixed, other);
+		assertEquals(events, mixed.events.toString());
+		assertEquals(all.events.toString(), other.events.toString());
+		
+		byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+		for(int size = 1; size <= bytes.length; size+=2) {
+			SkippingHandler pushed = new SkippingHandler();
+			LysonPushParser parser = new LysonPushParser(pushed);
+			for(int offset = 0; offset < bytes.length; offset+=size) 
+				parser.feed(ByteBuffer.wrap(bytes, offset, Math.min(size, bytes.length - offset)));
+			parser.endOfInput();
+			assertEquals(events, pushed.events.toString());
+		}
+		
+		try(LysonReader reader = new LysonReader(json)) {
+			reader.next();
+			reader.next();
+			assertEquals(ParsingEvent.JSON_OBJECT_OPENING, reader.next());
+			reader.skipChildren();
+			assertEquals("/payload", reader.currentPath());
+			assertEquals("/b", reader.next() == ParsingEvent.JSON_ARRAY_OPENING ? reader.currentPath() : null);
+		}
+	}
+
+	private static class RecordingMappingHandler extends MappingHandler {
+		
+		final StringBuilder events = new StringBuilder();
+		LysonParsingException exception;
+		
+		RecordingMappingHandler() {
+			super(Mapped.class);
+		}
+		
+		@Override
+		public boolean handle(ParsingEvent event) {
+			events.append(event).append('\n');
+			return super.handle(event);
+		}
+		
+		@Override
+		public void handle(LysonParsingException exception) {
+			this.exception = exception;
+		}
+	}
+	
+	@Test
+	public void testMappingSkipsUnmappedChildren() {
+		//the invalid content of the blob is only reported if it is not skipped
+		String json = "{\"key1\":\"a\",\"payload\":{\"blob\":{\"x\":[1,2},\"y\":3},\"more\":[4]},\"key2\":\"b\"}";
+		for(LysonParserDispatchMode mode : new LysonParserDispatchMode[] {LysonParserDispatchMode.INLINE, 
+			LysonParserDispatchMode.PIPELINED, LysonParserDispatchMode.QUEUED}) {
+			RecordingMappingHandler first = new RecordingMappingHandler();
+			RecordingMappingHandler second = new RecordingMappingHandler();
+			new LysonParser(json).withDispatchMode(mode).parse(first, second);
+			for(RecordingMappingHandler handler : Arrays.asList(first, second)) {
+				assertEquals(mode.name(), null, handler.exception);
+				assertFalse(mode.name(), handler.events.toString().contains("/payload/blob/"));
+				assertFalse(mode.name(), handler.events.toString().contains("/payload/more/"));
+				Mapped mapped = handler.getMapped();
+				assertEquals("a", mapped.getKey1());
+				assertEquals("b", mapped.getKey2());
+			}
+			//a handler unable to skip has the whole subtree parsed 
+			RecordingMappingHandler mixed = new RecordingMappingHandler();
+			EventsHandler other = new EventsHandler();
+			new LysonParser(json).withDispatchMode(mode).parse(mixed, other);
+			assertTrue(mode.name(), mixed.exception != null);
+			assertFalse(mode.name(), mixed.events.toString().contains("/payload/blob/"));
+		}
+	}
+
+	@Test
+	public void testLongStrings() {
+		StringBuilder builder = new StringBuilder();
+		for(int i = 0; i < 300; i++)
+			builder.append((char)('a' + i % 26));
+		String value = builder.toString();
+		String json = "{\"k\":\"" + value + "\",\"e\":\"" + value + "\\n\"}";
+		
+		EventsHandler expected = new EventsHandler();
+		new LysonParser(json).parse(expected);
+		assertEquals(null, expected.exception);
+		assertTrue(expected.events.toString().contains(value));
+		EventsHandler actual = new EventsHandler();
+		new LysonParser(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))).parse(actual);
+		assertEquals(expected.events.toString(), actual.events.toString());
+	}
+
+	@Test
+	public void testWordScanning() {
+		//specials characters at every offset of the eight bytes words
+		StringBuilder builder = new StringBuilder("{\n");
+		for(int i = 0; i < 24; i++) {
+			builder.append("                ".substring(i % 16)).append("\"k").append(i).append("\":");
+			StringBuilder value = new StringBuilder();
+			for(int j = 0; j < i; j++)
+				value.append((char)('a' + j));
+			value.insert(i / 2, i % 3 == 0 ? "\\\"" : i % 3 == 1 ? "\u00e9\u4e2d" : "'");
+			builder.append('"').append(value).append("\",\n");
+			builder.append("\"s").append(i).append("\":{\"x\":\"").append(value).append("\\\\\"},\n");
+		}
+		builder.append("\"end\":true}");
+		String json = builder.toString();
+		
+		EventsHandler expected = new EventsHandler();
+		new LysonParser(new StringReader(json)).parse(expected);
+		assertEquals(null, expected.exception);
+		EventsHandler actual = new EventsHandler();
+		new LysonParser(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))).parse(actual);
+		assertEquals(expected.events.toString(), actual.events.toString());
+		
+		SkippingHandler skipping = new SkippingHandler() {
+			@Override
+			public LysonParserHandlerResult handleEvent(ParsingEvent event) {
+				if(!handle(event))
+					return LysonParserHandlerResult.STOP;
+				return event.getPath().startsWith("/s") ? LysonParserHandlerResult.SKIP_CHILDREN 
+					: LysonParserHandlerResult.CONTINUE;
+			}
+		};
+		new LysonParser(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))).parse(skipping);
+		assertEquals(null, skipping.exception);
+		assertFalse(skipping.events.toString().contains("/x"));
+		assertTrue(skipping.events.toString().contains("/end"));
+	}
+
+	private static class ValuesHandler extends EventsHandler {
+		
+		@Override
+		public boolean handle(ParsingEvent event) {
+			if(event == null)
+				return false;
+			ValuableEventWrapper wrapper = event.adapt(ValuableEventWrapper.class);
+			events.append(event.getType()).append(event.getPath()).append('=').append(
+				wrapper == null ? null : wrapper.getValue()).append('\n');
+			return true;
+		}
+	}
+	
+	@Test
+	public void testParallelParsing() throws IOException {
+		StringBuilder builder = new StringBuilder("[\n");
+		for(int i = 0; i < 6000; i++) {
+			switch(i % 6) {
+				case 0:
+					builder.append("{\"id\":").append(i).append(",\"text\":\"a, [b] \\\"{c}\\\\\"},\n");
+					break;
+				case 1:
+					builder.append("['x\\', \"y\"', ").append(i).append(", [], {}] ,\n");
+					break;
+				case 2:
+					builder.append("unquoted ").append(i).append(",,\n");
+					break;
+				case 3:
+					builder.append("\"it's ").append(i).append("\";\n");
+					break;
+				case 4:
+					builder.append("{\"n\":{\"m\":[").append(i).append(",1.5e3,true,null]}}\n");
+					break;
+				default:
+					builder.append("\"\u00e9\u4e2d\" ,\n");
+			}
+		}
+		builder.append("\"end\"\n]\n");
+		Path path = Files.createTempFile("lyson", ".json");
+		try {
+			Files.write(path, builder.toString().getBytes(StandardCharsets.UTF_8));
+			ValuesHandler expected = new ValuesHandler();
+			new LysonParser(path).parse(expected);
+			assertEquals(null, expected.exception);
+			
+			ValuesHandler ordered = new ValuesHandler();
+			new LysonParser(path).withParallelism(4).parse(ordered);
+			assertEquals(null, ordered.exception);
+			assertEquals(expected.events.toString(), ordered.events.toString());
+			
+			ValuesHandler unordered = new ValuesHandler();
+			new LysonParser(path).withParallelism(4).withUnorderedElements(true).parse(unordered);
+			String[] expectedLines = expected.events.toString().split("\n");
+			String[] unorderedLines = unordered.events.toString().split("\n");
+			assertEquals(expectedLines[0], unorderedLines[0]);
+			Arrays.sort(expectedLines);
+			Arrays.sort(unorderedLines);
+			assertTrue(Arrays.equals(expectedLines, unorderedLines));
+			
+			//not closed root JSON Array, parsed sequentially
+			Files.write(path, builder.substring(0, builder.length() - 3).getBytes(StandardCharsets.UTF_8));
+			ValuesHandler truncated = new ValuesHandler();
+			new LysonParser(path).withParallelism(4).parse(truncated);
+			assertTrue(truncated.exception != null);
+		} finally {
+			Files.delete(path);
+		}
+	}
+
+	@Test
+	public void testParallelParsingRepeated() throws IOException {
+		StringBuilder builder = new StringBuilder("[\n");
+		for(int i = 0; i < 20000; i++)
+			builder.append("{\"k\":\"v").append(i).append("\",\"i\":").append(i).append("},\n");
+		builder.append("\"end\"\n]\n");
+		Path path = Files.createTempFile("lyson", ".json");
+		try {
+			Files.write(path, builder.toString().getBytes(StandardCharsets.UTF_8));
+			ValuesHandler expected = new ValuesHandler();
+			new LysonParser(path).parse(expected);
+			for(int i = 0; i < 50; i++) {
+				ValuesHandler actual = new ValuesHandler();
+				new LysonParser(path).withParallelism(4).parse(actual);
+				assertEquals(null, actual.exception);
+				assertEquals(expected.events.toString(), actual.events.toString());
+			}
+			
+			//content following the root JSON Array, the splitting gives up while 
+			//some ranges are still being scanned and the file is parsed sequentially
+			Files.write(path, builder.append("[1]\n").toString().getBytes(StandardCharsets.UTF_8));
+			expected = new ValuesHandler();
+			new LysonParser(path).parse(expected);
+			for(int i = 0; i < 50; i++) {
+				ValuesHandler actual = new ValuesHandler();
+				new LysonParser(path).withParallelism(4).parse(actual);
+				assertEquals(expected.events.toString(), actual.events.toString());
+			}
+		} finally {
+			Files.delete(path);
+		}
+	}
+	
+	@Test
+	public void testParallelParsingBoundAfterSeparator() throws IOException {
+		StringBuilder builder = new StringBuilder("[\n");
+		for(int i = 0; i < 20000; i++)
+			builder.append("{\"k\":\"v").append(i).append("\",\"i\":").append(i).append("},\n");
+		builder.append("\"end\"\n]");
+		//trailing white spaces move the bounds of the 16 ranges the file is divided into 
+		//with a parallelism of 4, until the first one lands right after a comma
+		int ranges = 16;
+		byte[] bytes = null;
+		for(int padding = 0; padding < 16 * 64; padding++) {
+			bytes = builder.toString().getBytes(StandardCharsets.UTF_8);
+			long bound = 1 + (bytes.length - 1) / ranges;
+			if(bytes[(int) bound - 1] == ',')
+				break;
+			builder.append(' ');
+			bytes = null;
+		}
+		assertTrue(bytes != null);
+		Path path = Files.createTempFile("lyson", ".json");
+		ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(4);
+		try {
+			Files.write(path, bytes);
+			ValuesHandler expected = new ValuesHandler();
+			new LysonParser(path).parse(expected);
+			ValuesHandler actual = new ValuesHandler();
+			new LysonParser(path).withParallelism(4).withExecutor(executor).parse(actual);
+			assertEquals(null, actual.exception);
+			assertEquals(expected.events.toString(), actual.events.toString());
+			//beyond the scans of the splitting, the segments have been parsed in parallel
+			assertTrue(executor.getTaskCount() > 2 * ranges - 1);
+		} finally {
+			executor.shutdown();
+			Files.delete(path);
+		}
+	}
+
+	@Test
+	public void testLinesParsing() {
+		StringBuilder builder = new StringBuilder();
+		StringBuilder large = new StringBuilder();
+		for(int i = 0; i < 40000; i++)
+			large.append((char)('a' + i % 26));
+		for(int i = 0; i < 30000; i++) {
+			if(i % 100 == 99)
+				builder.append("  \r\n");
+			else if(i == 5000)
+				builder.append("{\"key1\":\"v").append(i).append("\",\"key2\":}\n");
+			else if(i == 7000)
+				builder.append("{\"key1\":\"v").append(i).append("\",\"key2\":\"").append(large).append("\"}\n");
+			else
+				builder.append("{\"key1\":\"v").append(i).append("\",\"key2\":\"").append(i).append("\"}\r\n");
+		}
+		byte[] bytes = builder.toString().getBytes(StandardCharsets.UTF_8);
+		
+		List<Long> ends = new ArrayList<>();
+		List<Long> invalids = new ArrayList<>();
+		new LysonLinesParser(new ByteArrayInputStream(bytes)).withParallelism(4).parse(new LysonRecordHandler() {
+			@Override
+			public boolean handle(long record, ParsingEvent event) {
+				if(event == null)
+					ends.add(record);
+				else if("/key1".equals(event.getPath()))
+					assertEquals("v" + record, event.adapt(ValuableEventWrapper.class).getValue());
+				return true;
+			}
+			@Override
+			public void handle(long record, LysonParsingException exception) {
+				invalids.add(record);
+			}
+		});
+		assertEquals(Arrays.asList(5000L), invalids);
+		assertEquals(30000 - 300 - 1, ends.size());
+		for(int i = 1; i < ends.size(); i++)
+			assertTrue(ends.get(i - 1) < ends.get(i));
+		
+		Set<Long> unordered = new HashSet<>();
+		new LysonLinesParser(new ByteArrayInputStream(bytes)).withParallelism(4).withUnorderedRecords(true
+			).map(Mapped.class, (mapped, record) -> {
+				assertEquals("v" + record, mapped.getKey1());
+				unordered.add(record);
+			});
+		assertEquals(new HashSet<>(ends), unordered);
+	}
+
+	@Test
+	public void testMultipleDocumentsAndReset() {
+		String json = "{\"a\":1}\n[2,{\"b\":[]}]{\"c\":\"3\"}  ";
+		EventsHandler handler = new EventsHandler();
+		new LysonParser(json).withMultipleDocuments(true).parse(handler);
+		assertEquals(null, handler.exception);
+		String[] events = handler.events.toString().split("\n");
+		assertEquals(16, events.length);
+		assertEquals("[JSON_OBJECT_CLOSING][/]", events[2]);
+		assertEquals("[JSON_DOCUMENT_BOUNDARY][/]", events[3]);
+		assertEquals("[JSON_DOCUMENT_BOUNDARY][/]", events[11]);
+		assertEquals("null", events[15]);
+		
+		EventsHandler expected = new EventsHandler();
+		new LysonParser(json).parse(expected);
+		assertEquals(handler.events.toString().replace("[JSON_DOCUMENT_BOUNDARY][/]\n", ""), 
+			expected.events.toString());
+		
+		//a reset parser reads the new input from scratch, whatever its state
+		LysonParser parser = new LysonParser("{\"unfinished\":[");
+		for(int i = 0; i < 3; i++) {
+			EventsHandler reset = new EventsHandler();
+			parser.reset(new StringReader(json)).withMultipleDocuments(true).parse(reset);
+			assertEquals(handler.events.toString(), reset.events.toString());
+			EventsHandler bytes = new EventsHandler();
+			parser.reset(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))).parse(bytes);
+			assertEquals(handler.events.toString(), bytes.events.toString());
+		}
+		parser.close();
+		
+		try(LysonReader reader = new LysonReader("[1]")) {
+			for(int i = 0; i < 2; i++) {
+				assertEquals(ParsingEvent.JSON_ARRAY_OPENING, reader.next());
+				assertEquals(ParsingEvent.JSON_ARRAY_ITEM, reader.next());
+				assertEquals(ParsingEvent.JSON_ARRAY_CLOSING, reader.next());
+				assertEquals(LysonReader.END_OF_INPUT, reader.next());
+				reader.reset(new StringReader("[2]"));
+			}
+		}
+	}
+
+	@Test
+	public void testReadAhead() {
+		StringBuilder builder = new StringBuilder("[");
+		for(int i = 0; i < 20000; i++)
+			builder.append("{\"id\":").append(i).append(",\"text\":\"\u00e9t\u00e9 \ud83d\ude00 ").append(i).append("\"},");
+		String json = builder.append("true]").toString();
+		byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+		EventsHandler expected = new ValuesHandler();
+		new LysonParser(new ByteArrayInputStream(bytes)).parse(expected);
+		
+		//a slow stream providing a few bytes at a time
+		InputStream slow = new ByteArrayInputStream(bytes) {
+			@Override
+			public synchronized int read(byte[] b, int off, int len) {
+				return super.read(b, off, Math.min(len, 1 + (pos % 97)));
+			}
+			
+			@Override
+			public synchronized int available() {
+				return 0;
+			}
+		};
+		EventsHandler actual = new ValuesHandler();
+		LysonParser parser = new LysonParser(slow).withReadAhead(true);
+		parser.parse(actual);
+		assertEquals(null, actual.exception);
+		assertEquals(expected.events.toString(), actual.events.toString());
+		
+		actual = new ValuesHandler();
+		parser.reset(new ByteArrayInputStream(bytes)).parse(actual);
+		assertEquals(expected.events.toString(), actual.events.toString());
+		parser.close();
+	}
+
+	@Test
+	public void testDecompression() throws IOException {
+		StringBuilder builder = new StringBuilder("[");
+		for(int i = 0; i < 20000; i++)
+			builder.append("{\"id\":").append(i).append(",\"text\":\"\u00e9t\u00e9 ").append(i).append("\"},");
+		byte[] bytes = builder.append("true]").toString().getBytes(StandardCharsets.UTF_8);
+		EventsHandler expected = new ValuesHandler();
+		new LysonParser(new ByteArrayInputStream(bytes)).parse(expected);
+		
+		//three concatenated GZIP members, split anywhere in the document
+		ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+		int[] splits = {0, 1000, 250000, bytes.length};
+		for(int i = 1; i < splits.length; i++) {
+			try(GZIPOutputStream out = new GZIPOutputStream(gzip) {
+					@Override
+					public void close() throws IOException {
+						finish();
+					}
+				}) {
+				out.write(bytes, splits[i - 1], splits[i] - splits[i - 1]);
+			}
+		}
+		ByteArrayOutputStream zlib = new ByteArrayOutputStream();
+		try(DeflaterOutputStream out = new DeflaterOutputStream(zlib)) {
+			out.write(bytes);
+		}
+		EventsHandler actual = new ValuesHandler();
+		LysonParser parser = new LysonParser(new ByteArrayInputStream(gzip.toByteArray())).withDecompression(true);
+		parser.parse(actual);
+		assertEquals(null, actual.exception);
+		assertEquals(expected.events.toString(), actual.events.toString());
+		
+		actual = new ValuesHandler();
+		parser.reset(new ByteArrayInputStream(zlib.toByteArray())).parse(actual);
+		assertEquals(expected.events.toString(), actual.events.toString());
+		parser.close();
+		
+		Path file = Files.createTempFile("lyson", ".json.gz");
+		try {
+			Files.write(file, gzip.toByteArray());
+			for(int parallelism = 1; parallelism <= 3; parallelism++) {
+				actual = new ValuesHandler();
+				new LysonParser(file).withDecompression(true).withParallelism(parallelism).parse(actual);
+				assertEquals(null, actual.exception);
+				assertEquals(expected.events.toString(), actual.events.toString());
+			}
+			//a corrupted member fails the parsing
+			byte[] corrupted = gzip.toByteArray();
+			corrupted[corrupted.length - 12] ^= 0x55;
+			Files.write(file, corrupted);
+			actual = new ValuesHandler();
+			new LysonParser(file).withDecompression(true).withParallelism(2).parse(actual);
+			assertTrue(actual.exception != null);
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testSubscription() throws InterruptedException {
+		EventsHandler expected = new EventsHandler();
+		new LysonParser(JSON).parse(expected);
+		String[] events = expected.events.toString().split("\n");
+		
+		EventsHandler actual = new EventsHandler();
+		LysonSubscription subscription = new LysonParser(JSON).subscribe(actual);
+		assertEquals("", actual.events.toString());
+		subscription.request(3);
+		assertEquals(3, actual.events.toString().split("\n").length);
+		subscription.request(2);
+		assertEquals(String.join("\n", Arrays.copyOf(events, 5)) + "\n", actual.events.toString());
+		subscription.cancel();
+		subscription.request(10);
+		assertEquals(5, actual.events.toString().split("\n").length);
+		assertTrue(subscription.isCancelled());
+		
+		//requests made by the handler do not nest the deliveries
+		final int[] depth = new int[2];
+		final LysonSubscription[] reentrantSubscription = new LysonSubscription[1];
+		EventsHandler reentrant = new EventsHandler() {
+			@Override
+			public boolean handle(ParsingEvent event) {
+				depth[0]++;
+				depth[1] = Math.max(depth[1], depth[0]);
+				super.handle(event);
+				if(event != null)
+					reentrantSubscription[0].request(1);
+				depth[0]--;
+				return true;
+			}
+		};
+		reentrantSubscription[0] = new LysonParser(JSON).subscribe(reentrant);
+		reentrantSubscription[0].request(1);
+		assertEquals(1, depth[1]);
+		assertEquals(expected.events.toString(), reentrant.events.toString());
+		
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			CountDownLatch done = new CountDownLatch(1);
+			EventsHandler delivered = new EventsHandler() {
+				@Override
+				public boolean handle(ParsingEvent event) {
+					super.handle(event);
+					if(event == null)
+						done.countDown();
+					return true;
+				}
+			};
+			new LysonParser(JSON).subscribe(delivered, executor).request(Long.MAX_VALUE);
+			assertTrue(done.await(10, TimeUnit.SECONDS));
+			assertEquals(expected.events.toString(), delivered.events.toString());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testEventStreams() {
+		EventsHandler expected = new EventsHandler();
+		new LysonParser(JSON).parse(expected);
+		assertEquals(expected.events.toString(), new LysonParser(JSON).events().map(e -> e + "\n"
+			).collect(Collectors.joining()) + "null\n");
+		assertEquals(ParsingEvent.JSON_OBJECT_OPENING, new LysonParser(JSON).events().findFirst().get().getType());
+		assertEquals(3, new LysonParser(JSON).events().limit(3).count());
+		
+		//multiple documents are handed over whole
+		StringBuilder documents = new StringBuilder();
+		for(int i = 0; i < 2000; i++)
+			documents.append("{\"id\":").append(i).append(",\"values\":[1,2,{\"key\":\"v").append(i).append("\"}]}\n");
+		String sequential = new LysonParser(documents.toString()).withMultipleDocuments(true).events(
+			).map(ParsingEvent::toString).collect(Collectors.joining("\n"));
+		assertEquals(sequential, new LysonParser(documents.toString()).withMultipleDocuments(true).events(
+			).parallel().map(ParsingEvent::toString).collect(Collectors.joining("\n")));
+		assertEquals(1999, new LysonParser(documents.toString()).withMultipleDocuments(true).events().parallel(
+			).filter(e -> e.getType() == ParsingEvent.JSON_DOCUMENT_BOUNDARY).count());
+		
+		//records of JSON Lines are parsed by the threads of the stream
+		StringBuilder lines = new StringBuilder();
+		for(int i = 0; i < 30000; i++) {
+			if(i % 100 == 99)
+				lines.append("  \n");
+			else if(i == 5000)
+				lines.append("{\"key1\":\"v").append(i).append("\",\"key2\":}\n");
+			else
+				lines.append("{\"key1\":\"v").append(i).append("\",\"key2\":[").append(i).append(",true]}\n");
+		}
+		byte[] bytes = lines.toString().getBytes(StandardCharsets.UTF_8);
+		assertEquals(30000 - 300 - 1, new LysonLinesParser(new ByteArrayInputStream(bytes)).events().parallel(
+			).filter(e -> e.getType() == ParsingEvent.JSON_OBJECT_OPENING && "/".equals(e.getPath())).count());
+		List<Object> values = new LysonLinesParser(new ByteArrayInputStream(bytes)).events().parallel(
+			).filter(e -> "/key1".equals(e.getPath())).map(e -> e.adapt(ValuableEventWrapper.class).getValue()
+			).collect(Collectors.toList());
+		assertEquals(30000 - 300 - 1, values.size());
+		assertEquals("v0", values.get(0));
+		assertEquals("v29998", values.get(values.size() - 1));
+		assertEquals("v5001", values.get(5000 - 50));
+	}
+
+	@Test
+	public void testSharedExecutor() {
+		EventsHandler expected = new EventsHandler();
+		new LysonParser(JSON).parse(expected);
+		
+		AtomicInteger threads = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(4, r -> {
+			threads.incrementAndGet();
+			return new Thread(r);
+		});
+		try {
+			//the injected threads are reused from one document to another
+			for(int i = 0; i < 20; i++) {
+				for(LysonParserDispatchMode mode : LysonParserDispatchMode.values()) {
+					EventsHandler first = new EventsHandler();
+					EventsHandler second = new EventsHandler();
+					new LysonParser(JSON).withDispatchMode(mode).withExecutor(executor).parse(first, second);
+					assertEquals(expected.events.toString(), first.events.toString());
+					assertEquals(expected.events.toString(), second.events.toString());
+				}
+				EventsHandler pushed = new EventsHandler();
+				LysonPushParser push = new LysonPushParser(pushed, new EventsHandler()).withExecutor(executor);
+				push.feed(ByteBuffer.wrap(JSON.getBytes(StandardCharsets.UTF_8)));
+				push.endOfInput();
+				assertEquals(expected.events.toString(), pushed.events.toString());
+			}
+			assertTrue(threads.get() <= 4);
+			assertFalse(executor.isShutdown());
+			
+			List<String> paths = Arrays.asList("arr/[5]/embedded", "last", "*");
+			EvaluationHandler shared = new EvaluationHandler(paths);
+			new LysonParser(JSON).parse(shared);
+			EvaluationHandler injected = new EvaluationHandler(paths, null, executor);
+			new LysonParser(JSON).parse(injected);
+			assertEquals(shared.getResults().stream().map(e -> e.target + " : " + e.result).collect(Collectors.toList()),
+				injected.getResults().stream().map(e -> e.target + " : " + e.result).collect(Collectors.toList()));
+			assertFalse(shared.getResults().isEmpty());
+			assertFalse(executor.isShutdown());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test(timeout = 30000)
+	public void testQueuedConsumerParks() throws InterruptedException {
+		CountDownLatch resume = new CountDownLatch(1);
+		//a document whose second half is only available once resumed
+		Reader reader = new Reader() {
+			private final String[] parts = {"[1,", "2]"};
+			private int part;
+			
+			@Override
+			public int read(char[] buffer, int offset, int length) throws IOException {
+				if(this.part == this.parts.length) 
+					return -1;
+				if(this.part == 1) {
+					try {
+						resume.await();
+					} catch(InterruptedException e) {
+						throw new IOException(e);
+					}
+				}
+				String chunk = this.parts[this.part++];
+				chunk.getChars(0, chunk.length(), buffer, offset);
+				return chunk.length();
+			}
+			
+			@Override
+			public void close() {}
+		};
+		List<Thread> consumers = Collections.synchronizedList(new ArrayList<>());
+		EventsHandler first = new EventsHandler() {
+			@Override
+			public boolean handle(ParsingEvent event) {
+				consumers.add(Thread.currentThread());
+				return super.handle(event);
+			}
+		};
+		EventsHandler second = new EventsHandler();
+		Thread parsing = new Thread(() -> new LysonParser(reader).withDispatchMode(
+			LysonParserDispatchMode.QUEUED).parse(first, second));
+		parsing.start();
+		while(consumers.isEmpty()) 
+			Thread.sleep(10);
+		//the consumer of an empty queue waits without polling
+		Thread consumer = consumers.get(0);
+		while(consumer.getState() != Thread.State.WAITING) 
+			Thread.sleep(10);
+		resume.countDown();
+		parsing.join();
+		EventsHandler expected = new EventsHandler();
+		new LysonParser("[1,2]").parse(expected);
+		assertEquals(expected.events.toString(), first.events.toString());
+		assertEquals(expected.events.toString(), second.events.toString());
+	}
+	
+	@Test(timeout = 30000)
+	public void testSingleThreadExecutor() {
+		StringBuilder builder = new StringBuilder("[");
+		for(int i = 0; i < 5000; i++)
+			builder.append(i == 0?"":",").append(i);
+		String array = builder.append("]").toString();
+		EventsHandler expected = new EventsHandler();
+		new LysonParser(array).parse(expected);
+		
+		//the single thread of the executor cannot run a consumer per handler, which 
+		//are called threaded, by this thread and the executor's one only
+		ExecutorService pool = new LysonParserHandlerThreadExecutor(1, 1);
+		ExecutorService single = Executors.newSingleThreadExecutor();
+		try {
+			for(ExecutorService executor : Arrays.asList(pool, single)) {
+				for(LysonParserDispatchMode mode : Arrays.asList(LysonParserDispatchMode.PIPELINED, 
+					LysonParserDispatchMode.QUEUED)) {
+					Set<Thread> threads = Collections.synchronizedSet(new HashSet<>());
+					EventsHandler first = new EventsHandler() {
+						@Override
+						public boolean handle(ParsingEvent event) {
+							threads.add(Thread.currentThread());
+							return super.handle(event);
+						}
+					};
+					EventsHandler second = new EventsHandler();
+					new LysonParser(array).withDispatchMode(mode).withExecutor(executor).parse(first, second);
+					assertEquals(expected.events.toString(), first.events.toString());
+					assertEquals(expected.events.toString(), second.events.toString());
+					threads.remove(Thread.currentThread());
+					assertTrue(threads.size() <= 1);
+					for(Thread thread : threads)
+						assertFalse(thread.getName().startsWith("LysonParser-consumer"));
+				}
+			}
+		} finally {
+			pool.shutdown();
+			single.shutdown();
+		}
+	}
+	
+	@Test
+	public void testQueuedDispatch() throws InterruptedException {
+		EventsHandler expected = new EventsHandler();
+		new LysonParser(JSON).parse(expected);
+		EventsHandler first = new EventsHandler();
+		EventsHandler second = new EventsHandler();
+		LysonParser parser = new LysonParser(JSON).withDispatchMode(LysonParserDispatchMode.QUEUED);
+		parser.parse(first, second);
+		assertEquals(expected.events.toString(), first.events.toString());
+		assertEquals(expected.events.toString(), second.events.toString());
+		assertEquals(2, parser.metrics().size());
+		
+		StringBuilder builder = new StringBuilder("[");
+		for(int i = 0; i < 5000; i++)
+			builder.append(i == 0?"":",").append(i);
+		String array = builder.append("]").toString();
+		int events = 5003;
+		
+		for(LysonParserOverflowPolicy policy : new LysonParserOverflowPolicy[] {
+			LysonParserOverflowPolicy.DROP_OLDEST, LysonParserOverflowPolicy.FAIL_FAST}) {
+			//the slow handler waits for the fast one to be done
+			CountDownLatch done = new CountDownLatch(1);
+			EventsHandler fast = new EventsHandler() {
+				@Override
+				public boolean handle(ParsingEvent event) {
+					if(event == null)
+						done.countDown();
+					return super.handle(event);
+				}
+			};
+			EventsHandler slow = new EventsHandler() {
+				@Override
+				public boolean handle(ParsingEvent event) {
+					try {
+						done.await(10, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return super.handle(event);
+				}
+				
+				@Override
+				public LysonParserOverflowPolicy overflowPolicy() {
+					return policy;
+				}
+			};
+			parser = new LysonParser(array).withDispatchMode(LysonParserDispatchMode.QUEUED);
+			parser.parse(fast, slow);
+			assertEquals(events, fast.events.toString().split("\n").length);
+			
+			LysonParserHandlerMetrics fastMetrics = parser.metrics().get(0);
+			LysonParserHandlerMetrics slowMetrics = parser.metrics().get(1);
+			assertEquals(LysonParserOverflowPolicy.BLOCK, fastMetrics.getOverflowPolicy());
+			assertEquals(events, fastMetrics.getDelivered());
+			assertEquals(0, fastMetrics.getDropped());
+			assertEquals(policy, slowMetrics.getOverflowPolicy());
+			assertEquals(1024, slowMetrics.getMaximumLag());
+			if(policy == LysonParserOverflowPolicy.DROP_OLDEST) {
+				assertFalse(slowMetrics.isFailed());
+				assertTrue(slowMetrics.getDropped() > 0);
+				assertEquals(events, slowMetrics.getDelivered() + slowMetrics.getDropped());
+				assertTrue(slow.events.toString().endsWith("null\n"));
+			} else {
+				assertTrue(slowMetrics.isFailed());
+				assertTrue(slow.exception != null);
+				assertTrue(slowMetrics.getDelivered() < events);
+			}
+		}
+		
+		//the policy of the parser applies to the handlers which do not define their own
+		parser = new LysonParser(JSON).withDispatchMode(LysonParserDispatchMode.QUEUED
+			).withOverflowPolicy(LysonParserOverflowPolicy.DROP_OLDEST);
+		parser.parse(new EventsHandler());
+		assertEquals(LysonParserOverflowPolicy.DROP_OLDEST, parser.metrics().get(0).getOverflowPolicy());
+		assertTrue(new LysonParser(JSON).metrics().isEmpty());
+	}
+
+	@Test
+	public void testAdaptiveDispatch() {
+		StringBuilder builder = new StringBuilder("[");
+		for(int i = 0; i < 4000; i++)
+			builder.append(i == 0?"":",").append(i);
+		String array = builder.append("]").toString();
+		EventsHandler expected = new EventsHandler();
+		new LysonParser(array).parse(expected);
+		
+		Thread parsing = Thread.currentThread();
+		Set<Thread> cheapThreads = new HashSet<>();
+		List<Thread> phasedThreads = new ArrayList<>();
+		EventsHandler cheap = new EventsHandler() {
+			@Override
+			public boolean handle(ParsingEvent event) {
+				cheapThreads.add(Thread.currentThread());
+				return super.handle(event);
+			}
+		};
+		//expensive for the first events, and cheap afterwards
+		EventsHandler phased = new EventsHandler() {
+			@Override
+			public boolean handle(ParsingEvent event) {
+				phasedThreads.add(Thread.currentThread());
+				if(phasedThreads.size() < 1500) {
+					long end = System.nanoTime() + 300_000L;
+					while(System.nanoTime() < end) 
+						Thread.yield();
+				}
+				return super.handle(event);
+			}
+		};
+		new LysonParser(array).withDispatchMode(LysonParserDispatchMode.ADAPTIVE).parse(cheap, phased);
+		assertEquals(expected.events.toString(), cheap.events.toString());
+		assertEquals(expected.events.toString(), phased.events.toString());
+		
+		//the cheap handler is never offloaded, the other one only while expensive
+		assertEquals(Collections.singleton(parsing), cheapThreads);
+		assertTrue(phasedThreads.subList(0, 1500).stream().anyMatch(t -> t != parsing));
+		assertTrue(phasedThreads.subList(phasedThreads.size() - 500, phasedThreads.size()
+			).stream().allMatch(t -> t == parsing));
+	}
+	
+	@Test
+	public void testParseAll() throws IOException {
+		List<Path> paths = new ArrayList<>();
+		List<Object> inputs = new ArrayList<>();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for(int i = 0; i < 20; i++) {
+				Path path = Files.createTempFile("lyson", ".json");
+				paths.add(path);
+				Files.write(path, String.format("{\"file\":%s,\"values\":[%s,%s]}", i, i, -i
+					).getBytes(StandardCharsets.UTF_8));
+				inputs.add(path);
+				String json = String.format("[\"supplied\",%s]", i);
+				inputs.add((Supplier<StringReader>) () -> new StringReader(json));
+			}
+			AtomicInteger opened = new AtomicInteger();
+			AtomicInteger closed = new AtomicInteger();
+			inputs.add(5, (Supplier<InputStream>) () -> {
+				opened.incrementAndGet();
+				return new ByteArrayInputStream("{\"unfinished\":[".getBytes(StandardCharsets.UTF_8)) {
+					@Override
+					public void close() {
+						closed.incrementAndGet();
+					}
+				};
+			});
+			AtomicInteger released = new AtomicInteger();
+			inputs.add(9, (Supplier<Closeable>) () -> released::incrementAndGet);
+			
+			List<LysonParsingResult<Object, EventsHandler>> results = LysonParser.parseAll(
+				inputs, input -> new EventsHandler(), pool);
+			//each input is closed once parsed, even when it is not valid or not supported
+			assertEquals(1, opened.get());
+			assertTrue(closed.get() > 0);
+			assertEquals(1, released.get());
+			assertEquals(inputs.size(), results.size());
+			for(int i = 0; i < inputs.size(); i++) {
+				LysonParsingResult<Object, EventsHandler> result = results.get(i);
+				assertTrue(result.getInput() == inputs.get(i));
+				if(i == 5) {
+					assertFalse(result.isSuccessful());
+					assertTrue(result.getFailure() instanceof LysonParsingException);
+					assertTrue(result.getHandler().exception == result.getFailure());
+					continue;
+				}
+				if(i == 9) {
+					assertFalse(result.isSuccessful());
+					continue;
+				}
+				assertTrue(result.isSuccessful());
+				EventsHandler expected = new EventsHandler();
+				Object input = inputs.get(i);
+				if(input instanceof Path)
+					new LysonParser((Path) input).parse(expected);
+				else
+					new LysonParser((StringReader) ((Supplier<?>) input).get()).parse(expected);
+				assertEquals(expected.events.toString(), result.getHandler().events.toString());
+			}
+		} finally {
+			pool.shutdown();
+			for(Path path : paths)
+				Files.deleteIfExists(path);
+		}
+	}
+}
@@ -5,10 +5,15 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import org.junit.Test;
 
 import cmssi.lyson.LysonParser;
+import cmssi.lyson.LysonParserDispatchMode;
 import cmssi.lyson.event.ParsingEvent;
 import cmssi.lyson.exception.LysonParsingException;
 import cmssi.lyson.handler.validation.ValidationHandler;
@@ -129,4 +134,104 @@ public class TestValidation {
 		System.out.println(b.toString());
 		assertEquals(expected.toString(), b.toString());
 	}
+
+	@Test
+	public void testDispatchModes() {
+		String json = "{\"key1\":\"PARSED\",\"arr\":[5,0x45,{\"embedded\":8}],\"last\":null}";
+		StringBuilder inline = new StringBuilder();
+		StringBuilder threaded = new StringBuilder();
+		new LysonParser(json).withDispatchMode(LysonParserDispatchMode.INLINE).parse(new LysonParserHandler( ) {
+			@Override
+			public boolean handle(ParsingEvent event) {
+				inline.append(event);
+				return event != null;
+			}
+			@Override
+			public void handle(LysonParsingException exception) {
+			}			
+		});
+		new LysonParser(json).withDispatchMode(LysonParserDispatchMode.THREADED).parse(new LysonParserHandler( ) {
+			@Override
+			public boolean handle(ParsingEvent event) {
+				threaded.append(event);
+				return event != null;
+			}
+			@Override
+			public void handle(LysonParsingException exception) {
+			}			
+		});
+		assertEquals(threaded.toString(), inline.toString());
+		
+		StringBuilder fst = new StringBuilder();
+		StringBuilder snd = new StringBuilder();
+		new LysonParser(json).withDispatchMode(LysonParserDispatchMode.PIPELINED).parse(new LysonParserHandler( ) {
+			@Override
+			public boolean handle(ParsingEvent event) {
+				fst.append(event);
+				return event != null;
+			}
+			@Override
+			public void handle(LysonParsingException exception) {
+			}			
+		}, new LysonParserHandler( ) {
+			@Override
+			public boolean handle(ParsingEvent event) {
+				snd.append(event);
+				return event != null;
+			}
+			@Override
+			public void handle(LysonParsingException exception) {
+			}			
+		});
+		assertEquals(inline.toString(), fst.toString());
+		assertEquals(inline.toString(), snd.toString());
+		
+		ValidationHandler handler = new ValidationHandler();
+		new LysonParser("[8,{\"fst\": 5,}").withDispatchMode(LysonParserDispatchMode.INLINE).parse(handler);
+		assertFalse(handler.valid());
+		assertEquals(LysonParsingException.class, handler.cause().getClass());
+	}
+
+	@Test
+	public void testUTF8InputStream() {
+		String json = "{\"cl\u00E9\":\"\u00C8t\u00E9 \u20AC \uD83D\uDE00\",\"arr\":[\u00C8,\"\\u00C8\",1.5,0x45],\"last\" : \"\u4E2D\u6587\"}";
+		StringBuilder expected = new StringBuilder();
+		StringBuilder actual = new StringBuilder();
+		new LysonParser(json).parse(new LysonParserHandler( ) {
+			@Override
+			public boolean handle(ParsingEvent event) {
+				expected.append(event);
+				return event != null;
+			}
+			@Override
+			public void handle(LysonParsingException exception) {
+			}			
+		});
+		new LysonParser(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))).parse(new LysonParserHandler( ) {
+			@Override
+			public boolean handle(ParsingEvent event) {
+				actual.append(event);
+				return event != null;
+			}
+			@Override
+			public void handle(LysonParsingException exception) {
+			}			
+		});
+		assertTrue(expected.toString().contains("\u00C8t\u00E9 \u20AC \uD83D\uDE00"));
+		assertEquals(expected.toString(), actual.toString());
+		assertFalse(new LysonParser(new ByteArrayInputStream("{\"key\":\"\u00E9t\u00E9".getBytes(StandardCharsets.UTF_8))).valid());
+	}
+
+	@Test
+	public void testLysonParserConstructorWithPath() throws IOException {
+		Path path = Files.createTempFile("lyson", ".json");
+		try {
+			Files.write(path, "{\"key\":\"\u00E9t\u00E9\",\"arr\":[6,7,9,2]}".getBytes(StandardCharsets.UTF_8));
+			assertTrue(new LysonParser(path).valid());
+			Files.write(path, "{\"key\":\"\u00E9t\u00E9\",\"arr\":[6,7,9,2]".getBytes(StandardCharsets.UTF_8));
+			assertFalse(new LysonParser(path).valid());
+		} finally {
+			Files.delete(path);
+		}
+	}
 }